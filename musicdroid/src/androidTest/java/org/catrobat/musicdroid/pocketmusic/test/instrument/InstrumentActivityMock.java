@@ -48,6 +48,11 @@ public class InstrumentActivityMock extends InstrumentActivity {
         dismissed = true;
     }
 
+    @Override
+    public void runOnUiThread(Runnable action) {
+        action.run();
+    }
+
     @Override
     protected void redraw() {
 
@@ -0,0 +1,78 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.test.instrument;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+public class InstrumentActivityTest extends AndroidTestCase {
+
+    private InstrumentActivityMock activity;
+
+    @Override
+    protected void setUp() {
+        activity = new InstrumentActivityMock();
+    }
+
+    @Override
+    protected void tearDown() {
+        activity.getMidiPlayer().release();
+    }
+
+    public void testAddNoteEventUpToMaxTrackSize() {
+        for (int i = 0; i < InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS; i++) {
+            activity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, true));
+            activity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, false));
+        }
+
+        activity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, true));
+
+        assertEquals(InstrumentActivity.MAX_TRACK_SIZE_IN_NOTE_EVENTS, activity.getTrack().size());
+        assertEquals(InstrumentActivity.MAX_TRACK_SIZE_IN_NOTE_EVENTS, activity.getProject().getTrack(0).size());
+    }
+
+    public void testSelectTrack() {
+        Track secondTrack = TrackTestDataFactory.createTrack(MusicalInstrument.VIOLIN);
+        activity.getProject().addTrack(secondTrack);
+
+        activity.selectTrack(1);
+        activity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, true));
+        activity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, false));
+
+        assertEquals(1, activity.getTrackIndex());
+        assertSame(secondTrack, activity.getTrack());
+        assertEquals(2, activity.getProject().getTrack(1).size());
+        assertTrue(activity.getProject().getTrack(0).empty());
+
+        activity.selectTrack(0);
+
+        assertEquals(0, activity.getTrackIndex());
+        assertSame(activity.getProject().getTrack(0), activity.getTrack());
+    }
+}
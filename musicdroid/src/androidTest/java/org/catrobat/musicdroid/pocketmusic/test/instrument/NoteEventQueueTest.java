@@ -0,0 +1,136 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.test.instrument;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.instrument.NoteEventQueue;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NoteEventQueueTest extends AndroidTestCase {
+
+    public void testOfferAndDrain() {
+        NoteEventQueue queue = new NoteEventQueue(4);
+        NoteEvent noteOn = NoteEvent.valueOf(NoteName.C4, true);
+        NoteEvent noteOff = NoteEvent.valueOf(NoteName.C4, false);
+
+        assertTrue(queue.offer(10, noteOn));
+        assertTrue(queue.offer(20, noteOff));
+        assertEquals(2, queue.size());
+
+        NoteEventCollector collector = new NoteEventCollector();
+
+        assertEquals(2, queue.drain(collector));
+        assertTrue(queue.isEmpty());
+        assertEquals(10, collector.timestamps.get(0).longValue());
+        assertEquals(noteOn, collector.noteEvents.get(0));
+        assertEquals(20, collector.timestamps.get(1).longValue());
+        assertEquals(noteOff, collector.noteEvents.get(1));
+    }
+
+    public void testOfferFull() {
+        NoteEventQueue queue = new NoteEventQueue(2);
+        NoteEvent noteEvent = NoteEvent.valueOf(NoteName.C4, true);
+
+        assertTrue(queue.offer(1, noteEvent));
+        assertTrue(queue.offer(2, noteEvent));
+        assertFalse(queue.offer(3, noteEvent));
+
+        queue.drain(new NoteEventCollector());
+
+        assertTrue(queue.offer(4, noteEvent));
+    }
+
+    public void testWrapAround() {
+        NoteEventQueue queue = new NoteEventQueue(2);
+        NoteEventCollector collector = new NoteEventCollector();
+
+        for (long timestamp = 0; timestamp < 5; timestamp++) {
+            queue.offer(timestamp, NoteEvent.valueOf(NoteName.C4, true));
+            queue.drain(collector);
+        }
+
+        assertEquals(5, collector.timestamps.size());
+        assertEquals(4, collector.timestamps.get(4).longValue());
+    }
+
+    public void testInvalidCapacity() {
+        try {
+            new NoteEventQueue(3);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testProducerAndConsumerThreads() throws InterruptedException {
+        final NoteEventQueue queue = new NoteEventQueue(8);
+        final int eventCount = 10000;
+        final NoteName[] noteNames = NoteName.values();
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < eventCount; i++) {
+                    NoteEvent noteEvent = NoteEvent.valueOf(noteNames[i % noteNames.length], (i % 2) == 0);
+
+                    while (false == queue.offer(i, noteEvent)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        };
+
+        NoteEventCollector collector = new NoteEventCollector();
+
+        producer.start();
+
+        while (collector.timestamps.size() < eventCount) {
+            if (0 == queue.drain(collector)) {
+                Thread.yield();
+            }
+        }
+
+        producer.join();
+
+        for (int i = 0; i < eventCount; i++) {
+            assertEquals(i, collector.timestamps.get(i).longValue());
+            assertEquals(NoteEvent.valueOf(noteNames[i % noteNames.length], (i % 2) == 0), collector.noteEvents.get(i));
+        }
+    }
+
+    private static class NoteEventCollector implements NoteEventQueue.Consumer {
+
+        private List<Long> timestamps = new ArrayList<Long>();
+        private List<NoteEvent> noteEvents = new ArrayList<NoteEvent>();
+
+        @Override
+        public void onNoteEvent(long timestampNanos, NoteEvent noteEvent) {
+            timestamps.add(timestampNanos);
+            noteEvents.add(noteEvent);
+        }
+    }
+}
@@ -25,12 +25,19 @@ package org.catrobat.musicdroid.pocketmusic.test.instrument;
 
 import android.test.AndroidTestCase;
 
+import org.catrobat.musicdroid.pocketmusic.instrument.NoteLengthTickQuantizer;
 import org.catrobat.musicdroid.pocketmusic.instrument.TickProvider;
+import org.catrobat.musicdroid.pocketmusic.instrument.TimestampRingBuffer;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
 import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 public class TickProviderTest extends AndroidTestCase {
 
     private long[] currentTimeMillis;
@@ -44,7 +51,7 @@ public class TickProviderTest extends AndroidTestCase {
 
     public void testMockClassBehaviour() {
         for (long time : currentTimeMillis) {
-            assertEquals(time,  tickProvider.currentTimeMillis());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(time), tickProvider.nanoTime());
         }
     }
 
@@ -60,8 +67,8 @@ public class TickProviderTest extends AndroidTestCase {
     }
 
     public void testCounting() {
-        tickProvider.startCounting();
-        tickProvider.stopCounting();
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
 
         long difference = currentTimeMillis[1] - currentTimeMillis[0];
         NoteLength noteLength = NoteLength.getNoteLengthFromMilliseconds(difference, Project.DEFAULT_BEATS_PER_MINUTE);
@@ -79,6 +86,128 @@ public class TickProviderTest extends AndroidTestCase {
         assertEquals(noteLength.toTicks(Project.DEFAULT_BEATS_PER_MINUTE), tickProvider.getTick());
     }
 
+    public void testCountingRecordsTimestamps() {
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+
+        TimestampRingBuffer recording = tickProvider.getRecording();
+
+        assertEquals(2, recording.size());
+        assertTrue(recording.isPress(0));
+        assertEquals(NoteEvent.encode(NoteName.C4, true), recording.getNoteEventCode(0));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(currentTimeMillis[0]), recording.getTimestamp(0));
+        assertFalse(recording.isPress(1));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(currentTimeMillis[1]), recording.getTimestamp(1));
+    }
+
+    public void testQuantizeRecordingAtDifferentTempo() {
+        tickProvider = new TickProviderMock(Project.DEFAULT_BEATS_PER_MINUTE, 0, 1000, 1500, 2000);
+
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+
+        int beatsPerMinute = Project.DEFAULT_BEATS_PER_MINUTE / 2;
+        long startTick = 100;
+        long[] ticks = tickProvider.quantizeRecording(new NoteLengthTickQuantizer(true), beatsPerMinute, startTick);
+
+        long firstNoteEnd = startTick + NoteLength.HALF.toTicks(beatsPerMinute);
+        long secondNoteStart = firstNoteEnd + NoteLength.QUARTER.toTicks(beatsPerMinute);
+        long secondNoteEnd = secondNoteStart + NoteLength.QUARTER.toTicks(beatsPerMinute);
+
+        assertEquals(4, ticks.length);
+        assertEquals(startTick, ticks[0]);
+        assertEquals(firstNoteEnd, ticks[1]);
+        assertEquals(secondNoteStart, ticks[2]);
+        assertEquals(secondNoteEnd, ticks[3]);
+    }
+
+    public void testQuantizeRecordingMatchesLiveTicks() {
+        tickProvider = new TickProviderMock(Project.DEFAULT_BEATS_PER_MINUTE, 0, 1000, 1500, 2000);
+
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+
+        long[] ticks = tickProvider.quantizeRecording(tickProvider.getQuantizer(), Project.DEFAULT_BEATS_PER_MINUTE, 0);
+
+        assertEquals(tickProvider.getTick(), ticks[ticks.length - 1]);
+    }
+
+    public void testSetTickBasedOnTrackClearsRecording() {
+        tickProvider.startCounting(NoteName.C4);
+        tickProvider.stopCounting(NoteName.C4);
+
+        tickProvider.setTickBasedOnTrack(TrackTestDataFactory.createSimpleTrack());
+
+        assertEquals(0, tickProvider.getRecording().size());
+    }
+
+    public void testCountingOverlappingNotes() {
+        tickProvider = new TickProviderMock(Project.DEFAULT_BEATS_PER_MINUTE, 0, 10, 1000, 2000);
+
+        long firstPressTick = tickProvider.startCounting(NoteName.C4);
+        long secondPressTick = tickProvider.startCounting(NoteName.E4);
+        long firstReleaseTick = tickProvider.stopCounting(NoteName.C4);
+
+        assertEquals(1, tickProvider.getHeldNoteCount());
+        assertEquals(0, tickProvider.getTick());
+
+        long secondReleaseTick = tickProvider.stopCounting(NoteName.E4);
+
+        assertEquals(0, firstPressTick);
+        assertEquals(0, secondPressTick);
+        assertEquals(NoteLength.QUARTER.toTicks(Project.DEFAULT_BEATS_PER_MINUTE), firstReleaseTick);
+        assertEquals(NoteLength.HALF.toTicks(Project.DEFAULT_BEATS_PER_MINUTE), secondReleaseTick);
+        assertEquals(0, tickProvider.getHeldNoteCount());
+        assertEquals(secondReleaseTick, tickProvider.getTick());
+    }
+
+    public void testCountingLegatoNotes() {
+        tickProvider = new TickProviderMock(Project.DEFAULT_BEATS_PER_MINUTE, 0, 500, 510, 1000, 1010, 1500, 1510, 2000);
+
+        long firstPressTick = tickProvider.startCounting(NoteName.C4);
+        long secondPressTick = tickProvider.startCounting(NoteName.D4);
+        tickProvider.stopCounting(NoteName.C4);
+        long thirdPressTick = tickProvider.startCounting(NoteName.E4);
+        tickProvider.stopCounting(NoteName.D4);
+        long fourthPressTick = tickProvider.startCounting(NoteName.F4);
+        tickProvider.stopCounting(NoteName.E4);
+        long lastReleaseTick = tickProvider.stopCounting(NoteName.F4);
+
+        long stepTicks = NoteLength.getNoteLengthFromMilliseconds(500, Project.DEFAULT_BEATS_PER_MINUTE).toTicks(Project.DEFAULT_BEATS_PER_MINUTE);
+
+        assertEquals(0, firstPressTick);
+        assertEquals(stepTicks, secondPressTick);
+        assertEquals(2 * stepTicks, thirdPressTick);
+        assertEquals(3 * stepTicks, fourthPressTick);
+        assertEquals(4 * stepTicks, lastReleaseTick);
+        assertEquals(lastReleaseTick, tickProvider.getTick());
+    }
+
+    public void testCountingReleaseWithoutPress() {
+        long releaseTick = tickProvider.stopCounting(NoteName.C4);
+
+        assertEquals(0, releaseTick);
+        assertEquals(0, tickProvider.getTick());
+    }
+
+    public void testQuantizeRecordingOverlappingNotes() {
+        tickProvider = new TickProviderMock(Project.DEFAULT_BEATS_PER_MINUTE, 0, 10, 1000, 2000);
+
+        long[] expectedTicks = new long[] {
+                tickProvider.startCounting(NoteName.C4),
+                tickProvider.startCounting(NoteName.E4),
+                tickProvider.stopCounting(NoteName.C4),
+                tickProvider.stopCounting(NoteName.E4)
+        };
+        long[] actualTicks = tickProvider.quantizeRecording(tickProvider.getQuantizer(), Project.DEFAULT_BEATS_PER_MINUTE, 0);
+
+        assertTrue(Arrays.equals(expectedTicks, actualTicks));
+    }
+
     private class TickProviderMock extends TickProvider {
 
         private long[] currentTimeMillis;
@@ -91,8 +220,8 @@ public class TickProviderTest extends AndroidTestCase {
         }
 
         @Override
-        protected long currentTimeMillis() {
-            long result = currentTimeMillis[index];
+        protected long nanoTime() {
+            long result = TimeUnit.MILLISECONDS.toNanos(currentTimeMillis[index]);
             index++;
 
             return result;
@@ -0,0 +1,87 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.test.instrument;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.instrument.TimestampRingBuffer;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+
+public class TimestampRingBufferTest extends AndroidTestCase {
+
+    public void testAddPressAndRelease() {
+        TimestampRingBuffer buffer = new TimestampRingBuffer(4);
+
+        buffer.add(10, NoteEvent.valueOf(NoteName.C4, true));
+        buffer.add(20, NoteEvent.valueOf(NoteName.C4, false));
+
+        assertEquals(2, buffer.size());
+        assertTrue(buffer.isPress(0));
+        assertEquals(10, buffer.getTimestamp(0));
+        assertFalse(buffer.isPress(1));
+        assertEquals(NoteEvent.encode(NoteName.C4, false), buffer.getNoteEventCode(1));
+        assertEquals(20, buffer.getTimestamp(1));
+    }
+
+    public void testOverwritesOldestWhenFull() {
+        TimestampRingBuffer buffer = new TimestampRingBuffer(3);
+
+        for (long timestamp = 1; timestamp <= 5; timestamp++) {
+            buffer.add(timestamp, NoteEvent.valueOf(NoteName.C4, true));
+        }
+
+        assertEquals(3, buffer.size());
+        assertEquals(3, buffer.getTimestamp(0));
+        assertEquals(4, buffer.getTimestamp(1));
+        assertEquals(5, buffer.getTimestamp(2));
+    }
+
+    public void testClear() {
+        TimestampRingBuffer buffer = new TimestampRingBuffer(2);
+
+        buffer.add(1, NoteEvent.valueOf(NoteName.C4, true));
+        buffer.clear();
+
+        assertEquals(0, buffer.size());
+        assertEquals(2, buffer.capacity());
+    }
+
+    public void testGetTimestampInvalidLocation() {
+        TimestampRingBuffer buffer = new TimestampRingBuffer(2);
+
+        try {
+            buffer.getTimestamp(0);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    public void testInvalidCapacity() {
+        try {
+            new TimestampRingBuffer(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
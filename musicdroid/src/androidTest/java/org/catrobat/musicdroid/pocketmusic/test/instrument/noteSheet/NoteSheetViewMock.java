@@ -28,7 +28,6 @@ import android.util.AttributeSet;
 
 import org.catrobat.musicdroid.pocketmusic.instrument.noteSheet.NoteSheetView;
 import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetCanvas;
-import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetDrawer;
 import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPosition;
 import org.catrobat.musicdroid.pocketmusic.test.note.draw.CanvasMock;
 
@@ -48,7 +47,7 @@ public class NoteSheetViewMock extends NoteSheetView {
 
     public void draw() {
         noteSheetCanvas = new NoteSheetCanvas(new CanvasMock());
-        noteSheetDrawer = new NoteSheetDrawer(noteSheetCanvas, getResources(), symbols, key);
-        symbolPositions = noteSheetDrawer.drawNoteSheet();
+        applyPendingRedraw();
+        symbolPositions = noteSheetRenderer.drawNoteSheet(noteSheetCanvas, symbols, key);
     }
 }
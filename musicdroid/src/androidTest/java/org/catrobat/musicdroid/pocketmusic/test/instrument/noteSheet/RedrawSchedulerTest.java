@@ -0,0 +1,117 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.test.instrument.noteSheet;
+
+import android.content.Context;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+import org.catrobat.musicdroid.pocketmusic.instrument.noteSheet.RedrawScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RedrawSchedulerTest extends AndroidTestCase {
+
+    private ViewMock view;
+    private int redrawCount;
+    private RedrawScheduler redrawScheduler;
+
+    @Override
+    protected void setUp() {
+        view = new ViewMock(getContext());
+        redrawCount = 0;
+        redrawScheduler = new RedrawScheduler(view, new Runnable() {
+            @Override
+            public void run() {
+                redrawCount++;
+            }
+        });
+    }
+
+    public void testScheduleRedrawCoalescesRequests() {
+        redrawScheduler.scheduleRedraw();
+        redrawScheduler.scheduleRedraw();
+        redrawScheduler.scheduleRedraw();
+
+        assertEquals(1, view.postedRunnables.size());
+        assertTrue(redrawScheduler.isScheduled());
+
+        view.runFrame();
+
+        assertEquals(1, redrawCount);
+        assertFalse(redrawScheduler.isScheduled());
+    }
+
+    public void testScheduleRedrawAfterFrame() {
+        redrawScheduler.scheduleRedraw();
+        view.runFrame();
+        redrawScheduler.scheduleRedraw();
+        view.runFrame();
+
+        assertEquals(2, redrawCount);
+    }
+
+    public void testCancel() {
+        redrawScheduler.scheduleRedraw();
+        redrawScheduler.cancel();
+
+        assertFalse(redrawScheduler.isScheduled());
+        assertEquals(0, view.postedRunnables.size());
+        assertEquals(0, redrawCount);
+    }
+
+    private static class ViewMock extends View {
+
+        private List<Runnable> postedRunnables = new ArrayList<Runnable>();
+
+        public ViewMock(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void postOnAnimation(Runnable runnable) {
+            postedRunnables.add(runnable);
+        }
+
+        @Override
+        public boolean postDelayed(Runnable runnable, long delayMillis) {
+            postedRunnables.add(runnable);
+            return true;
+        }
+
+        @Override
+        public boolean removeCallbacks(Runnable runnable) {
+            return postedRunnables.remove(runnable);
+        }
+
+        public void runFrame() {
+            List<Runnable> runnables = new ArrayList<Runnable>(postedRunnables);
+            postedRunnables.clear();
+
+            for (Runnable runnable : runnables) {
+                runnable.run();
+            }
+        }
+    }
+}
@@ -40,6 +40,14 @@ public class MusicalInstrumentTest extends AndroidTestCase {
 		assertGetInstrumentFromProgram(invalidProgram, MusicalInstrument.ACOUSTIC_GRAND_PIANO);
 	}
 
+	public void testGetInstrumentFromProgramAllInstruments() {
+		for (MusicalInstrument instrument : MusicalInstrument.values()) {
+			assertGetInstrumentFromProgram(instrument.getProgram(), instrument);
+		}
+
+		assertGetInstrumentFromProgram(-1, MusicalInstrument.ACOUSTIC_GRAND_PIANO);
+	}
+
 	private void assertGetInstrumentFromProgram(int program, MusicalInstrument expectedInstrument) {
         MusicalInstrument actualInstrument = MusicalInstrument.getInstrumentFromProgram(program);
 		assertEquals(expectedInstrument, actualInstrument);
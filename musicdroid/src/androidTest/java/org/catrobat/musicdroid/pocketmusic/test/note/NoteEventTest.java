@@ -85,4 +85,34 @@ public class NoteEventTest extends AndroidTestCase {
         assertTrue(noteEvent != copyNoteEvent);
         assertTrue(noteEvent.equals(copyNoteEvent));
     }
+
+    public void testValueOf() {
+        NoteEvent noteEvent1 = NoteEvent.valueOf(NoteName.C4, true);
+        NoteEvent noteEvent2 = NoteEvent.valueOf(NoteName.C4, true);
+
+        assertTrue(noteEvent1 == noteEvent2);
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.C4, true), noteEvent1);
+    }
+
+    public void testCodeRoundTrip() {
+        for (NoteName noteName : NoteName.values()) {
+            NoteEvent noteOnEvent = NoteEventTestDataFactory.createNoteEvent(noteName, true);
+            NoteEvent noteOffEvent = NoteEventTestDataFactory.createNoteEvent(noteName, false);
+
+            assertEquals(noteOnEvent, NoteEvent.fromCode(noteOnEvent.toCode()));
+            assertEquals(noteOffEvent, NoteEvent.fromCode(noteOffEvent.toCode()));
+            assertEquals(noteName.getMidi(), NoteEvent.getMidiFromCode(noteOnEvent.toCode()));
+            assertTrue(NoteEvent.isNoteOnCode(noteOnEvent.toCode()));
+            assertFalse(NoteEvent.isNoteOnCode(noteOffEvent.toCode()));
+        }
+    }
+
+    public void testFromInvalidCode() {
+        try {
+            NoteEvent.fromCode(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
 }
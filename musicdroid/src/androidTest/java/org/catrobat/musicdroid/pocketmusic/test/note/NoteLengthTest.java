@@ -207,4 +207,52 @@ public class NoteLengthTest extends AndroidTestCase {
     public void testIsHalfOrHigher2() {
         assertFalse(NoteLength.QUARTER.isHalfOrHigher());
     }
+
+    public void testGetNoteLengthFromTickDurationMatchesRoundedTicks() {
+        for (int beatsPerMinute = 1; beatsPerMinute <= 320; beatsPerMinute++) {
+            long maxDuration = NoteLength.WHOLE_DOT.toTicks(beatsPerMinute) + beatsPerMinute;
+
+            for (long duration = 0; duration <= maxDuration; duration++) {
+                assertEquals(getNoteLengthFromTickDuration(duration, beatsPerMinute), NoteLength.getNoteLengthFromTickDuration(duration, beatsPerMinute));
+            }
+        }
+    }
+
+    public void testGetNoteLengthFromMillisecondsMatchesNearestLength() {
+        for (int beatsPerMinute = 1; beatsPerMinute <= 320; beatsPerMinute += 7) {
+            long maxMilliseconds = NoteLength.WHOLE_DOT.toMilliseconds(beatsPerMinute) + 1000;
+
+            for (long millis = 0; millis <= maxMilliseconds; millis++) {
+                assertEquals(getNoteLengthFromMilliseconds(millis, beatsPerMinute), NoteLength.getNoteLengthFromMilliseconds(millis, beatsPerMinute));
+            }
+        }
+    }
+
+    private static NoteLength getNoteLengthFromTickDuration(long duration, int beatsPerMinute) {
+        NoteLength noteLength = NoteLength.SIXTEENTH;
+
+        for (NoteLength currentNoteLength : NoteLength.values()) {
+            if ((currentNoteLength.toTicks(beatsPerMinute) <= duration) && (currentNoteLength.ordinal() < noteLength.ordinal())) {
+                noteLength = currentNoteLength;
+            }
+        }
+
+        return noteLength;
+    }
+
+    private static NoteLength getNoteLengthFromMilliseconds(long millis, int beatsPerMinute) {
+        NoteLength noteLength = NoteLength.SIXTEENTH;
+        long minDistance = Long.MAX_VALUE;
+
+        for (NoteLength currentNoteLength : NoteLength.values()) {
+            long distance = Math.abs(currentNoteLength.toMilliseconds(beatsPerMinute) - millis);
+
+            if ((distance < minDistance) || ((distance == minDistance) && (currentNoteLength.ordinal() > noteLength.ordinal()))) {
+                noteLength = currentNoteLength;
+                minDistance = distance;
+            }
+        }
+
+        return noteLength;
+    }
 }
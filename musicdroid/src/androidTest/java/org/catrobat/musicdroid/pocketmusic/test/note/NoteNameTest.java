@@ -162,4 +162,46 @@ public class NoteNameTest extends AndroidTestCase {
 
 		assertEquals(expectedDistance, NoteName.calculateDistanceToMiddleLineCountingSignedNotesOnly(key, noteName));
 	}
+
+	public void testGetNoteNameFromMidiValueAllNoteNames() {
+		for (NoteName noteName : NoteName.values()) {
+			assertEquals(noteName, NoteName.getNoteNameFromMidiValue(noteName.getMidi()));
+		}
+
+		assertEquals(NoteName.C4, NoteName.getNoteNameFromMidiValue(-1));
+		assertEquals(NoteName.C4, NoteName.getNoteNameFromMidiValue(0));
+	}
+
+	public void testCalculateDistanceCountingNoneSignedNotesOnlyAllNoteNames() {
+		for (NoteName referenceNoteName : NoteName.values()) {
+			for (NoteName noteName : NoteName.values()) {
+				assertEquals(calculateDistanceByWalking(referenceNoteName, noteName),
+						NoteName.calculateDistanceCountingNoneSignedNotesOnly(referenceNoteName, noteName));
+			}
+		}
+	}
+
+	private int calculateDistanceByWalking(NoteName referenceNoteName, NoteName noteName) {
+		int distance = 0;
+		boolean isDownGoing = (noteName.getMidi() - referenceNoteName.getMidi()) > 0;
+
+		NoteName smallNoteName = isDownGoing ? referenceNoteName : noteName;
+		NoteName largeNoteName = isDownGoing ? noteName : referenceNoteName;
+
+		if (smallNoteName.isSigned()) {
+			distance = 1;
+		} else if (largeNoteName.isSigned()) {
+			distance = -1;
+		}
+
+		while (smallNoteName != largeNoteName) {
+			if (!smallNoteName.isSigned()) {
+				distance++;
+			}
+
+			smallNoteName = smallNoteName.next();
+		}
+
+		return (isDownGoing ? distance * (-1) : distance);
+	}
 }
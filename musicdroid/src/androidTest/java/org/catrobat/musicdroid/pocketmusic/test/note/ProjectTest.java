@@ -51,6 +51,15 @@ public class ProjectTest extends AndroidTestCase {
 		assertEquals(track, project.getTrack(0));
 	}
 
+	public void testSetTrack() {
+		Project project = ProjectTestDataFactory.createProjectWithTrack();
+		Track track = TrackTestDataFactory.createSimpleTrack();
+		project.setTrack(0, track);
+
+		assertEquals(1, project.size());
+		assertEquals(track, project.getTrack(0));
+	}
+
 	public void testRemoveTrack() {
 		Project project = ProjectTestDataFactory.createProject();
 		Track track = TrackTestDataFactory.createTrack();
@@ -0,0 +1,186 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.TrackCommandLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class TrackCommandLogTest extends AndroidTestCase {
+
+    private static final int BLOCK_HEADER_SLACK = 64;
+
+    private Track track;
+    private TrackCommandLog commandLog;
+
+    @Override
+    protected void setUp() {
+        track = TrackTestDataFactory.createTrack();
+        commandLog = new TrackCommandLog(track);
+    }
+
+    private void addNote(long tick, NoteName noteName) {
+        commandLog.beginUndoPoint(track);
+        addNoteEvent(tick, new NoteEvent(noteName, true));
+        addNoteEvent(tick + 1, new NoteEvent(noteName, false));
+    }
+
+    private void addNoteEvent(long tick, NoteEvent noteEvent) {
+        track.addNoteEvent(tick, noteEvent);
+        commandLog.logAddNoteEvent(tick, noteEvent);
+    }
+
+    public void testUndo1() {
+        assertFalse(commandLog.canUndo());
+        assertNull(commandLog.undo());
+    }
+
+    public void testUndo2() {
+        Track expectedTrack = new Track(track);
+        addNote(0, NoteName.C4);
+
+        assertEquals(expectedTrack, commandLog.undo());
+        assertFalse(commandLog.canUndo());
+    }
+
+    public void testRedo1() {
+        assertFalse(commandLog.canRedo());
+        assertNull(commandLog.redo());
+    }
+
+    public void testRedo2() {
+        addNote(0, NoteName.C4);
+        addNote(2, NoteName.D4);
+        Track expectedTrack = new Track(track);
+
+        commandLog.undo();
+        commandLog.undo();
+
+        assertEquals(2, commandLog.redoSize());
+        commandLog.redo();
+        assertEquals(expectedTrack, commandLog.redo());
+        assertFalse(commandLog.canRedo());
+    }
+
+    public void testUndoPointClearsRedo() {
+        addNote(0, NoteName.C4);
+        track = commandLog.undo();
+        addNote(0, NoteName.D4);
+
+        assertFalse(commandLog.canRedo());
+        assertEquals(1, commandLog.size());
+    }
+
+    public void testUndoClear() {
+        addNote(0, NoteName.C4);
+        Track expectedTrack = new Track(track);
+
+        commandLog.beginUndoPoint(track);
+        commandLog.logClear();
+
+        assertEquals(expectedTrack, commandLog.undo());
+        assertTrue(commandLog.redo().empty());
+    }
+
+    public void testUndoAcrossCheckpoints() {
+        commandLog = new TrackCommandLog(track, TrackCommandLog.DEFAULT_BYTE_BUDGET, 4);
+        Track[] expectedTracks = new Track[10];
+
+        for (int i = 0; i < expectedTracks.length; i++) {
+            expectedTracks[i] = new Track(track);
+            addNote(i * 2, NoteName.C4);
+        }
+
+        for (int i = expectedTracks.length - 1; i >= 0; i--) {
+            assertEquals(expectedTracks[i], commandLog.undo());
+        }
+    }
+
+    public void testByteBudget() {
+        int byteBudget = 256;
+        commandLog = new TrackCommandLog(track, byteBudget, 4);
+
+        for (int i = 0; i < 100; i++) {
+            addNote(i * 2, NoteName.C4);
+        }
+
+        assertTrue(commandLog.getByteSize() <= byteBudget);
+        assertTrue(commandLog.size() < 100);
+        assertTrue(commandLog.canUndo());
+
+        Track expectedTrack = new Track(track);
+        Track undoneTrack = commandLog.undo();
+
+        assertEquals(expectedTrack.size() - 2, undoneTrack.size());
+    }
+
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        for (int i = 0; i < 40; i++) {
+            addNote(i * 2, NoteName.C4);
+        }
+
+        Track expectedTrack = commandLog.undo();
+
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteOutputStream);
+        objectOutputStream.writeObject(commandLog);
+        objectOutputStream.close();
+
+        ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+        TrackCommandLog restoredCommandLog = (TrackCommandLog) objectInputStream.readObject();
+
+        Track redoneTrack = restoredCommandLog.redo();
+
+        assertEquals(expectedTrack.size() + 2, redoneTrack.size());
+        assertEquals(expectedTrack, restoredCommandLog.undo());
+    }
+
+    private int getSerializedSize(TrackCommandLog commandLog) throws IOException {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteOutputStream);
+        objectOutputStream.writeObject(commandLog);
+        objectOutputStream.close();
+
+        return byteOutputStream.size();
+    }
+
+    public void testSerializedSizeFollowsByteSize() throws IOException {
+        int emptySize = getSerializedSize(commandLog);
+
+        for (int i = 0; i < 100; i++) {
+            addNote(i * 2, NoteName.C4);
+        }
+
+        assertTrue(getSerializedSize(commandLog) - emptySize <= commandLog.getByteSize() + BLOCK_HEADER_SLACK);
+    }
+}
@@ -31,6 +31,8 @@ import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
 import org.catrobat.musicdroid.pocketmusic.note.NoteName;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 
+import java.util.Arrays;
+
 public class TrackTest extends AndroidTestCase {
 
 	public void testGetInstrument() {
@@ -151,6 +153,30 @@ public class TrackTest extends AndroidTestCase {
         assertEquals(tick, track.getLastTick());
     }
 
+    public void testLastTickKeepsLatestNoteOff() {
+        Track track = TrackTestDataFactory.createTrack();
+
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(NoteName.C4, true));
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(NoteName.D4, true));
+        track.addNoteEvent(960, NoteEventTestDataFactory.createNoteEvent(NoteName.C4, false));
+        track.addNoteEvent(480, NoteEventTestDataFactory.createNoteEvent(NoteName.D4, false));
+
+        assertEquals(960, track.getLastTick());
+        assertEquals(960, new Track(track).getLastTick());
+    }
+
+    public void testCreateDetachedCopy() {
+        Track track = TrackTestDataFactory.createSimpleTrack();
+        Track detachedCopy = track.createDetachedCopy();
+        long tick = track.getLastTick();
+
+        track.addNoteEvent(tick, NoteEventTestDataFactory.createNoteEvent(NoteName.E4, true));
+
+        assertEquals(track.size() - 1, detachedCopy.size());
+        assertEquals(1, detachedCopy.getNoteEventsForTick(tick).size());
+        assertEquals(tick, detachedCopy.getLastTick());
+    }
+
     public void testCopyTrack() {
         Track track = TrackTestDataFactory.createSimpleTrack();
         Track copyTrack = new Track(track);
@@ -186,4 +212,94 @@ public class TrackTest extends AndroidTestCase {
 
         assertEquals(expecteTotalTime, track.getTotalTimeInMilliseconds());
     }
+
+    public void testGetSortedTicks() {
+        Track track = TrackTestDataFactory.createTrack();
+
+        track.addNoteEvent(20, NoteEventTestDataFactory.createNoteEvent(false));
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(true));
+        track.addNoteEvent(10, NoteEventTestDataFactory.createNoteEvent(true));
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(false));
+
+        Long[] expectedTicks = new Long[] {0L, 10L, 20L};
+
+        assertEquals(3, track.getTickCount());
+        assertTrue(Arrays.equals(expectedTicks, track.getSortedTicks().toArray()));
+        assertEquals(2, track.getNoteEventsForTick(0).size());
+    }
+
+    public void testGetNoteEventsForMissingTick() {
+        Track track = TrackTestDataFactory.createSimpleTrack();
+
+        assertNull(track.getNoteEventsForTick(1));
+    }
+
+    public void testTickIterator() {
+        Track track = TrackTestDataFactory.createSimpleTrack();
+        Track.TickIterator it = track.tickIterator();
+        long previousTick = -1;
+        int noteEventCount = 0;
+
+        while (it.hasNext()) {
+            long tick = it.next();
+
+            assertTrue(tick > previousTick);
+            assertEquals(track.getNoteEventsForTick(tick), it.getNoteEvents());
+
+            noteEventCount += it.getNoteEvents().size();
+            previousTick = tick;
+        }
+
+        assertEquals(track.size(), noteEventCount);
+    }
+
+    public void testCopyTrackIsIndependent() {
+        Track track = TrackTestDataFactory.createSimpleTrack();
+        Track copyTrack = new Track(track);
+
+        track.addNoteEvent(track.getLastTick(), NoteEventTestDataFactory.createNoteEvent(true));
+
+        assertFalse(track.equals(copyTrack));
+        assertEquals(track.size() - 1, copyTrack.size());
+    }
+
+    public void testAddNoteEventIntoEarlierTick() {
+        Track track = TrackTestDataFactory.createTrack();
+
+        track.addNoteEvent(10, NoteEventTestDataFactory.createNoteEvent(NoteName.C4, false));
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(NoteName.C4, true));
+        track.addNoteEvent(0, NoteEventTestDataFactory.createNoteEvent(NoteName.D4, true));
+        track.addNoteEvent(10, NoteEventTestDataFactory.createNoteEvent(NoteName.D4, false));
+
+        assertEquals(4, track.size());
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.D4, true), track.getNoteEventsForTick(0).get(1));
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.C4, false), track.getNoteEventsForTick(10).get(0));
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.D4, false), track.getNoteEventsForTick(10).get(1));
+    }
+
+    public void testAddManyNoteEvents() {
+        Track track = TrackTestDataFactory.createTrack();
+        int noteCount = 1000;
+
+        for (int i = 0; i < noteCount; i++) {
+            track.addNoteEvent(i, NoteEventTestDataFactory.createNoteEvent(true));
+            track.addNoteEvent(i + 1, NoteEventTestDataFactory.createNoteEvent(false));
+        }
+
+        assertEquals(noteCount * 2, track.size());
+        assertEquals(noteCount + 1, track.getTickCount());
+        assertTrue(track.equals(new Track(track)));
+    }
+
+    public void testCopyTrackSharesUnchangedEvents() {
+        Track track = TrackTestDataFactory.createSimpleTrack();
+        Track copyTrack = new Track(track);
+        long tick = track.getLastTick();
+
+        copyTrack.addNoteEvent(tick, NoteEventTestDataFactory.createNoteEvent(NoteName.D4, true));
+        track.addNoteEvent(tick, NoteEventTestDataFactory.createNoteEvent(NoteName.E4, true));
+
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.D4, true), copyTrack.getNoteEventsForTick(tick).get(1));
+        assertEquals(NoteEventTestDataFactory.createNoteEvent(NoteName.E4, true), track.getNoteEventsForTick(tick).get(1));
+    }
 }
@@ -30,6 +30,7 @@ import android.graphics.Path;
 import android.graphics.Rect;
 import android.graphics.RectF;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -48,9 +49,67 @@ public class CanvasMock extends Canvas {
     public static final String DRAW_BITMAP = "drawBitmap";
 
     private Queue<String> drawnElements;
+    private Rect clipBounds;
+    private float translateX;
+    private float translateY;
+    private float[] savedTranslations;
+    private int saveCount;
+    private boolean recordingDrawnElements;
+    private int drawCount;
 
     public CanvasMock() {
         drawnElements = new LinkedList<String>();
+        clipBounds = new Rect(0, 0, WIDTH, HEIGHT);
+        translateX = 0;
+        translateY = 0;
+        savedTranslations = new float[32];
+        saveCount = 0;
+        recordingDrawnElements = true;
+        drawCount = 0;
+    }
+
+    public void setRecordingDrawnElements(boolean recordingDrawnElements) {
+        this.recordingDrawnElements = recordingDrawnElements;
+    }
+
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    public void setClipBounds(Rect clipBounds) {
+        this.clipBounds = clipBounds;
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+        return true;
+    }
+
+    @Override
+    public int save() {
+        if (2 * saveCount + 2 > savedTranslations.length) {
+            savedTranslations = Arrays.copyOf(savedTranslations, savedTranslations.length * 2);
+        }
+
+        savedTranslations[2 * saveCount] = translateX;
+        savedTranslations[2 * saveCount + 1] = translateY;
+        saveCount++;
+
+        return saveCount;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        translateX += dx;
+        translateY += dy;
+    }
+
+    @Override
+    public void restore() {
+        saveCount--;
+        translateX = savedTranslations[2 * saveCount];
+        translateY = savedTranslations[2 * saveCount + 1];
     }
 
     public Queue<String> getDrawnElements() {
@@ -66,27 +125,57 @@ public class CanvasMock extends Canvas {
 
     @Override
     public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
-        drawnElements.add(createString(DRAW_LINE, startX, startY, stopX, stopY));
+        drawCount++;
+
+        if (false == recordingDrawnElements) {
+            return;
+        }
+
+        drawnElements.add(createString(DRAW_LINE, startX + translateX, startY + translateY, stopX + translateX, stopY + translateY));
     }
 
     @Override
     public void drawRect(Rect r, Paint paint) {
-        drawnElements.add(createString(DRAW_RECT, r.left, r.top, r.right, r.bottom));
+        drawCount++;
+
+        if (false == recordingDrawnElements) {
+            return;
+        }
+
+        drawnElements.add(createString(DRAW_RECT, r.left + (int) translateX, r.top + (int) translateY, r.right + (int) translateX, r.bottom + (int) translateY));
     }
 
     @Override
     public void drawOval(RectF oval, Paint paint) {
-        drawnElements.add(createString(DRAW_OVAL, oval.left, oval.top, oval.right, oval.bottom, paint.getStyle()));
+        drawCount++;
+
+        if (false == recordingDrawnElements) {
+            return;
+        }
+
+        drawnElements.add(createString(DRAW_OVAL, oval.left + translateX, oval.top + translateY, oval.right + translateX, oval.bottom + translateY, paint.getStyle()));
     }
 
     @Override
     public void drawPath(Path path, Paint paint) {
+        drawCount++;
+
+        if (false == recordingDrawnElements) {
+            return;
+        }
+
         drawnElements.add(createString(DRAW_PATH));
     }
 
-        @Override
+    @Override
     public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
-        drawnElements.add(createString(DRAW_BITMAP, dst.left, dst.top, dst.right, dst.bottom));
+        drawCount++;
+
+        if (false == recordingDrawnElements) {
+            return;
+        }
+
+        drawnElements.add(createString(DRAW_BITMAP, dst.left + (int) translateX, dst.top + (int) translateY, dst.right + (int) translateX, dst.bottom + (int) translateY));
     }
 
     public static String createString(String methodName, Object... objects) {
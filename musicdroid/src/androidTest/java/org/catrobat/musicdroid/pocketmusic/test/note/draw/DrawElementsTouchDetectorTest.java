@@ -28,6 +28,7 @@ import android.test.AndroidTestCase;
 
 import org.catrobat.musicdroid.pocketmusic.note.draw.DrawElementsTouchDetector;
 import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPosition;
+import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPositionIndex;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -66,6 +67,20 @@ public class DrawElementsTouchDetectorTest extends AndroidTestCase {
         assertElementTouch(1, element2);
     }
 
+    public void testGetIndexOfTouchedDrawElementWithIndex() {
+        SymbolPositionIndex index = new SymbolPositionIndex(drawElements);
+
+        assertEquals(1, touchDetector.getIndexOfTouchedDrawElement(index, element2.getLeft(), element2.getTop()));
+        assertEquals(DrawElementsTouchDetector.INVALID_INDEX, touchDetector.getIndexOfTouchedDrawElement(index, element2.getLeft() - 1, element2.getTop()));
+    }
+
+    public void testGetIndicesOfDrawElementsInRect() {
+        SymbolPositionIndex index = new SymbolPositionIndex(drawElements);
+        List<Integer> indices = touchDetector.getIndicesOfDrawElementsInRect(index, new RectF(element1.getRight(), 0, element2.getLeft(), 1));
+
+        assertEquals(2, indices.size());
+    }
+
     private void assertElementTouch(int expectedIndex, SymbolPosition element) {
         assertElementTouch(expectedIndex, element.getLeft(), element.getBottom());
         assertElementTouch(expectedIndex, element.getRight(), element.getTop());
@@ -0,0 +1,82 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.draw;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.R;
+import org.catrobat.musicdroid.pocketmusic.note.draw.GlyphBitmapCache;
+
+public class GlyphBitmapCacheTest extends AndroidTestCase {
+
+    private static final int BITMAP_HEIGHT = 60;
+
+    private GlyphBitmapCache cache;
+
+    @Override
+    protected void setUp() {
+        cache = GlyphBitmapCache.getInstance();
+        cache.clear();
+    }
+
+    @Override
+    protected void tearDown() {
+        cache.clear();
+    }
+
+    public void testGetBitmap1() {
+        Bitmap bitmap = cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT);
+
+        assertEquals(BITMAP_HEIGHT, bitmap.getHeight());
+        assertSame(bitmap, cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT));
+    }
+
+    public void testGetBitmap2() {
+        Bitmap bitmap = cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT);
+
+        assertNotSame(bitmap, cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT * 2));
+        assertNotSame(bitmap, cache.getBitmap(getContext().getResources(), R.drawable.violine, BITMAP_HEIGHT));
+    }
+
+    public void testClear() {
+        Bitmap bitmap = cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT);
+        cache.clear();
+
+        assertEquals(0, cache.getSizeInBytes());
+        assertNotSame(bitmap, cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT));
+    }
+
+    public void testTrimMemory() {
+        cache.getBitmap(getContext().getResources(), R.drawable.cross, BITMAP_HEIGHT);
+        cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        assertTrue(cache.getSizeInBytes() > 0);
+
+        cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(0, cache.getSizeInBytes());
+    }
+}
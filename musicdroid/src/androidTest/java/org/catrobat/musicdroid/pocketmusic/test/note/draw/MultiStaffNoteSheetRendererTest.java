@@ -0,0 +1,361 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.draw;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.draw.MultiStaffNoteSheetRenderer;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetCanvas;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetDrawer;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.TrackToSymbolsConverter;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class MultiStaffNoteSheetRendererTest extends AbstractDrawerTest {
+
+    private static final int CLIP_WIDTH_FOR_ALL_SYMBOLS = 10000;
+
+    private List<Runnable> workerTasks;
+    private List<Runnable> uiTasks;
+    private MultiStaffNoteSheetRenderer renderer;
+    private int completedLayoutCount;
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+
+        workerTasks = new ArrayList<Runnable>();
+        uiTasks = new ArrayList<Runnable>();
+        completedLayoutCount = 0;
+
+        renderer = new MultiStaffNoteSheetRenderer(getContext().getResources(), createQueuingExecutor(workerTasks), createQueuingExecutor(uiTasks));
+
+        canvas.setClipBounds(new Rect(0, 0, CLIP_WIDTH_FOR_ALL_SYMBOLS, CanvasMock.HEIGHT));
+    }
+
+    private Executor createQueuingExecutor(final List<Runnable> tasks) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                tasks.add(runnable);
+            }
+        };
+    }
+
+    private void runTasks(List<Runnable> tasks) {
+        List<Runnable> queuedTasks = new ArrayList<Runnable>(tasks);
+        tasks.clear();
+
+        for (Runnable task : queuedTasks) {
+            task.run();
+        }
+    }
+
+    private MultiStaffNoteSheetRenderer.OnLayoutCompletedListener createListener() {
+        return new MultiStaffNoteSheetRenderer.OnLayoutCompletedListener() {
+            @Override
+            public void onLayoutCompleted() {
+                completedLayoutCount++;
+            }
+        };
+    }
+
+    private Project createProject() {
+        Project project = ProjectTestDataFactory.createProjectWithSemiComplexTracks();
+        project.addTrack(TrackTestDataFactory.createSimpleTrack());
+
+        return project;
+    }
+
+    private NoteSheetCanvas createStaffCanvas(CanvasMock canvas, final int staffHeight) {
+        return new NoteSheetCanvas(canvas) {
+            @Override
+            public int getHeight() {
+                return staffHeight;
+            }
+        };
+    }
+
+    private List<String> drawStavesWithNoteSheetDrawer(Project project) {
+        return drawStavesWithNoteSheetDrawer(project, -1);
+    }
+
+    private List<String> drawStavesWithNoteSheetDrawer(Project project, int selectedStaff) {
+        CanvasMock expectedCanvas = new CanvasMock();
+        int staffHeight = CanvasMock.HEIGHT / project.size();
+        NoteSheetCanvas staffCanvas = createStaffCanvas(expectedCanvas, staffHeight);
+
+        for (int i = 0; i < project.size(); i++) {
+            Track track = project.getTrack(i);
+
+            expectedCanvas.save();
+            expectedCanvas.translate(0, i * staffHeight);
+
+            if (i == selectedStaff) {
+                expectedCanvas.drawRect(new Rect(0, 0, CLIP_WIDTH_FOR_ALL_SYMBOLS, staffHeight), new Paint());
+            }
+
+            new NoteSheetDrawer(staffCanvas, getContext().getResources(), new TrackToSymbolsConverter().convertTrack(track), track.getKey()).drawNoteSheet();
+            expectedCanvas.restore();
+        }
+
+        return new ArrayList<String>(expectedCanvas.getDrawnElements());
+    }
+
+    private List<String> pollDrawnElements() {
+        List<String> drawnElements = new ArrayList<String>(canvas.getDrawnElements());
+        clearCanvasElementQueue();
+
+        return drawnElements;
+    }
+
+    public void testDrawNoteSheetLaysOutTracksOnWorkers() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertEquals(0, pollDrawnElements().size());
+        assertEquals(project.size(), workerTasks.size());
+        assertTrue(renderer.isLayoutPending());
+
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        assertFalse(renderer.isLayoutPending());
+        assertEquals(1, completedLayoutCount);
+        assertEquals(project.size(), renderer.getStaffCount());
+        assertEquals(CanvasMock.HEIGHT / project.size(), renderer.getStaffHeight());
+    }
+
+    public void testDrawNoteSheet() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertTrue(workerTasks.isEmpty());
+        assertEquals(drawStavesWithNoteSheetDrawer(project), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetLaysOutChangedTracksOnly() {
+        Project project = createProject();
+        Track track = project.getTrack(1);
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        track.addNoteEvent(track.getLastTick(), NoteEvent.valueOf(NoteName.C4, true));
+        track.addNoteEvent(track.getLastTick() + NoteLength.QUARTER.toTicks(track.getBeatsPerMinute()), NoteEvent.valueOf(NoteName.C4, false));
+        renderer.invalidateLayout();
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        clearCanvasElementQueue();
+
+        assertEquals(1, workerTasks.size());
+
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertFalse(renderer.isLayoutPending());
+        assertEquals(2, completedLayoutCount);
+        assertEquals(drawStavesWithNoteSheetDrawer(project), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetReusesUnchangedLayouts() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        renderer.invalidateLayout();
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(uiTasks);
+        clearCanvasElementQueue();
+
+        assertTrue(workerTasks.isEmpty());
+        assertFalse(renderer.isLayoutPending());
+        assertEquals(2, completedLayoutCount);
+    }
+
+    public void testDrawNoteSheetLaysOutReplacedTrack() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        project.setTrack(0, new Track(project.getTrack(0)));
+        renderer.invalidateLayout();
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        clearCanvasElementQueue();
+
+        assertEquals(1, workerTasks.size());
+    }
+
+    public void testDrawNoteSheetHighlightsSelectedStaff() {
+        Project project = createProject();
+
+        renderer.setSelectedStaff(1);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertEquals(drawStavesWithNoteSheetDrawer(project, 1), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetDoesNotHighlightSingleStaff() {
+        Project project = ProjectTestDataFactory.createProjectWithTrack();
+
+        renderer.setSelectedStaff(0);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertEquals(drawStavesWithNoteSheetDrawer(project), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetDiscardsStaleLayout() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        List<Runnable> staleWorkerTasks = new ArrayList<Runnable>(workerTasks);
+        workerTasks.clear();
+
+        project.addTrack(TrackTestDataFactory.createSemiComplexTrack(MusicalInstrument.TUBA));
+        renderer.invalidateLayout();
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        runTasks(staleWorkerTasks);
+        runTasks(uiTasks);
+
+        assertTrue(renderer.isLayoutPending());
+        assertEquals(0, renderer.getStaffCount());
+
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        assertFalse(renderer.isLayoutPending());
+        assertEquals(project.size(), renderer.getStaffCount());
+        assertEquals(1, completedLayoutCount);
+    }
+
+    public void testDrawNoteSheetRetriesFailedLayout() {
+        Project project = createProject();
+        project.addTrack(new Track(MusicalKey.VIOLIN, MusicalInstrument.ACOUSTIC_GRAND_PIANO, Project.DEFAULT_BEATS_PER_MINUTE) {
+            @Override
+            public Track createDetachedCopy() {
+                return this;
+            }
+
+            @Override
+            public MusicalKey getKey() {
+                throw new IllegalStateException();
+            }
+        });
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        List<Runnable> failingWorkerTasks = new ArrayList<Runnable>(workerTasks);
+        workerTasks.clear();
+
+        for (Runnable task : failingWorkerTasks) {
+            try {
+                task.run();
+            } catch (IllegalStateException e) {
+                assertNotNull(e);
+            }
+        }
+
+        runTasks(uiTasks);
+
+        assertTrue(renderer.isLayoutPending());
+        assertEquals(0, renderer.getStaffCount());
+        assertEquals(0, completedLayoutCount);
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+
+        assertEquals(project.size(), workerTasks.size());
+    }
+
+    public void testGetWidthForDrawingTrack() {
+        Project project = createProject();
+
+        renderer.drawNoteSheet(noteSheetCanvas, project, createListener());
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+
+        int staffHeight = CanvasMock.HEIGHT / project.size();
+        int expectedWidth = 0;
+
+        for (int i = 0; i < project.size(); i++) {
+            Track track = project.getTrack(i);
+            NoteSheetCanvas staffCanvas = createStaffCanvas(new CanvasMock(), staffHeight);
+            NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(staffCanvas, getContext().getResources(), new TrackToSymbolsConverter().convertTrack(track), track.getKey());
+            noteSheetDrawer.drawNoteSheet();
+            expectedWidth = Math.max(expectedWidth, noteSheetDrawer.getWidthForDrawingTrack());
+        }
+
+        assertEquals(expectedWidth, renderer.getWidthForDrawingTrack());
+    }
+
+    public void testDrawNoteSheetSteadyStateDoesNotAllocate() {
+        final Project project = createProject();
+        final MultiStaffNoteSheetRenderer.OnLayoutCompletedListener listener = createListener();
+
+        canvas.setRecordingDrawnElements(false);
+        renderer.drawNoteSheet(noteSheetCanvas, project, listener);
+        runTasks(workerTasks);
+        runTasks(uiTasks);
+        renderer.drawNoteSheet(noteSheetCanvas, project, listener);
+
+        int drawCount = canvas.getDrawCount();
+        int allocationCount = AllocationCounter.countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                renderer.drawNoteSheet(noteSheetCanvas, project, listener);
+            }
+        });
+
+        assertEquals(0, allocationCount);
+        assertEquals(2 * drawCount, canvas.getDrawCount());
+        assertEquals(0, workerTasks.size());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.draw;
+
+import android.graphics.Rect;
+
+import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetCanvas;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetDrawer;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetRenderer;
+import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPosition;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.Symbol;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.TrackToSymbolsConverter;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NoteSheetRendererTest extends AbstractDrawerTest {
+
+    private static final int CLIP_WIDTH_FOR_ALL_SYMBOLS = 10000;
+
+    private NoteSheetRenderer renderer;
+    private List<Symbol> symbols;
+    private MusicalKey key;
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+
+        Track track = TrackTestDataFactory.createSemiComplexTrack(MusicalInstrument.ACOUSTIC_GRAND_PIANO);
+        TrackToSymbolsConverter trackConverter = new TrackToSymbolsConverter();
+
+        renderer = new NoteSheetRenderer(getContext().getResources());
+        symbols = trackConverter.convertTrack(track);
+        key = track.getKey();
+
+        canvas.setClipBounds(new Rect(0, 0, CLIP_WIDTH_FOR_ALL_SYMBOLS, CanvasMock.HEIGHT));
+    }
+
+    private List<String> drawWithNoteSheetDrawer() {
+        CanvasMock expectedCanvas = new CanvasMock();
+        NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(new NoteSheetCanvas(expectedCanvas), getContext().getResources(), symbols, key);
+        noteSheetDrawer.drawNoteSheet();
+
+        return new ArrayList<String>(expectedCanvas.getDrawnElements());
+    }
+
+    private List<String> pollDrawnElements() {
+        List<String> drawnElements = new ArrayList<String>(canvas.getDrawnElements());
+        clearCanvasElementQueue();
+
+        return drawnElements;
+    }
+
+    public void testDrawNoteSheet() {
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(new NoteSheetCanvas(new CanvasMock()), getContext().getResources(), symbols, key);
+
+        assertEquals(noteSheetDrawer.drawNoteSheet(), symbolPositions);
+        assertEquals(noteSheetDrawer.getWidthForDrawingTrack(), renderer.getWidthForDrawingTrack());
+        assertEquals(drawWithNoteSheetDrawer(), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetReusesDisplayLists() {
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        List<SymbolPosition> redrawnSymbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        for (int i = 0; i < symbols.size(); i++) {
+            assertSame(symbolPositions.get(i), redrawnSymbolPositions.get(i));
+        }
+
+        assertEquals(symbols.size(), renderer.getCachedSymbolCount());
+        clearCanvasElementQueue();
+    }
+
+    public void testDrawNoteSheetMarkedSymbol() {
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        clearCanvasElementQueue();
+
+        symbols.get(0).setMarked(true);
+        List<SymbolPosition> redrawnSymbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        assertEquals(symbolPositions, redrawnSymbolPositions);
+        assertEquals(drawWithNoteSheetDrawer(), pollDrawnElements());
+    }
+
+    public void testDrawNoteSheetRemovesUnusedDisplayLists() {
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        symbols.remove(0);
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        assertEquals(symbols.size(), renderer.getCachedSymbolCount());
+        clearCanvasElementQueue();
+    }
+
+    public void testDrawNoteSheetAfterInvalidateLayout() {
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        clearCanvasElementQueue();
+
+        symbols.add(symbols.get(0));
+        renderer.invalidateLayout();
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(new NoteSheetCanvas(new CanvasMock()), getContext().getResources(), symbols, key);
+
+        assertEquals(noteSheetDrawer.drawNoteSheet(), symbolPositions);
+        assertEquals(noteSheetDrawer.getWidthForDrawingTrack(), renderer.getWidthForDrawingTrack());
+        assertEquals(drawWithNoteSheetDrawer(), pollDrawnElements());
+    }
+
+    public void testIndexOfFirstVisibleSymbol() {
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        clearCanvasElementQueue();
+
+        assertEquals(0, renderer.indexOfFirstVisibleSymbol(0));
+        assertEquals(1, renderer.indexOfFirstVisibleSymbol((int) symbolPositions.get(1).getLeft()));
+        assertEquals(symbols.size(), renderer.indexOfFirstVisibleSymbol(renderer.getWidthForDrawingTrack()));
+    }
+
+    public void testDrawNoteSheetSkipsSymbolsLeftOfClipBounds() {
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        List<String> drawnElements = pollDrawnElements();
+
+        canvas.setClipBounds(new Rect(renderer.getWidthForDrawingTrack() - 1, 0, CLIP_WIDTH_FOR_ALL_SYMBOLS, CanvasMock.HEIGHT));
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        List<String> clippedDrawnElements = pollDrawnElements();
+
+        assertTrue(clippedDrawnElements.size() < drawnElements.size());
+        assertEquals(drawnElements.subList(drawnElements.size() - clippedDrawnElements.size() + NUMBER_OF_BASIC_ELEMENTS_ON_SHEET, drawnElements.size()),
+                clippedDrawnElements.subList(NUMBER_OF_BASIC_ELEMENTS_ON_SHEET, clippedDrawnElements.size()));
+    }
+
+    public void testDrawNoteSheetSkipsInvisibleSymbols() {
+        canvas.setClipBounds(new Rect(0, 0, 1, CanvasMock.HEIGHT));
+
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        assertEquals(symbols.size(), symbolPositions.size());
+        assertCanvasElementQueueSize(NUMBER_OF_BASIC_ELEMENTS_ON_SHEET);
+        clearCanvasElementQueue();
+    }
+
+    public void testDrawNoteSheetMaxTrackSizeDrawsVisibleSymbolsOnly() {
+        Track track = TrackTestDataFactory.createTrack();
+        long quarterTicks = NoteLength.QUARTER.toTicks(track.getBeatsPerMinute());
+
+        for (int i = 0; i < InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS; i++) {
+            track.addNoteEvent(i * quarterTicks, NoteEvent.valueOf(NoteName.C4, true));
+            track.addNoteEvent((i + 1) * quarterTicks, NoteEvent.valueOf(NoteName.C4, false));
+        }
+
+        symbols = new TrackToSymbolsConverter().convertTrack(track);
+        canvas.setClipBounds(new Rect(0, 0, CanvasMock.WIDTH, CanvasMock.HEIGHT));
+
+        List<SymbolPosition> symbolPositions = renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        assertEquals(InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS, symbolPositions.size());
+        assertTrue(renderer.getWidthForDrawingTrack() > CanvasMock.WIDTH);
+        assertTrue(pollDrawnElements().size() < InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS / 10);
+    }
+
+    public void testDrawNoteSheetSteadyStateDoesNotAllocate() {
+        canvas.setRecordingDrawnElements(false);
+        renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+
+        int drawCount = canvas.getDrawCount();
+        int allocationCount = AllocationCounter.countAllocations(new Runnable() {
+            @Override
+            public void run() {
+                renderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+            }
+        });
+
+        assertEquals(0, allocationCount);
+        assertEquals(2 * drawCount, canvas.getDrawCount());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.test.note.draw;
+
+import android.graphics.Bitmap;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.R;
+import org.catrobat.musicdroid.pocketmusic.note.draw.GlyphBitmapCache;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetCanvas;
+import org.catrobat.musicdroid.pocketmusic.note.draw.RecordingNoteSheetCanvas;
+import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolDisplayList;
+
+public class RecordingNoteSheetCanvasTest extends AndroidTestCase {
+
+    private RecordingNoteSheetCanvas recordingCanvas;
+    private CanvasMock canvas;
+    private NoteSheetCanvas noteSheetCanvas;
+
+    @Override
+    protected void setUp() {
+        recordingCanvas = new RecordingNoteSheetCanvas(CanvasMock.WIDTH, CanvasMock.HEIGHT);
+        canvas = new CanvasMock();
+        noteSheetCanvas = new NoteSheetCanvas(canvas);
+    }
+
+    public void testRecordTranslate() {
+        recordingCanvas.startRecording(new SymbolDisplayList());
+        recordingCanvas.save();
+        recordingCanvas.translate(10, 20);
+        recordingCanvas.drawLine(0, 0, 5, 5, new Paint());
+        recordingCanvas.restore();
+        recordingCanvas.drawLine(0, 0, 5, 5, new Paint());
+        SymbolDisplayList displayList = recordingCanvas.stopRecording();
+
+        displayList.draw(noteSheetCanvas);
+
+        assertEquals(5, displayList.size());
+        assertEquals(CanvasMock.createString(CanvasMock.DRAW_LINE, 10f, 20f, 15f, 25f), canvas.getDrawnElements().poll());
+        assertEquals(CanvasMock.createString(CanvasMock.DRAW_LINE, 0f, 0f, 5f, 5f), canvas.getDrawnElements().poll());
+    }
+
+    public void testRecordBitmap() {
+        Bitmap bitmap = GlyphBitmapCache.getInstance().getBitmap(getContext().getResources(), R.drawable.cross, 10);
+        Rect rect = new Rect(1, 2, 3, 4);
+
+        recordingCanvas.startRecording(new SymbolDisplayList());
+        recordingCanvas.drawBitmap(bitmap, rect);
+        SymbolDisplayList displayList = recordingCanvas.stopRecording();
+        rect.set(0, 0, 0, 0);
+
+        displayList.draw(noteSheetCanvas);
+
+        assertEquals(1, displayList.size());
+        assertEquals(CanvasMock.createString(CanvasMock.DRAW_BITMAP, 1, 2, 3, 4), canvas.getDrawnElements().poll());
+    }
+}
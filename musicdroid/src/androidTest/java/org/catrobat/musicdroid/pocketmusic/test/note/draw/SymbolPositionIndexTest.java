@@ -0,0 +1,93 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.draw;
+
+import android.graphics.RectF;
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.draw.DrawElementsTouchDetector;
+import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPosition;
+import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPositionIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SymbolPositionIndexTest extends AndroidTestCase {
+
+    private List<SymbolPosition> symbolPositions;
+    private SymbolPositionIndex index;
+
+    @Override
+    protected void setUp() {
+        symbolPositions = new ArrayList<SymbolPosition>();
+
+        symbolPositions.add(new SymbolPosition(new RectF(0, 0, 100, 100)));
+        symbolPositions.add(new SymbolPosition(new RectF(150, 0, 250, 100)));
+        symbolPositions.add(new SymbolPosition(new RectF(120, 200, 300, 300)));
+        symbolPositions.add(new SymbolPosition(new RectF(400, 0, 500, 100)));
+        symbolPositions.add(new SymbolPosition(new RectF(50, 50, 160, 60)));
+
+        index = new SymbolPositionIndex(symbolPositions);
+    }
+
+    public void testSize() {
+        assertEquals(symbolPositions.size(), index.size());
+    }
+
+    public void testGetIndexAt() {
+        DrawElementsTouchDetector touchDetector = new DrawElementsTouchDetector();
+
+        for (float x = -10; x <= 510; x += 5) {
+            for (float y = -10; y <= 310; y += 5) {
+                assertEquals(touchDetector.getIndexOfTouchedDrawElement(symbolPositions, x, y), index.getIndexAt(x, y));
+            }
+        }
+    }
+
+    public void testGetIndexAtOverlappingElements() {
+        assertEquals(0, index.getIndexAt(60, 55));
+        assertEquals(1, index.getIndexAt(155, 55));
+        assertEquals(4, index.getIndexAt(120, 55));
+    }
+
+    public void testGetIndicesInRect1() {
+        assertEquals(Arrays.asList(0, 1, 4), index.getIndicesInRect(90, 0, 155, 100));
+    }
+
+    public void testGetIndicesInRect2() {
+        assertEquals(Arrays.asList(2, 3), index.getIndicesInRect(260, 50, 600, 250));
+    }
+
+    public void testGetIndicesInRect3() {
+        assertTrue(index.getIndicesInRect(310, 150, 390, 190).isEmpty());
+    }
+
+    public void testEmptyIndex() {
+        SymbolPositionIndex emptyIndex = new SymbolPositionIndex(new ArrayList<SymbolPosition>());
+
+        assertEquals(DrawElementsTouchDetector.INVALID_INDEX, emptyIndex.getIndexAt(0, 0));
+        assertTrue(emptyIndex.getIndicesInRect(0, 0, 100, 100).isEmpty());
+    }
+}
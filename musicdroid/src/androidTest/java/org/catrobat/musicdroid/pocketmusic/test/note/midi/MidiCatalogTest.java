@@ -0,0 +1,152 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalog;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalogEntry;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class MidiCatalogTest extends AndroidTestCase {
+
+    private static final String FOLDER_NAME = "MidiCatalogTest";
+    private static final String INDEX_FILE_NAME = "MidiCatalogTest.idx";
+
+    private File folder;
+    private File indexFile;
+
+    @Override
+    protected void setUp() {
+        folder = new File(getContext().getCacheDir(), FOLDER_NAME);
+        folder.mkdir();
+        indexFile = new File(getContext().getCacheDir(), INDEX_FILE_NAME);
+    }
+
+    @Override
+    protected void tearDown() {
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+
+        folder.delete();
+        indexFile.delete();
+    }
+
+    public void testRefresh() throws IOException, MidiException {
+        writeProject("b", ProjectTestDataFactory.createProjectWithSemiComplexTracks());
+        writeProject("a", createProjectWithSimpleTrack());
+
+        List<MidiCatalogEntry> entries = new MidiCatalog(folder, indexFile).refresh();
+
+        assertEquals(2, entries.size());
+        assertEquals("a", entries.get(0).getName());
+        assertEquals("b", entries.get(1).getName());
+        assertEquals(2, entries.get(1).getTrackCount());
+        assertEquals(Project.DEFAULT_BEATS_PER_MINUTE, entries.get(1).getBeatsPerMinute());
+    }
+
+    public void testRefreshSkipsIncompatibleFiles() throws IOException, MidiException {
+        writeProject("a", createProjectWithSimpleTrack());
+        writeBytes("b", new byte[] { 'M', 'T', 'h', 'd' });
+
+        MidiCatalog catalog = new MidiCatalog(folder, indexFile);
+        List<MidiCatalogEntry> entries = catalog.refresh();
+
+        assertEquals(1, entries.size());
+        assertEquals(2, catalog.size());
+    }
+
+    public void testRefreshDetectsChanges() throws IOException, MidiException {
+        MidiCatalog catalog = new MidiCatalog(folder, indexFile);
+        writeProject("a", createProjectWithSimpleTrack());
+        catalog.refresh();
+
+        writeProject("b", createProjectWithSimpleTrack());
+        new File(folder, "a" + ProjectToMidiConverter.MIDI_FILE_EXTENSION).delete();
+        List<MidiCatalogEntry> entries = catalog.refresh();
+
+        assertEquals(1, entries.size());
+        assertEquals("b", entries.get(0).getName());
+    }
+
+    public void testRefreshUsesIndexFile() throws IOException, MidiException {
+        File file = writeProject("a", createProjectWithSimpleTrack());
+        new MidiCatalog(folder, indexFile).refresh();
+
+        long lastModified = file.lastModified();
+        writeBytes("a", new byte[(int) file.length()]);
+        file.setLastModified(lastModified);
+
+        List<MidiCatalogEntry> entries = new MidiCatalog(folder, indexFile).refresh();
+
+        assertTrue(indexFile.exists());
+        assertEquals(1, entries.size());
+    }
+
+    public void testScanFile() throws IOException, MidiException {
+        Project project = new Project(97);
+        project.addTrack(TrackTestDataFactory.createSimpleTrack());
+        project.addTrack(TrackTestDataFactory.createTrack(MusicalInstrument.TUBA));
+        project.getTrack(1).addNoteEvent(0, project.getTrack(0).getNoteEventsForTick(0).get(0));
+        File file = writeProject("a", project);
+
+        MidiCatalogEntry entry = MidiCatalog.scanFile(file);
+
+        assertTrue(entry.isCompatible());
+        assertEquals(2, entry.getTrackCount());
+        assertEquals(97, entry.getBeatsPerMinute());
+        assertEquals(project.getTrack(0).getTotalTimeInMilliseconds(), entry.getDurationInMilliseconds());
+    }
+
+    private Project createProjectWithSimpleTrack() {
+        Project project = ProjectTestDataFactory.createProject();
+        project.addTrack(TrackTestDataFactory.createSimpleTrack());
+
+        return project;
+    }
+
+    private File writeProject(String name, Project project) throws IOException, MidiException {
+        File file = new File(folder, name + ProjectToMidiConverter.MIDI_FILE_EXTENSION);
+        new ProjectToMidiConverter().writeProjectAsMidi(project, file);
+
+        return file;
+    }
+
+    private void writeBytes(String name, byte[] bytes) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(new File(folder, name + ProjectToMidiConverter.MIDI_FILE_EXTENSION));
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiChannelAllocator;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.util.Arrays;
+
+public class MidiChannelAllocatorTest extends AndroidTestCase {
+
+    public void testGetChannel() throws MidiException {
+        MidiChannelAllocator allocator = new MidiChannelAllocator();
+
+        assertEquals(1, allocator.getChannel(MusicalInstrument.VIOLIN));
+        assertEquals(2, allocator.getChannel(MusicalInstrument.TUBA));
+        assertEquals(1, allocator.getChannel(MusicalInstrument.VIOLIN));
+        assertEquals(2, allocator.size());
+    }
+
+    public void testGetChannelStaysWithinMidiRange() throws MidiException {
+        MidiChannelAllocator allocator = new MidiChannelAllocator();
+        MusicalInstrument[] instruments = MusicalInstrument.values();
+
+        for (int i = 0; i < MidiChannelAllocator.MAX_CHANNEL; i++) {
+            int channel = allocator.getChannel(instruments[i]);
+
+            assertTrue((channel >= 0) && (channel < MidiChannelAllocator.MAX_CHANNEL));
+        }
+
+        try {
+            allocator.getChannel(instruments[MidiChannelAllocator.MAX_CHANNEL]);
+            fail();
+        } catch (MidiException e) {
+            assertEquals(MidiChannelAllocator.MAX_CHANNEL, allocator.size());
+        }
+    }
+
+    public void testAllocateChannels() throws MidiException {
+        Project project = ProjectTestDataFactory.createProject();
+        project.addTrack(TrackTestDataFactory.createTrack(MusicalInstrument.VIOLIN));
+        project.addTrack(TrackTestDataFactory.createTrack(MusicalInstrument.TUBA));
+        project.addTrack(TrackTestDataFactory.createTrack(MusicalInstrument.VIOLIN));
+
+        int[] channels = new MidiChannelAllocator().allocateChannels(project);
+
+        assertTrue(Arrays.equals(new int[] { 1, 2, 1 }, channels));
+    }
+}
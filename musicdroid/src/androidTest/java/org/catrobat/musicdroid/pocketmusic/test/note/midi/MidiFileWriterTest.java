@@ -0,0 +1,239 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import android.test.AndroidTestCase;
+
+import com.leff.midi.MidiFile;
+import com.leff.midi.MidiTrack;
+import com.leff.midi.event.NoteOff;
+import com.leff.midi.event.NoteOn;
+import com.leff.midi.event.ProgramChange;
+import com.leff.midi.event.meta.Tempo;
+import com.leff.midi.event.meta.Text;
+import com.leff.midi.event.meta.TimeSignature;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiFileWriter;
+import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MidiFileWriterTest extends AndroidTestCase {
+
+    private static final String FILE_NAME = "MidiFileWriterTest.midi";
+    private static final int RANDOM_SEED = 42;
+    private static final int RANDOM_TRACK_SIZE = 500;
+
+    private File file;
+
+    @Override
+    protected void setUp() {
+        file = new File(getContext().getCacheDir(), FILE_NAME);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testWriteProjectSimpleTrack() throws IOException {
+        Project project = ProjectTestDataFactory.createProject();
+        project.addTrack(TrackTestDataFactory.createSimpleTrack());
+
+        assertWrittenLikeMidiFile(project);
+    }
+
+    public void testWriteProjectSemiComplexTracks() throws IOException {
+        assertWrittenLikeMidiFile(ProjectTestDataFactory.createProjectWithSemiComplexTracks());
+    }
+
+    public void testWriteProjectChords() throws IOException {
+        Track track = TrackTestDataFactory.createTrack();
+        track.addNoteEvent(0, new NoteEvent(NoteName.G4, true));
+        track.addNoteEvent(0, new NoteEvent(NoteName.C4, true));
+        track.addNoteEvent(0, new NoteEvent(NoteName.E4, true));
+        track.addNoteEvent(480, new NoteEvent(NoteName.E4, false));
+        track.addNoteEvent(480, new NoteEvent(NoteName.G4, false));
+        track.addNoteEvent(480, new NoteEvent(NoteName.D4, true));
+        track.addNoteEvent(480, new NoteEvent(NoteName.C4, false));
+        track.addNoteEvent(960, new NoteEvent(NoteName.D4, false));
+
+        Project project = ProjectTestDataFactory.createProject();
+        project.addTrack(track);
+
+        assertWrittenLikeMidiFile(project);
+    }
+
+    public void testWriteProjectRandomTracks() throws IOException {
+        Random random = new Random(RANDOM_SEED);
+        Project project = new Project(97);
+
+        project.addTrack(createRandomTrack(random, MusicalInstrument.VIOLIN));
+        project.addTrack(createRandomTrack(random, MusicalInstrument.TUBA));
+        project.addTrack(createRandomTrack(random, MusicalInstrument.VIOLIN));
+
+        assertWrittenLikeMidiFile(project);
+    }
+
+    public void testWriteProjectInParallel() throws IOException {
+        Random random = new Random(RANDOM_SEED);
+        Project project = new Project(Project.DEFAULT_BEATS_PER_MINUTE);
+        int[] channels = new int[] { 1, 2, 1, 3 };
+
+        project.addTrack(createRandomTrack(random, MusicalInstrument.VIOLIN));
+        project.addTrack(createRandomTrack(random, MusicalInstrument.TUBA));
+        project.addTrack(createRandomTrack(random, MusicalInstrument.VIOLIN));
+        project.addTrack(createRandomTrack(random, MusicalInstrument.FLUTE));
+
+        new MidiFileWriter(null).writeProject(project, channels, file);
+        byte[] expectedBytes = readFile(file);
+
+        ExecutorService encoderPool = Executors.newFixedThreadPool(3);
+
+        try {
+            new MidiFileWriter(encoderPool).writeProject(project, channels, file);
+        } finally {
+            encoderPool.shutdown();
+        }
+
+        byte[] actualBytes = readFile(file);
+
+        assertTrue(Arrays.equals(expectedBytes, actualBytes));
+    }
+
+    private Track createRandomTrack(Random random, MusicalInstrument instrument) {
+        Track track = TrackTestDataFactory.createTrack(instrument);
+        NoteName[] noteNames = NoteName.values();
+        long tick = random.nextInt(2);
+
+        for (int i = 0; i < RANDOM_TRACK_SIZE; i++) {
+            NoteName noteName = noteNames[random.nextInt(noteNames.length)];
+            track.addNoteEvent(tick, new NoteEvent(noteName, random.nextBoolean()));
+
+            if (random.nextInt(3) == 0) {
+                tick += random.nextInt(20000);
+            }
+        }
+
+        return track;
+    }
+
+    private void assertWrittenLikeMidiFile(Project project) throws IOException {
+        int[] channels = new int[project.size()];
+        ArrayList<MusicalInstrument> usedInstruments = new ArrayList<MusicalInstrument>();
+
+        for (int i = 0; i < project.size(); i++) {
+            MusicalInstrument instrument = project.getTrack(i).getInstrument();
+
+            if (false == usedInstruments.contains(instrument)) {
+                usedInstruments.add(instrument);
+            }
+
+            channels[i] = usedInstruments.indexOf(instrument) + 1;
+        }
+
+        new MidiFileWriter().writeProject(project, channels, file);
+        byte[] actualBytes = readFile(file);
+
+        createMidiFile(project, channels).writeToFile(file);
+        byte[] expectedBytes = readFile(file);
+
+        assertTrue(Arrays.equals(expectedBytes, actualBytes));
+    }
+
+    private MidiFile createMidiFile(Project project, int[] channels) {
+        ArrayList<MidiTrack> midiTracks = new ArrayList<MidiTrack>();
+        MidiTrack tempoTrack = new MidiTrack();
+
+        tempoTrack.insertEvent(new Text(0, 0, ProjectToMidiConverter.MIDI_FILE_IDENTIFIER));
+
+        Tempo tempo = new Tempo();
+        tempo.setBpm(project.getBeatsPerMinute());
+        tempoTrack.insertEvent(tempo);
+
+        TimeSignature timeSignature = new TimeSignature();
+        timeSignature.setTimeSignature(4, 4, TimeSignature.DEFAULT_METER, TimeSignature.DEFAULT_DIVISION);
+        tempoTrack.insertEvent(timeSignature);
+
+        midiTracks.add(tempoTrack);
+
+        for (int i = 0; i < project.size(); i++) {
+            Track track = project.getTrack(i);
+            MidiTrack noteTrack = new MidiTrack();
+
+            noteTrack.insertEvent(new ProgramChange(0, channels[i], track.getInstrument().getProgram()));
+
+            Track.TickIterator it = track.tickIterator();
+
+            while (it.hasNext()) {
+                long tick = it.next();
+
+                for (int j = 0; j < it.getNoteEventCount(); j++) {
+                    NoteEvent noteEvent = it.getNoteEvent(j);
+                    int midi = noteEvent.getNoteName().getMidi();
+
+                    if (noteEvent.isNoteOn()) {
+                        noteTrack.insertEvent(new NoteOn(tick, channels[i], midi, 64));
+                    } else {
+                        noteTrack.insertEvent(new NoteOff(tick, channels[i], midi, 0));
+                    }
+                }
+            }
+
+            midiTracks.add(noteTrack);
+        }
+
+        return new MidiFile(MidiFile.DEFAULT_RESOLUTION, midiTracks);
+    }
+
+    private byte[] readFile(File file) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+
+        while ((length = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, length);
+        }
+
+        inputStream.close();
+
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalog;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalogEntry;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiIoExecutor;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiTask;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class MidiIoExecutorTest extends AndroidTestCase {
+
+    private static final String FILE_NAME = "MidiIoExecutorTest.midi";
+
+    private File file;
+    private List<Runnable> queuedTasks;
+    private MidiIoExecutor executor;
+
+    @Override
+    protected void setUp() {
+        file = new File(getContext().getCacheDir(), FILE_NAME);
+        queuedTasks = new ArrayList<Runnable>();
+
+        Executor ioExecutor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                queuedTasks.add(runnable);
+            }
+        };
+        Executor callbackExecutor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runnable.run();
+            }
+        };
+
+        executor = new MidiIoExecutor(ioExecutor, callbackExecutor);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    private void runQueuedTasks() {
+        for (Runnable task : queuedTasks) {
+            task.run();
+        }
+
+        queuedTasks.clear();
+    }
+
+    private File getTempFile() {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    public void testExportProject() {
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+
+        MidiTask<File> task = executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, listener);
+
+        assertFalse(file.exists());
+        assertFalse(task.isDone());
+
+        runQueuedTasks();
+
+        assertTrue(task.isDone());
+        assertEquals(file, listener.getResult());
+        assertEquals(100, listener.getLastPercent());
+        assertNull(listener.getError());
+        assertTrue(file.exists());
+        assertFalse(getTempFile().exists());
+    }
+
+    public void testExportProjectCancelled() {
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+
+        MidiTask<File> task = executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, listener);
+        task.cancel();
+        runQueuedTasks();
+
+        assertTrue(listener.isCancelled());
+        assertNull(listener.getResult());
+        assertFalse(file.exists());
+        assertFalse(getTempFile().exists());
+    }
+
+    public void testExportProjectCancelledAfterCompletion() {
+        final List<Runnable> queuedCallbacks = new ArrayList<Runnable>();
+        executor = new MidiIoExecutor(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                queuedTasks.add(runnable);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                queuedCallbacks.add(runnable);
+            }
+        });
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+
+        MidiTask<File> task = executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, listener);
+        runQueuedTasks();
+        task.cancel();
+
+        for (Runnable callback : queuedCallbacks) {
+            callback.run();
+        }
+
+        assertTrue(task.isDone());
+        assertTrue(listener.isCancelled());
+        assertNull(listener.getResult());
+        assertNull(listener.getError());
+    }
+
+    public void testExportProjectDetachListener() {
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+
+        MidiTask<File> task = executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, listener);
+        task.detachListener();
+        task.cancel();
+        runQueuedTasks();
+
+        assertTrue(task.isDone());
+        assertFalse(listener.isCancelled());
+        assertEquals(-1, listener.getLastPercent());
+    }
+
+    public void testExportProjectSetListenerAfterCompletion() {
+        MidiTaskListenerMock<File> detachedListener = new MidiTaskListenerMock<File>();
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+
+        MidiTask<File> task = executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, detachedListener);
+        task.detachListener();
+        runQueuedTasks();
+        task.setListener(listener);
+        task.setListener(new MidiTaskListenerMock<File>());
+
+        assertNull(detachedListener.getResult());
+        assertEquals(file, listener.getResult());
+        assertEquals(100, listener.getLastPercent());
+        assertEquals(1, listener.getProgressCount());
+    }
+
+    public void testExportProjectUsesSnapshot() {
+        Project project = ProjectTestDataFactory.createProjectWithSemiComplexTracks();
+        Project expectedProject = new Project(project);
+        MidiTaskListenerMock<Project> listener = new MidiTaskListenerMock<Project>();
+
+        executor.exportProject(project, file, new MidiTaskListenerMock<File>());
+        project.getTrack(0).addNoteEvent(project.getTrack(0).getLastTick(), new NoteEvent(NoteName.C4, true));
+        executor.importProject(file, listener);
+        runQueuedTasks();
+
+        assertEquals(expectedProject, listener.getResult());
+    }
+
+    public void testExportProjectError() {
+        MidiTaskListenerMock<File> listener = new MidiTaskListenerMock<File>();
+        executor.exportProject(ProjectTestDataFactory.createProjectWithTrack(), file, listener);
+        runQueuedTasks();
+
+        assertTrue(listener.getError() instanceof MidiException);
+        assertNull(listener.getResult());
+        assertFalse(file.exists());
+        assertFalse(getTempFile().exists());
+    }
+
+    public void testImportProject() {
+        Project project = ProjectTestDataFactory.createProjectWithSemiComplexTracks();
+        MidiTaskListenerMock<Project> listener = new MidiTaskListenerMock<Project>();
+
+        executor.exportProject(project, file, new MidiTaskListenerMock<File>());
+        executor.importProject(file, listener);
+        runQueuedTasks();
+
+        assertEquals(project, listener.getResult());
+        assertEquals(100, listener.getLastPercent());
+    }
+
+    public void testRefreshCatalog() {
+        File indexFile = new File(getContext().getCacheDir(), FILE_NAME + ".idx");
+        MidiCatalog catalog = new MidiCatalog(getContext().getCacheDir(), indexFile);
+        MidiTaskListenerMock<List<MidiCatalogEntry>> listener = new MidiTaskListenerMock<List<MidiCatalogEntry>>();
+
+        executor.exportProject(ProjectTestDataFactory.createProjectWithSemiComplexTracks(), file, new MidiTaskListenerMock<File>());
+        executor.refreshCatalog(catalog, listener);
+
+        assertNull(listener.getResult());
+
+        runQueuedTasks();
+
+        assertEquals(catalog.getCompatibleEntries().size(), listener.getResult().size());
+        assertTrue(listener.getResult().size() > 0);
+
+        indexFile.delete();
+    }
+
+    public void testImportProjectError() throws IOException {
+        MidiTaskListenerMock<Project> listener = new MidiTaskListenerMock<Project>();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        outputStream.close();
+
+        executor.importProject(file, listener);
+        runQueuedTasks();
+
+        assertTrue(listener.getError() instanceof MidiException);
+        assertNull(listener.getResult());
+    }
+}
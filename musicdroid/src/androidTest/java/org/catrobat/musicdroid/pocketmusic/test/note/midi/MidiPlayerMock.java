@@ -23,77 +23,86 @@
 
 package org.catrobat.musicdroid.pocketmusic.test.note.midi;
 
-import android.media.MediaPlayer;
-import android.net.Uri;
+import android.content.Context;
 
 import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
-import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.NotePreviewPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.SampleBank;
+import org.catrobat.musicdroid.pocketmusic.note.synth.StreamingTrackPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.TrackRenderer;
+import org.catrobat.musicdroid.pocketmusic.test.note.synth.AudioSinkMock;
+import org.catrobat.musicdroid.pocketmusic.test.note.synth.NotePreviewPlayerMock;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.concurrent.Future;
 
 public class MidiPlayerMock extends MidiPlayer {
 
-    public int getPlayQueueSize() {
-        return playQueue.size();
+    private AudioSinkMock audioSink;
+    private int sampleBankLoadCount;
+
+    public StreamingTrackPlayer getTrackPlayer() {
+        return trackPlayer;
     }
 
-    public void setPlaying(boolean isPlaying) {
-        ((MediaPlayerMock) player).setPlaying(isPlaying);
+    public Future<?> getSampleBankLoad() {
+        return sampleBankLoad;
     }
 
-    @Override
-    protected void writeTempPlayFile(File tempPlayFile, Track track, int beatsPerMinute) throws IOException, MidiException {}
+    public int getSampleBankLoadCount() {
+        return sampleBankLoadCount;
+    }
 
-    @Override
-    protected MediaPlayer createNotePlayer(final InstrumentActivity activity, final int midiFileId) {
-        return new MediaPlayerMock();
+    public AudioSinkMock getAudioSink() {
+        return audioSink;
     }
 
     @Override
-    public void onPlayNoteComplete(final InstrumentActivity activity) {
-        setPlaying(false);
-        super.onPlayNoteComplete(activity);
+    protected NotePreviewPlayer createNotePreviewPlayer() {
+        return new NotePreviewPlayerMock(new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE), new AudioSinkMock());
     }
 
     @Override
-    protected MediaPlayer createTrackPlayer(final InstrumentActivity activity, final Uri uri) {
-        return new MediaPlayerMock();
+    protected SampleBank loadSampleBank(Context context, MusicalInstrument instrument, Octave octave) {
+        sampleBankLoadCount++;
+
+        return super.loadSampleBank(context, instrument, octave);
     }
 
     @Override
-    public void onPlayTrackComplete(final InstrumentActivity activity, final File tempPlayFile) {
-        setPlaying(false);
-        super.onPlayTrackComplete(activity, tempPlayFile);
-    }
+    protected StreamingTrackPlayer createTrackPlayer(final Project project) {
+        Track[] tracks = new Track[project.size()];
+        Synthesizer[] synthesizers = new Synthesizer[tracks.length];
 
-    private class MediaPlayerMock extends MediaPlayer {
+        for (int i = 0; i < tracks.length; i++) {
+            tracks[i] = project.getTrack(i);
+            synthesizers[i] = new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE, tracks[i].getInstrument());
+        }
 
-        private boolean isPlaying;
+        audioSink = new AudioSinkMock();
 
-        public MediaPlayerMock() {
-            isPlaying = false;
-        }
+        return new StreamingTrackPlayerMock(new TrackRenderer(tracks, synthesizers), audioSink);
+    }
 
-        @Override
-        public void start() {
-            isPlaying = true;
-        }
+    @Override
+    public void onPlayTrackComplete(final InstrumentActivity activity) {
+        trackPlayer.stop();
+        super.onPlayTrackComplete(activity);
+    }
 
-        @Override
-        public void stop() {
-            isPlaying = false;
-        }
+    private class StreamingTrackPlayerMock extends StreamingTrackPlayer {
 
-        @Override
-        public boolean isPlaying() {
-            return isPlaying;
+        public StreamingTrackPlayerMock(TrackRenderer renderer, AudioSinkMock sink) {
+            super(renderer, sink);
         }
 
-        public void setPlaying(boolean isPlaying) {
-            this.isPlaying = isPlaying;
+        @Override
+        protected void startPlaybackThread() {
         }
     }
 }
@@ -25,22 +25,20 @@ package org.catrobat.musicdroid.pocketmusic.test.note.midi;
 
 import android.test.AndroidTestCase;
 
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
-import org.catrobat.musicdroid.pocketmusic.note.Track;
-import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.synth.NotePreviewPlayer;
 import org.catrobat.musicdroid.pocketmusic.test.instrument.InstrumentActivityMock;
+import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
 import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
 
-import java.io.File;
 import java.io.IOException;
-
+import java.util.concurrent.ExecutionException;
 
 public class MidiPlayerTest extends AndroidTestCase {
 
-    private static final File CACHE_DIR = new File("");
-
-    private static final int MIDI_RESOURCE_ID = 0;
-
     private MidiPlayerMock player;
     private InstrumentActivityMock activity;
 
@@ -50,137 +48,126 @@ public class MidiPlayerTest extends AndroidTestCase {
         activity = new InstrumentActivityMock();
     }
 
-    public void testStop1() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
+    public void testStop() throws IOException {
+        player.playNote(NoteName.C4);
+        player.getNotePreviewPlayer().renderChunk();
         player.stop();
 
-        assertPlayNote(0, false);
+        assertFalse(player.isPlaying());
     }
 
-    public void testStop2() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
+    public void testRelease() throws IOException {
+        player.playNote(NoteName.C4);
+        NotePreviewPlayer releasedPlayer = player.getNotePreviewPlayer();
+        player.release();
 
-        player.stop();
-
-        assertPlayNote(0, false);
-    }
+        assertTrue(releasedPlayer.isReleased());
+        assertNull(player.getNotePreviewPlayer());
 
-    public void testPlayNote() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
+        player.playNote(NoteName.C4);
+        player.getNotePreviewPlayer().renderChunk();
 
-        assertPlayNote(0, true);
+        assertTrue(player.isPlaying());
+        assertNotSame(releasedPlayer, player.getNotePreviewPlayer());
     }
 
-    public void testPlayNoteSingleNotPlaying() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.setPlaying(false);
+    public void testPlayNote() throws IOException {
+        player.playNote(NoteName.C4);
+        player.getNotePreviewPlayer().renderChunk();
 
-        assertPlayNote(0, false);
+        assertTrue(player.isPlaying());
+        assertEquals(1, player.getNotePreviewPlayer().getPolyphony());
     }
 
-    public void testPlayNoteQueue() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
+    public void testPlayNoteChord() throws IOException {
+        player.playNote(NoteName.C4);
+        player.playNote(NoteName.E4);
+        player.playNote(NoteName.G4);
+        player.getNotePreviewPlayer().renderChunk();
 
-        assertPlayNote(1, true);
+        assertTrue(player.isPlaying());
+        assertEquals(3, player.getNotePreviewPlayer().getPolyphony());
     }
 
-    public void testPlayNoteQueueWithStop1() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.setPlaying(false);
-        player.playNote(activity, MIDI_RESOURCE_ID);
+    public void testPrepareNotePreviewLoadsSampleBankOnce() throws InterruptedException, ExecutionException {
+        player.prepareNotePreview(getContext(), MusicalInstrument.ACOUSTIC_GRAND_PIANO, Octave.createOneLineOctave());
+        player.prepareNotePreview(getContext(), MusicalInstrument.ACOUSTIC_GRAND_PIANO, Octave.createOneLineOctave());
+        player.getSampleBankLoad().get();
+        player.prepareNotePreview(getContext(), MusicalInstrument.ACOUSTIC_GRAND_PIANO, Octave.createOneLineOctave());
 
-        assertPlayNote(0, true);
+        assertEquals(1, player.getSampleBankLoadCount());
+        assertEquals(MusicalInstrument.ACOUSTIC_GRAND_PIANO, player.getNotePreviewPlayer().getSampleBank().getInstrument());
     }
 
-    public void testPlayNoteQueueWithStop2() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.setPlaying(false);
-        player.playNote(activity, MIDI_RESOURCE_ID);
+    public void testPrepareNotePreviewKeepsSampleBankAfterRelease() throws InterruptedException, ExecutionException {
+        player.prepareNotePreview(getContext(), MusicalInstrument.VIOLIN, Octave.createOneLineOctave());
+        player.release();
+        player.getSampleBankLoad().get();
+        player.prepareNotePreview(getContext(), MusicalInstrument.VIOLIN, Octave.createOneLineOctave());
 
-        assertPlayNote(2, false);
+        assertEquals(1, player.getSampleBankLoadCount());
+        assertEquals(MusicalInstrument.VIOLIN, player.getNotePreviewPlayer().getSampleBank().getInstrument());
     }
 
-    public void testPlayNoteCompleteEvent1() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.onPlayNoteComplete(activity);
+    public void testPlayTrackStopsNotePreview() throws IOException {
+        player.playNote(NoteName.C4);
+        player.getNotePreviewPlayer().renderChunk();
+        player.playProject(activity, createProjectWithSimpleTrack());
 
-        assertPlayNote(0, false);
+        assertFalse(player.getNotePreviewPlayer().isPlaying());
     }
 
-    public void testPlayNoteCompleteEvent2() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.onPlayNoteComplete(activity);
+    public void testPlayTrack1() {
+        player.playProject(activity, createProjectWithSimpleTrack());
 
-        assertPlayNote(0, true);
+        assertPlayTrack(true);
     }
 
-    public void testPlayNoteCompleteEvent3() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.onPlayNoteComplete(activity);
+    public void testPlayTrack2() {
+        player.playProject(activity, createProjectWithSimpleTrack());
+        player.getTrackPlayer().run();
 
-        assertPlayNote(1, true);
+        assertTrue(player.getAudioSink().getFrameCount() > 0);
+        assertTrue(player.getAudioSink().isClosed());
+        assertTrue(activity.isDismissed());
+        assertPlayTrack(false);
     }
 
-    public void testPlayNoteCompleteEvent4() {
-        player.playNote(activity, MIDI_RESOURCE_ID);
-        player.setPlaying(false);
-        player.onPlayNoteComplete(activity);
+    public void testPlayProjectWithMultipleTracks() {
+        player.playProject(activity, ProjectTestDataFactory.createProjectWithSemiComplexTracks());
+        player.getTrackPlayer().run();
 
-        assertPlayNote(0, false);
+        assertTrue(player.getAudioSink().getFrameCount() > 0);
+        assertTrue(activity.isDismissed());
+        assertPlayTrack(false);
     }
 
-    private void assertPlayNote(int expectedQueueSize, boolean expectedIsPlaying) {
-        assertEquals(expectedQueueSize, player.getPlayQueueSize());
-        assertEquals(expectedIsPlaying, player.isPlaying());
+    public void testStopTrack() {
+        player.playProject(activity, createProjectWithSimpleTrack());
+        player.stop();
+        player.getTrackPlayer().run();
+
+        assertEquals(0, player.getAudioSink().getFrameCount());
+        assertFalse(activity.isDismissed());
+        assertPlayTrack(false);
     }
 
-    public void testPlayTrack1() throws IOException, MidiException {
-        Track track = TrackTestDataFactory.createSimpleTrack();
-        player.playTrack(activity, CACHE_DIR, track, Project.DEFAULT_BEATS_PER_MINUTE);
+    public void testPlayTrackCompleteEvent() {
+        player.playProject(activity, createProjectWithSimpleTrack());
+        player.onPlayTrackComplete(activity);
 
-        assertEquals(0, player.getPlayQueueSize());
-        assertPlayTrack(true);
+        assertTrue(activity.isDismissed());
+        assertPlayTrack(false);
     }
 
-    public void testPlayTrackCompleteEvent() throws IOException, MidiException {
-        Track track = TrackTestDataFactory.createSimpleTrack();
-        FileMock tempFileToPlay = new FileMock();
-        player.playTrack(activity, CACHE_DIR, track, Project.DEFAULT_BEATS_PER_MINUTE);
-        player.onPlayTrackComplete(activity, tempFileToPlay);
+    private static Project createProjectWithSimpleTrack() {
+        Project project = ProjectTestDataFactory.createProject();
+        project.addTrack(TrackTestDataFactory.createSimpleTrack());
 
-        assertTrue(tempFileToPlay.isDeleted());
-        assertTrue(activity.isDismissed());
-        assertPlayTrack(player.isPlaying());
+        return project;
     }
 
     private void assertPlayTrack(boolean expectedIsPlaying) {
         assertEquals(expectedIsPlaying, player.isPlaying());
     }
-
-    private class FileMock extends File {
-
-        private boolean isDeleted;
-
-        public FileMock() {
-            super("");
-            isDeleted = false;
-        }
-
-        public boolean isDeleted() {
-            return isDeleted;
-        }
-
-        @Override
-        public boolean delete() {
-            isDeleted = true;
-
-            return isDeleted;
-        }
-    }
 }
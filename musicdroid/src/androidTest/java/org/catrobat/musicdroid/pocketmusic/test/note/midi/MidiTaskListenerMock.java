@@ -0,0 +1,76 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiTask;
+
+public class MidiTaskListenerMock<T> implements MidiTask.Listener<T> {
+
+    private int lastPercent = -1;
+    private int progressCount = 0;
+    private T result = null;
+    private Exception error = null;
+    private boolean cancelled = false;
+
+    @Override
+    public void onProgress(int percent) {
+        lastPercent = percent;
+        progressCount++;
+    }
+
+    @Override
+    public void onSuccess(T result) {
+        this.result = result;
+    }
+
+    @Override
+    public void onError(Exception e) {
+        error = e;
+    }
+
+    @Override
+    public void onCancelled() {
+        cancelled = true;
+    }
+
+    public int getLastPercent() {
+        return lastPercent;
+    }
+
+    public int getProgressCount() {
+        return progressCount;
+    }
+
+    public T getResult() {
+        return result;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
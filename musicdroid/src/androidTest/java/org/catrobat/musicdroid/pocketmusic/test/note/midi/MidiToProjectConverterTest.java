@@ -24,14 +24,22 @@ package org.catrobat.musicdroid.pocketmusic.test.note.midi;
 
 import android.test.AndroidTestCase;
 
+import com.leff.midi.MidiFile;
+import com.leff.midi.MidiTrack;
+import com.leff.midi.event.meta.Text;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiToProjectConverter;
 import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
 import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 
 public class MidiToProjectConverterTest extends AndroidTestCase {
 
@@ -58,4 +66,47 @@ public class MidiToProjectConverterTest extends AndroidTestCase {
 
         assertEquals(expectedProject, actualProject);
 	}
+
+    public void testConvertMidiToProjectWithTempo() throws MidiException, IOException {
+        ProjectToMidiConverter projectConverter = new ProjectToMidiConverter();
+        MidiToProjectConverter midiConverter = new MidiToProjectConverter();
+        Project expectedProject = new Project(97);
+        expectedProject.addTrack(TrackTestDataFactory.createSemiComplexTrack(MusicalInstrument.TUBA));
+
+        projectConverter.writeProjectAsMidi(expectedProject, FILE_NAME);
+        Project actualProject = midiConverter.convertMidiFileToProject(file);
+
+        assertEquals(97, actualProject.getBeatsPerMinute());
+        assertEquals(97, actualProject.getTrack(0).getBeatsPerMinute());
+        assertEquals(expectedProject.getTrack(0).size(), actualProject.getTrack(0).size());
+        assertEquals(MusicalInstrument.TUBA, actualProject.getTrack(0).getInstrument());
+    }
+
+    public void testConvertMidiToProjectWithoutIdentifier() throws IOException {
+        ArrayList<MidiTrack> midiTracks = new ArrayList<MidiTrack>();
+        MidiTrack tempoTrack = new MidiTrack();
+        tempoTrack.insertEvent(new Text(0, 0, "Other Midi File"));
+        midiTracks.add(tempoTrack);
+        new MidiFile(MidiFile.DEFAULT_RESOLUTION, midiTracks).writeToFile(file);
+
+        try {
+            new MidiToProjectConverter().convertMidiFileToProject(file);
+            fail();
+        } catch (MidiException e) {
+            assertTrue(file.exists());
+        }
+    }
+
+    public void testConvertMidiToProjectNoMidiFile() throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(new byte[] { 'M', 'T', 'h', 'd', 0, 0 });
+        outputStream.close();
+
+        try {
+            new MidiToProjectConverter().convertMidiFileToProject(file);
+            fail();
+        } catch (MidiException e) {
+            assertTrue(file.exists());
+        }
+    }
 }
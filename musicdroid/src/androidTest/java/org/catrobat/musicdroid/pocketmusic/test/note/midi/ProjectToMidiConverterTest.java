@@ -27,11 +27,13 @@ import android.test.AndroidTestCase;
 
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiProgressMonitor;
 import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
 import org.catrobat.musicdroid.pocketmusic.test.note.ProjectTestDataFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
 
 public class ProjectToMidiConverterTest extends AndroidTestCase {
 
@@ -55,5 +57,29 @@ public class ProjectToMidiConverterTest extends AndroidTestCase {
         converter.writeProjectAsMidi(project, file);
 
         assertTrue(file.exists());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    public void testWriteProjectAsMidiCancelled() throws IOException, MidiException {
+        Project project = ProjectTestDataFactory.createProjectWithSemiComplexTracks();
+        ProjectToMidiConverter converter = new ProjectToMidiConverter();
+        MidiProgressMonitor monitor = new MidiProgressMonitor() {
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+
+            @Override
+            public void onProgress(long current, long total) {
+            }
+        };
+
+        try {
+            converter.writeProjectAsMidi(project, file, monitor);
+            fail();
+        } catch (CancellationException e) {
+            assertFalse(file.exists());
+            assertFalse(new File(file.getPath() + ".tmp").exists());
+        }
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.midi;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.midi.ReferenceNoteReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+public class ReferenceNoteReaderTest extends AndroidTestCase {
+
+    private static final byte[] C4_MIDI = new byte[] {
+            0x4d, 0x54, 0x68, 0x64, 0x00, 0x00, 0x00, 0x06, 0x00, 0x01, 0x00, 0x02, 0x01, (byte) 0xe0,
+            0x4d, 0x54, 0x72, 0x6b, 0x00, 0x00, 0x00, 0x0b, 0x00, (byte) 0xff, 0x51, 0x03, 0x07, (byte) 0xa1, 0x20,
+            0x00, (byte) 0xff, 0x2f, 0x00,
+            0x4d, 0x54, 0x72, 0x6b, 0x00, 0x00, 0x00, 0x10, 0x00, (byte) 0xc1, 0x00, 0x00, (byte) 0x91, 0x3c, 0x40,
+            (byte) 0x83, 0x60, (byte) 0x81, 0x3c, 0x00, 0x01, (byte) 0xff, 0x2f, 0x00 };
+
+    public void testReadDurationInMilliseconds() throws IOException, MidiException {
+        assertEquals(500, ReferenceNoteReader.readDurationInMilliseconds(new ByteArrayInputStream(C4_MIDI)));
+    }
+
+    public void testReadDurationInMillisecondsNoteOnWithoutVelocity() throws IOException, MidiException {
+        byte[] midi = C4_MIDI.clone();
+        midi[midi.length - 7] = (byte) 0x91;
+
+        assertEquals(500, ReferenceNoteReader.readDurationInMilliseconds(new ByteArrayInputStream(midi)));
+    }
+
+    public void testReadDurationInMillisecondsUnsupportedMidi() throws IOException {
+        try {
+            ReferenceNoteReader.readDurationInMilliseconds(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+            fail();
+        } catch (MidiException e) {
+        }
+    }
+}
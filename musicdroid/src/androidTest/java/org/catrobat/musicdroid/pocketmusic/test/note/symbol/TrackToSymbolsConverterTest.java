@@ -46,6 +46,51 @@ public class TrackToSymbolsConverterTest extends AndroidTestCase {
         assertEquals(expectedSymbols, converter.convertTrack(track));
     }
 
+    public void testConvertTrackIncrementally1() {
+        TrackToSymbolsConverter converter = new TrackToSymbolsConverter();
+        Track expectedTrack = TrackTestDataFactory.createTrackWithBreak();
+        Track track = TrackTestDataFactory.createTrack();
+        List<Symbol> symbols = converter.convertTrackIncrementally(track);
+
+        Track.TickIterator it = expectedTrack.tickIterator();
+
+        while (it.hasNext()) {
+            long tick = it.next();
+
+            for (NoteEvent noteEvent : it.getNoteEvents()) {
+                track.addNoteEvent(tick, noteEvent);
+            }
+
+            assertSame(symbols, converter.convertTrackIncrementally(track));
+            assertEquals(converter.convertTrack(track), symbols);
+        }
+
+        assertEquals(createSymbolListWithBreak(), symbols);
+    }
+
+    public void testConvertTrackIncrementally2() {
+        TrackToSymbolsConverter converter = new TrackToSymbolsConverter();
+        Track track = TrackTestDataFactory.createTrackWithBreak();
+        List<Symbol> symbols = converter.convertTrackIncrementally(track);
+
+        Track replacedTrack = TrackTestDataFactory.createTrack();
+        List<Symbol> replacedSymbols = converter.convertTrackIncrementally(replacedTrack);
+
+        assertNotSame(symbols, replacedSymbols);
+        assertTrue(replacedSymbols.isEmpty());
+    }
+
+    public void testConvertTrackIncrementally3() {
+        TrackToSymbolsConverter converter = new TrackToSymbolsConverter();
+        Track track = TrackTestDataFactory.createTrackWithBreak();
+        converter.convertTrackIncrementally(track);
+
+        track.addNoteEvent(0, new NoteEvent(NoteName.E4, true));
+        track.addNoteEvent(1, new NoteEvent(NoteName.E4, false));
+
+        assertEquals(converter.convertTrack(track), converter.convertTrackIncrementally(track));
+    }
+
     public static List<Symbol> createSymbolListWithBreak() {
         List<Symbol> symbols = new LinkedList<Symbol>();
 
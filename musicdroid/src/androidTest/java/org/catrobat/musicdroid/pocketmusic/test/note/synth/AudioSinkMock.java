@@ -0,0 +1,66 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import org.catrobat.musicdroid.pocketmusic.note.synth.AudioSink;
+
+public class AudioSinkMock implements AudioSink {
+
+    private long frameCount;
+    private boolean flushed;
+    private boolean closed;
+
+    public AudioSinkMock() {
+        frameCount = 0;
+        flushed = false;
+        closed = false;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public boolean isFlushed() {
+        return flushed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void write(short[] buffer, int offset, int length) {
+        frameCount += length;
+    }
+
+    @Override
+    public void flush() {
+        flushed = true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
+import org.catrobat.musicdroid.pocketmusic.note.synth.NotePreviewPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.SampleBank;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+
+import java.io.File;
+import java.io.IOException;
+
+public class NotePreviewPlayerTest extends AndroidTestCase {
+
+    private AudioSinkMock sink;
+    private NotePreviewPlayerMock player;
+
+    @Override
+    protected void setUp() {
+        sink = new AudioSinkMock();
+        player = new NotePreviewPlayerMock(new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE), sink);
+    }
+
+    public void testPlayNote() throws IOException {
+        player.playNote(NoteName.C4.getMidi());
+        player.renderChunk();
+
+        assertTrue(player.isPlaying());
+        assertEquals(1, player.getPolyphony());
+        assertEquals(NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES, sink.getFrameCount());
+    }
+
+    public void testPlayNoteStartsThreadOnce() {
+        player.playNote(NoteName.C4.getMidi());
+        player.playNote(NoteName.D4.getMidi());
+
+        assertEquals(1, player.getStartedThreadCount());
+    }
+
+    public void testPlayNoteOverlapping() throws IOException {
+        player.playNote(NoteName.C4.getMidi());
+        player.renderChunk();
+        player.playNote(NoteName.E4.getMidi());
+        player.renderChunk();
+
+        assertEquals(2, player.getPolyphony());
+        assertEquals(2, player.getMaxPolyphony());
+    }
+
+    public void testPlayNoteInvalidMidi() {
+        try {
+            player.playNote(Synthesizer.MAX_MIDI_VALUE + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, player.getStartedThreadCount());
+        }
+    }
+
+    public void testPreviewReleased() throws IOException {
+        int chunkCount = (Synthesizer.DEFAULT_SAMPLE_RATE * NotePreviewPlayer.PREVIEW_DURATION_MILLISECONDS / 1000
+                + new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE).getReleaseFrames()) / NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES + 2;
+
+        player.playNote(NoteName.C4.getMidi());
+
+        for (int i = 0; i < chunkCount; i++) {
+            player.renderChunk();
+        }
+
+        assertEquals(0, player.getPolyphony());
+        assertFalse(player.isPlaying());
+    }
+
+    public void testLatencyMetrics() throws IOException {
+        player.playNote(NoteName.C4.getMidi());
+        player.renderChunk();
+
+        assertTrue(player.getLastLatencyNanos() > 0);
+        assertTrue(player.getMaxLatencyNanos() >= player.getAverageLatencyNanos());
+
+        player.resetMetrics();
+
+        assertEquals(0, player.getMaxLatencyNanos());
+        assertEquals(0, player.getMaxPolyphony());
+    }
+
+    public void testStop() throws IOException {
+        player.playNote(NoteName.C4.getMidi());
+        player.renderChunk();
+        player.stop();
+
+        assertFalse(player.isPlaying());
+    }
+
+    public void testReleaseClosesSink() {
+        player.release();
+
+        assertTrue(player.isReleased());
+        assertTrue(sink.isClosed());
+    }
+
+    public void testReleaseClosesSinkAfterPlaybackThread() throws IOException {
+        player.playNote(NoteName.C4.getMidi());
+        player.renderChunk();
+        player.release();
+
+        assertFalse(sink.isClosed());
+
+        player.run();
+
+        assertTrue(sink.isClosed());
+        assertFalse(player.isPlaying());
+    }
+
+    public void testPlayNoteAfterRelease() {
+        player.release();
+
+        try {
+            player.playNote(NoteName.C4.getMidi());
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(sink.isClosed());
+        }
+    }
+
+    public void testPlayNoteFromSampleBank() throws IOException {
+        File directory = getContext().getCacheDir();
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, MusicalInstrument.ACOUSTIC_GRAND_PIANO,
+                Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        player.setSampleBank(sampleBank);
+        player.playNote(NoteName.C4.getMidi());
+        player.playNote(NoteName.C5.getMidi());
+        player.renderChunk();
+
+        assertEquals(sampleBank, player.getSampleBank());
+        assertEquals(2, player.getPolyphony());
+
+        SampleBank.getBankFile(directory, MusicalInstrument.ACOUSTIC_GRAND_PIANO).delete();
+    }
+
+    public void testSampleReleased() throws IOException {
+        File directory = getContext().getCacheDir();
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, MusicalInstrument.ACOUSTIC_GRAND_PIANO,
+                Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+        int chunkCount = sampleBank.getSampleLength(NoteName.C4.getMidi()) / NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES + 1;
+
+        player.setSampleBank(sampleBank);
+        player.playNote(NoteName.C4.getMidi());
+
+        for (int i = 0; i < chunkCount; i++) {
+            player.renderChunk();
+        }
+
+        assertEquals(0, player.getPolyphony());
+
+        SampleBank.getBankFile(directory, MusicalInstrument.ACOUSTIC_GRAND_PIANO).delete();
+    }
+}
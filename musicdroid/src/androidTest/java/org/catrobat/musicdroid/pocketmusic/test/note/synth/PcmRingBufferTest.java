@@ -0,0 +1,81 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.synth.PcmRingBuffer;
+
+public class PcmRingBufferTest extends AndroidTestCase {
+
+    private static final int CAPACITY = 4;
+
+    private PcmRingBuffer ringBuffer;
+
+    @Override
+    protected void setUp() {
+        ringBuffer = new PcmRingBuffer(CAPACITY);
+    }
+
+    public void testWrite() {
+        int written = ringBuffer.write(new short[] { 1, 2, 3, 4, 5 }, 0, 5);
+
+        assertEquals(CAPACITY, written);
+        assertEquals(CAPACITY, ringBuffer.available());
+        assertEquals(0, ringBuffer.getFreeSpace());
+    }
+
+    public void testRead() {
+        short[] buffer = new short[CAPACITY];
+
+        ringBuffer.write(new short[] { 1, 2, 3 }, 0, 3);
+        int read = ringBuffer.read(buffer, 0, buffer.length);
+
+        assertEquals(3, read);
+        assertEquals(1, buffer[0]);
+        assertEquals(3, buffer[2]);
+        assertEquals(0, ringBuffer.available());
+    }
+
+    public void testReadWrapsAround() {
+        short[] buffer = new short[CAPACITY];
+
+        ringBuffer.write(new short[] { 1, 2, 3 }, 0, 3);
+        ringBuffer.read(buffer, 0, 2);
+        ringBuffer.write(new short[] { 4, 5, 6 }, 0, 3);
+        int read = ringBuffer.read(buffer, 0, buffer.length);
+
+        assertEquals(CAPACITY, read);
+        assertEquals(3, buffer[0]);
+        assertEquals(6, buffer[3]);
+    }
+
+    public void testClear() {
+        ringBuffer.write(new short[] { 1, 2 }, 0, 2);
+        ringBuffer.clear();
+
+        assertEquals(0, ringBuffer.available());
+        assertEquals(CAPACITY, ringBuffer.getFreeSpace());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
+import org.catrobat.musicdroid.pocketmusic.note.synth.NotePreviewPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.SampleBank;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class SampleBankTest extends AndroidTestCase {
+
+    private static final MusicalInstrument INSTRUMENT = MusicalInstrument.ACOUSTIC_GRAND_PIANO;
+
+    private File directory;
+    private File bankFile;
+
+    @Override
+    protected void setUp() {
+        directory = getContext().getCacheDir();
+        bankFile = SampleBank.getBankFile(directory, INSTRUMENT);
+        bankFile.delete();
+    }
+
+    @Override
+    protected void tearDown() {
+        bankFile.delete();
+        SampleBank.getBankFile(directory, MusicalInstrument.VIOLIN).delete();
+    }
+
+    public void testLoadOrCreate() throws IOException {
+        Octave octave = Octave.createOneLineOctave();
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        assertTrue(bankFile.exists());
+        assertEquals(INSTRUMENT, sampleBank.getInstrument());
+        assertEquals(Synthesizer.DEFAULT_SAMPLE_RATE, sampleBank.getSampleRate());
+        assertTrue(sampleBank.containsOctave(octave));
+        assertFalse(sampleBank.hasSample(NoteName.C5.getMidi()));
+    }
+
+    public void testLoadOrCreateReusesBankFile() throws IOException {
+        Octave octave = Octave.createOneLineOctave();
+        SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+        long lastModified = bankFile.lastModified();
+        long length = bankFile.length();
+
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        assertEquals(lastModified, bankFile.lastModified());
+        assertEquals(length, bankFile.length());
+        assertTrue(sampleBank.containsOctave(octave));
+    }
+
+    public void testLoadOrCreateOtherOctave() throws IOException {
+        SampleBank.loadOrCreate(directory, INSTRUMENT, Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, Octave.createTwoLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        assertTrue(sampleBank.containsOctave(Octave.createTwoLineOctave()));
+    }
+
+    public void testLoadOrCreateCorruptBankFile() throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(bankFile);
+        outputStream.write(new byte[] { 1, 2, 3 });
+        outputStream.close();
+
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        assertTrue(sampleBank.containsOctave(Octave.createOneLineOctave()));
+    }
+
+    public void testLoadOrCreateOtherNoteDurations() throws IOException {
+        Octave octave = Octave.createOneLineOctave();
+        int[] noteDurations = SampleBank.createDefaultNoteDurations(octave);
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+        int sampleLength = sampleBank.getSampleLength(NoteName.C4.getMidi());
+
+        noteDurations[0] *= 2;
+        sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE, noteDurations);
+
+        assertTrue(sampleBank.getSampleLength(NoteName.C4.getMidi()) > sampleLength);
+        assertEquals(sampleBank.getSampleLength(NoteName.D4.getMidi()), sampleLength);
+    }
+
+    public void testLoadOrCreateOtherInstrument() throws IOException {
+        Octave octave = Octave.createOneLineOctave();
+        SampleBank pianoSampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+        SampleBank violinSampleBank = SampleBank.loadOrCreate(directory, MusicalInstrument.VIOLIN, octave, Synthesizer.DEFAULT_SAMPLE_RATE);
+        int midi = NoteName.C4.getMidi();
+        short[] pianoBuffer = new short[NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES];
+        short[] violinBuffer = new short[NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES];
+
+        pianoSampleBank.mixInto(midi, 0, pianoBuffer, 0, pianoBuffer.length);
+        violinSampleBank.mixInto(midi, 0, violinBuffer, 0, violinBuffer.length);
+
+        assertEquals(MusicalInstrument.VIOLIN, violinSampleBank.getInstrument());
+        assertFalse(Arrays.equals(pianoBuffer, violinBuffer));
+    }
+
+    public void testGetBankFile() {
+        File otherBankFile = SampleBank.getBankFile(directory, MusicalInstrument.VIOLIN);
+
+        assertFalse(bankFile.equals(otherBankFile));
+    }
+
+    public void testMixInto() throws IOException {
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+        int midi = NoteName.C4.getMidi();
+        short[] buffer = new short[NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES];
+
+        int frames = sampleBank.mixInto(midi, 0, buffer, 0, buffer.length);
+
+        assertEquals(buffer.length, frames);
+        assertTrue(hasSignal(buffer));
+    }
+
+    public void testMixIntoEndOfSample() throws IOException {
+        SampleBank sampleBank = SampleBank.loadOrCreate(directory, INSTRUMENT, Octave.createOneLineOctave(), Synthesizer.DEFAULT_SAMPLE_RATE);
+        int midi = NoteName.C4.getMidi();
+        short[] buffer = new short[NotePreviewPlayer.CHUNK_SIZE_IN_FRAMES];
+
+        int frames = sampleBank.mixInto(midi, sampleBank.getSampleLength(midi) - 10, buffer, 0, buffer.length);
+
+        assertEquals(10, frames);
+    }
+
+    private boolean hasSignal(short[] buffer) {
+        for (short sample : buffer) {
+            if (sample != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+
+import java.util.Arrays;
+
+public class SynthesizerTest extends AndroidTestCase {
+
+    private static final int BUFFER_SIZE = 256;
+
+    private Synthesizer synthesizer;
+
+    @Override
+    protected void setUp() {
+        synthesizer = new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE);
+    }
+
+    public void testRenderSilence() {
+        short[] buffer = new short[BUFFER_SIZE];
+        synthesizer.render(buffer, 0, buffer.length);
+
+        assertEquals(0, getPeak(buffer));
+    }
+
+    public void testNoteOn() {
+        short[] buffer = new short[BUFFER_SIZE];
+        synthesizer.noteOn(NoteName.C4.getMidi());
+        synthesizer.render(buffer, 0, buffer.length);
+
+        assertEquals(1, synthesizer.getActiveVoiceCount());
+        assertTrue(getPeak(buffer) > 0);
+    }
+
+    public void testNoteOnSameMidiReusesVoice() {
+        synthesizer.noteOn(NoteName.C4.getMidi());
+        synthesizer.noteOn(NoteName.C4.getMidi());
+
+        assertEquals(1, synthesizer.getActiveVoiceCount());
+    }
+
+    public void testNoteOnStealsVoice() {
+        for (int i = 0; i <= Synthesizer.MAX_VOICES; i++) {
+            synthesizer.noteOn(NoteName.C1.getMidi() + i);
+        }
+
+        assertEquals(Synthesizer.MAX_VOICES, synthesizer.getActiveVoiceCount());
+    }
+
+    public void testNoteOff() {
+        short[] buffer = new short[synthesizer.getReleaseFrames() + 1];
+        synthesizer.noteOn(NoteName.C4.getMidi());
+        synthesizer.noteOff(NoteName.C4.getMidi());
+        synthesizer.render(buffer, 0, buffer.length);
+
+        assertEquals(0, synthesizer.getActiveVoiceCount());
+    }
+
+    public void testAllNotesOff() {
+        synthesizer.noteOn(NoteName.C4.getMidi());
+        synthesizer.noteOn(NoteName.E4.getMidi());
+        synthesizer.allNotesOff();
+
+        assertEquals(0, synthesizer.getActiveVoiceCount());
+    }
+
+    public void testInstrumentTimbre() {
+        Synthesizer violinSynthesizer = new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE, MusicalInstrument.VIOLIN);
+        short[] pianoBuffer = new short[BUFFER_SIZE];
+        short[] violinBuffer = new short[BUFFER_SIZE];
+
+        synthesizer.noteOn(NoteName.C4.getMidi());
+        synthesizer.render(pianoBuffer, 0, pianoBuffer.length);
+        violinSynthesizer.noteOn(NoteName.C4.getMidi());
+        violinSynthesizer.render(violinBuffer, 0, violinBuffer.length);
+
+        assertEquals(MusicalInstrument.ACOUSTIC_GRAND_PIANO, synthesizer.getInstrument());
+        assertEquals(MusicalInstrument.VIOLIN, violinSynthesizer.getInstrument());
+        assertFalse(Arrays.equals(pianoBuffer, violinBuffer));
+        assertEquals(Synthesizer.getReleaseFrames(Synthesizer.DEFAULT_SAMPLE_RATE, MusicalInstrument.VIOLIN), violinSynthesizer.getReleaseFrames());
+    }
+
+    private int getPeak(short[] buffer) {
+        int peak = 0;
+
+        for (short sample : buffer) {
+            peak = Math.max(peak, Math.abs(sample));
+        }
+
+        return peak;
+    }
+}
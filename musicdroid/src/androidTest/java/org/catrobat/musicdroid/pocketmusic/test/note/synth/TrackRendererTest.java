@@ -0,0 +1,140 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.test.note.synth;
+
+import android.test.AndroidTestCase;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.TrackRenderer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.WavFileSink;
+import org.catrobat.musicdroid.pocketmusic.test.note.TrackTestDataFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class TrackRendererTest extends AndroidTestCase {
+
+    private static final String FILE_NAME = "TrackRendererTest.wav";
+
+    private Track track;
+    private TrackRenderer renderer;
+    private File file;
+
+    @Override
+    protected void setUp() {
+        track = TrackTestDataFactory.createSimpleTrack();
+        renderer = new TrackRenderer(track, new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE));
+        file = new File(getContext().getCacheDir(), FILE_NAME);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testGetEndFrame() {
+        long expectedEndFrame = NoteLength.tickToSampleFrames(track.getLastTick(), Synthesizer.DEFAULT_SAMPLE_RATE)
+                + renderer.getSynthesizer().getReleaseFrames();
+
+        assertEquals(expectedEndFrame, renderer.getEndFrame());
+    }
+
+    public void testGetEndFrameEmptyTrack() {
+        renderer = new TrackRenderer(TrackTestDataFactory.createTrack(), new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE));
+
+        assertEquals(0, renderer.getEndFrame());
+        assertTrue(renderer.isFinished());
+    }
+
+    public void testGetEndFrameMultipleTracks() {
+        Track longTrack = TrackTestDataFactory.createSemiComplexTrack(MusicalInstrument.VIOLIN);
+        Synthesizer[] synthesizers = new Synthesizer[] {
+                new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE),
+                new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE, MusicalInstrument.VIOLIN)
+        };
+        renderer = new TrackRenderer(new Track[] { track, longTrack }, synthesizers);
+
+        long expectedEndFrame = Math.max(
+                NoteLength.tickToSampleFrames(track.getLastTick(), Synthesizer.DEFAULT_SAMPLE_RATE) + synthesizers[0].getReleaseFrames(),
+                NoteLength.tickToSampleFrames(longTrack.getLastTick(), Synthesizer.DEFAULT_SAMPLE_RATE) + synthesizers[1].getReleaseFrames());
+
+        assertEquals(expectedEndFrame, renderer.getEndFrame());
+    }
+
+    public void testRenderMultipleTracksMixesParts() {
+        short[] expectedBuffer = new short[(int) renderer.getEndFrame()];
+        renderer.render(expectedBuffer, 0, expectedBuffer.length);
+
+        renderer = new TrackRenderer(new Track[] { track, TrackTestDataFactory.createTrack() },
+                new Synthesizer[] { new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE), new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE) });
+        short[] buffer = new short[expectedBuffer.length];
+        renderer.render(buffer, 0, buffer.length);
+
+        assertEquals(expectedBuffer.length, renderer.getEndFrame());
+        assertTrue(Arrays.equals(expectedBuffer, buffer));
+    }
+
+    public void testRender() {
+        AudioSinkMock sink = new AudioSinkMock();
+
+        try {
+            renderer.renderTo(sink);
+        } catch (IOException e) {
+            fail();
+        }
+
+        assertEquals(renderer.getEndFrame(), sink.getFrameCount());
+        assertTrue(renderer.isFinished());
+    }
+
+    public void testSeekToTick() {
+        long tick = NoteLength.QUARTER.toTicks(track.getBeatsPerMinute()) / 2;
+        renderer.seekToTick(tick);
+
+        assertEquals(tick, renderer.getTick());
+        assertEquals(1, renderer.getSynthesizer().getActiveVoiceCount());
+    }
+
+    public void testSeekToTickBack() {
+        short[] buffer = new short[(int) renderer.getEndFrame()];
+        renderer.render(buffer, 0, buffer.length);
+        renderer.seekToTick(0);
+
+        assertEquals(0, renderer.getFramePosition());
+        assertEquals(0, renderer.getSynthesizer().getActiveVoiceCount());
+        assertFalse(renderer.isFinished());
+    }
+
+    public void testRenderToWavFile() throws IOException {
+        WavFileSink sink = new WavFileSink(file, Synthesizer.DEFAULT_SAMPLE_RATE);
+        renderer.renderTo(sink);
+        sink.close();
+
+        assertEquals(WavFileSink.HEADER_SIZE + 2 * renderer.getEndFrame(), file.length());
+    }
+}
@@ -30,6 +30,8 @@ import com.robotium.solo.Solo;
 import org.catrobat.musicdroid.pocketmusic.R;
 import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
 import org.catrobat.musicdroid.pocketmusic.instrument.piano.PianoActivity;
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
 import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
@@ -99,6 +101,23 @@ public class PianoActivityUiTest extends ActivityInstrumentationTestCase2<PianoA
         assertFileExists(filename, expectedFileExists);
     }
 
+    public void testExportMidiSurvivesRotation() {
+        String filename = "music";
+        boolean expectedFileExists = true;
+
+        solo.clickOnButton(PIANO_BUTTON);
+        solo.clickOnActionBarItem(R.id.action_export_midi);
+        solo.waitForDialogToOpen();
+        solo.clearEditText(pianoActivity.getEditTextMidiExportNameDialogPrompt());
+        solo.enterText(pianoActivity.getEditTextMidiExportNameDialogPrompt(), filename);
+        solo.clickOnButton(pianoActivity.getString(R.string.action_export_dialog_positive_button));
+        solo.setActivityOrientation(Solo.LANDSCAPE);
+
+        assertTrue(solo.waitForText(pianoActivity.getString(R.string.action_export_midi_success)));
+        assertFalse(solo.searchText(pianoActivity.getString(R.string.action_export_midi_cancel)));
+        assertFileExists(filename, expectedFileExists);
+    }
+
     private void assertFileExists(String filename, boolean expectedExistResult) {
         File file = new File(ProjectToMidiConverter.MIDI_FOLDER, filename + ProjectToMidiConverter.MIDI_FILE_EXTENSION);
 
@@ -243,44 +262,51 @@ public class PianoActivityUiTest extends ActivityInstrumentationTestCase2<PianoA
     public void testPlayMidiWhileRotating() throws InterruptedException {
         solo.setActivityOrientation(Solo.PORTRAIT);
         clickSomePianoButtonsFastForLargeTrack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() > 0);
+        assertTrue(pianoActivity.getMidiPlayer().isPlaying());
 
         solo.setActivityOrientation(Solo.LANDSCAPE);
         clickSomePianoButtonsFastForLargeTrack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() > 0);
+        assertTrue(pianoActivity.getMidiPlayer().isPlaying());
 
         solo.setActivityOrientation(Solo.PORTRAIT);
         clickSomePianoButtonsFastForLargeTrack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() > 0);
+        assertTrue(pianoActivity.getMidiPlayer().isPlaying());
 
     }
 
     public void testPlayMidiBackButtonPress() throws InterruptedException {
         solo.setActivityOrientation(Solo.PORTRAIT);
         clickSomePianoButtonsFastForLargeTrack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() > 0);
+        assertTrue(pianoActivity.getMidiPlayer().isPlaying());
 
         solo.setActivityOrientation(Solo.LANDSCAPE);
         clickSomePianoButtonsFastForLargeTrack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() > 0);
+        assertTrue(pianoActivity.getMidiPlayer().isPlaying());
 
         solo.goBack();
-        assertTrue(pianoActivity.getMidiPlayer().getPlayQueueSize() == 0);
+        assertFalse(pianoActivity.getMidiPlayer().isPlaying());
     }
 
     public void testClickOnButtonMaxTrackSize() {
-        int buttonPressCount = InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS;
-
-        for (int i = 0; i < buttonPressCount; i++) {
-            solo.clickOnButton(PIANO_BUTTON);
-        }
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS - 1; i++) {
+                    pianoActivity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, true));
+                    pianoActivity.addNoteEvent(NoteEvent.valueOf(NoteName.C4, false));
+                }
+            }
+        });
 
+        solo.clickOnButton(PIANO_BUTTON);
         solo.clickOnButton(PIANO_BUTTON);
 
         int expectedTrackCount = InstrumentActivity.MAX_TRACK_SIZE_IN_NOTE_EVENTS;
         int actualTrackCount = pianoActivity.getTrack().size();
+        String expectedTextViewText = InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS + " / " + InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS;
 
         assertEquals(expectedTrackCount, actualTrackCount);
+        assertEquals(expectedTextViewText, pianoActivity.getTrackSizeString());
     }
     public void testMaxTrackSizeTextView() {
         int buttonPressCount = 6;
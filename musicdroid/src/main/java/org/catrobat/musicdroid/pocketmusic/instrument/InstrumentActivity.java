@@ -25,10 +25,13 @@ package org.catrobat.musicdroid.pocketmusic.instrument;
 import android.annotation.TargetApi;
 import android.app.Activity;
 import android.app.AlertDialog;
+import android.app.ProgressDialog;
 import android.content.DialogInterface;
 import android.content.pm.ActivityInfo;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.MenuItem;
 import android.widget.EditText;
 import android.widget.Toast;
@@ -37,36 +40,60 @@ import org.catrobat.musicdroid.pocketmusic.R;
 import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
 import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
 import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
-import org.catrobat.musicdroid.pocketmusic.note.TrackMementoStack;
+import org.catrobat.musicdroid.pocketmusic.note.TrackCommandLog;
+import org.catrobat.musicdroid.pocketmusic.note.draw.GlyphBitmapCache;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalog;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiCatalogEntry;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiException;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiIoExecutor;
 import org.catrobat.musicdroid.pocketmusic.note.midi.MidiPlayer;
-import org.catrobat.musicdroid.pocketmusic.note.midi.MidiToProjectConverter;
+import org.catrobat.musicdroid.pocketmusic.note.midi.MidiTask;
 import org.catrobat.musicdroid.pocketmusic.note.midi.ProjectToMidiConverter;
 
 import java.io.File;
-import java.io.FilenameFilter;
-import java.io.IOException;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 public abstract class InstrumentActivity extends Activity {
 
-    public static final int MAX_TRACK_SIZE_IN_SYMBOLS = 60;
+    public static final int MAX_TRACK_SIZE_IN_SYMBOLS = 6000;
     public static final int MAX_TRACK_SIZE_IN_NOTE_EVENTS = MAX_TRACK_SIZE_IN_SYMBOLS * 2;
 
-    private static final String R_RAW = "raw";
-    private static final String SAVED_INSTANCE_TRACK = "SavedTrack";
-    private static final String SAVED_INSTANCE_MEMENTO = "SavedMemento";
+    private static final String SAVED_INSTANCE_PROJECT = "SavedProject";
+    private static final String SAVED_INSTANCE_TRACK_INDEX = "SavedTrackIndex";
+    private static final String SAVED_INSTANCE_COMMAND_LOG = "SavedCommandLog";
+    private static final String MIDI_CATALOG_INDEX_FILE_NAME = "midi_catalog.idx";
+    private static final int SECOND_IN_MILLISECONDS = 1000;
+    private static final int NOTE_EVENT_QUEUE_CAPACITY = 64;
+    private static final int MINUTE_IN_SECONDS = 60;
+    private static final int MAX_PROGRESS = 100;
 
     private EditText editTextMidiExportNameDialogPrompt;
     private MidiPlayer midiPlayer;
+    private Project project;
+    private int trackIndex;
     private Track track;
     private TickProvider tickProvider;
-    private TrackMementoStack mementoStack;
+    private TrackCommandLog commandLog;
+    private ArrayList<TrackCommandLog> commandLogs;
     private AlertDialog playAllDialog;
 
-    private String[] midiFileList;
+    private NoteEventQueue noteEventQueue;
+    private NoteEventQueue.Consumer noteEventConsumer;
+    private Handler noteEventHandler;
+    private Runnable drainNoteEventsRunnable;
+    private boolean drainNoteEventsScheduled;
+
+    private MidiCatalog midiCatalog;
+    private List<MidiCatalogEntry> midiCatalogEntries;
+    private MidiIoExecutor midiIoExecutor;
+    private MidiTask<Project> importTask;
+    private MidiTask<File> exportTask;
+    private MidiTaskListener<?> midiTaskListener;
     private boolean activityInFocus = false;
 
 
@@ -76,80 +103,240 @@ public abstract class InstrumentActivity extends Activity {
         midiPlayer = MidiPlayer.getInstance();
 
         track = new Track(key, instrument, Project.DEFAULT_BEATS_PER_MINUTE);
+        project = new Project(Project.DEFAULT_BEATS_PER_MINUTE);
+        project.addTrack(track);
+        trackIndex = 0;
         tickProvider = new TickProvider(track.getBeatsPerMinute());
 
-        midiFileList = null;
-        mementoStack = new TrackMementoStack();
+        midiCatalog = null;
+        midiCatalogEntries = null;
+        midiIoExecutor = new MidiIoExecutor(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runOnUiThread(runnable);
+            }
+        });
+        importTask = null;
+        exportTask = null;
+        midiTaskListener = null;
+        commandLog = new TrackCommandLog(track);
+        commandLogs = new ArrayList<TrackCommandLog>();
+        commandLogs.add(commandLog);
+
+        noteEventQueue = new NoteEventQueue(NOTE_EVENT_QUEUE_CAPACITY);
+        noteEventConsumer = new NoteEventQueue.Consumer() {
+            @Override
+            public void onNoteEvent(long timestampNanos, NoteEvent noteEvent) {
+                applyNoteEvent(timestampNanos, noteEvent);
+            }
+        };
+        noteEventHandler = new Handler(Looper.getMainLooper());
+        drainNoteEventsRunnable = new Runnable() {
+            @Override
+            public void run() {
+                drainNoteEvents();
+            }
+        };
+        drainNoteEventsScheduled = false;
     }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        if ((null != savedInstanceState) && savedInstanceState.containsKey(SAVED_INSTANCE_TRACK) && savedInstanceState.containsKey(SAVED_INSTANCE_MEMENTO)) {
-            setTrack((Track) savedInstanceState.getSerializable(SAVED_INSTANCE_TRACK));
-            mementoStack = (TrackMementoStack) savedInstanceState.getSerializable(SAVED_INSTANCE_MEMENTO);
+        if ((null != savedInstanceState) && savedInstanceState.containsKey(SAVED_INSTANCE_PROJECT) && savedInstanceState.containsKey(SAVED_INSTANCE_COMMAND_LOG)) {
+            project = (Project) savedInstanceState.getSerializable(SAVED_INSTANCE_PROJECT);
+            commandLogs = getSerializableCommandLogs(savedInstanceState);
+
+            selectTrack(savedInstanceState.getInt(SAVED_INSTANCE_TRACK_INDEX));
+        }
+
+        RetainedMidiTasks retainedMidiTasks = (RetainedMidiTasks) getLastNonConfigurationInstance();
+
+        if (null != retainedMidiTasks) {
+            importTask = retainedMidiTasks.importTask;
+            exportTask = retainedMidiTasks.exportTask;
         }
     }
 
+    @Override
+    protected void onPostCreate(Bundle savedInstanceState) {
+        super.onPostCreate(savedInstanceState);
+
+        if (null != importTask) {
+            importTask.setListener(new ImportMidiTaskListener());
+        }
+
+        if (null != exportTask) {
+            exportTask.setListener(new ExportMidiTaskListener());
+        }
+    }
+
+    @Override
+    public Object onRetainNonConfigurationInstance() {
+        if ((null == importTask) && (null == exportTask)) {
+            return null;
+        }
+
+        return new RetainedMidiTasks(importTask, exportTask);
+    }
+
     @Override
     public void onSaveInstanceState(Bundle savedInstanceState) {
         super.onSaveInstanceState(savedInstanceState);
 
-        savedInstanceState.putSerializable(SAVED_INSTANCE_TRACK, track);
-        savedInstanceState.putSerializable(SAVED_INSTANCE_MEMENTO, mementoStack);
+        drainNoteEvents();
+        savedInstanceState.putSerializable(SAVED_INSTANCE_PROJECT, project);
+        savedInstanceState.putInt(SAVED_INSTANCE_TRACK_INDEX, trackIndex);
+        savedInstanceState.putSerializable(SAVED_INSTANCE_COMMAND_LOG, commandLogs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<TrackCommandLog> getSerializableCommandLogs(Bundle savedInstanceState) {
+        return (ArrayList<TrackCommandLog>) savedInstanceState.getSerializable(SAVED_INSTANCE_COMMAND_LOG);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        GlyphBitmapCache.getInstance().trimMemory(level);
     }
 
     @Override
     public void onPause() {
         super.onPause();
 
-        midiPlayer.stop();
+        drainNoteEvents();
+        midiPlayer.release();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (isFinishing()) {
+            cancelMidiTask();
+        }
+
+        detachMidiTaskListener();
     }
 
     @Override
     public void onResume() {
         super.onResume();
 
+        midiPlayer.prepareNotePreview(this, track.getInstrument(), Octave.createOneLineOctave());
+        refreshMidiCatalog(false);
         dismissPlayAllDialog();
     }
 
     private void setTrack(Track track) {
         this.track = track;
+        project.setTrack(trackIndex, track);
         tickProvider.setTickBasedOnTrack(track);
     }
 
+    public void selectTrack(int trackIndex) {
+        this.trackIndex = trackIndex;
+        setTrack(project.getTrack(trackIndex));
+
+        while (commandLogs.size() <= trackIndex) {
+            commandLogs.add(null);
+        }
+
+        commandLog = commandLogs.get(trackIndex);
+
+        if (null == commandLog) {
+            commandLog = new TrackCommandLog(track);
+            commandLogs.set(trackIndex, commandLog);
+        }
+    }
+
     public Track getTrack() {
         return track;
     }
 
+    public int getTrackIndex() {
+        return trackIndex;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
     public MidiPlayer getMidiPlayer() {
         return midiPlayer;
     }
 
     public void addNoteEvent(NoteEvent noteEvent) {
+        drainNoteEvents();
+
         if (track.size() >= MAX_TRACK_SIZE_IN_NOTE_EVENTS) {
             return;
         }
 
         if (noteEvent.isNoteOn()) {
-            mementoStack.pushMemento(track);
+            midiPlayer.playNote(noteEvent.getNoteName());
+        }
+
+        applyNoteEvent(System.nanoTime(), noteEvent);
+        redraw();
+    }
+
+    public void enqueueNoteEvent(NoteEvent noteEvent) {
+        long timestampNanos = System.nanoTime();
+
+        if (track.size() >= MAX_TRACK_SIZE_IN_NOTE_EVENTS) {
+            return;
+        }
+
+        if (noteEvent.isNoteOn()) {
+            midiPlayer.playNote(noteEvent.getNoteName());
+        }
+
+        if (false == noteEventQueue.offer(timestampNanos, noteEvent)) {
+            drainNoteEvents();
+            noteEventQueue.offer(timestampNanos, noteEvent);
+        }
+
+        if (false == drainNoteEventsScheduled) {
+            drainNoteEventsScheduled = true;
+            noteEventHandler.post(drainNoteEventsRunnable);
+        }
+    }
+
+    protected void drainNoteEvents() {
+        drainNoteEventsScheduled = false;
+
+        if (noteEventQueue.drain(noteEventConsumer) > 0) {
+            redraw();
+        }
+    }
 
-            int midiResourceId = getResources().getIdentifier(noteEvent.getNoteName().toString().toLowerCase(Locale.getDefault()), R_RAW, getPackageName());
-            midiPlayer.playNote(this, midiResourceId);
-            tickProvider.startCounting();
+    private void applyNoteEvent(long timestampNanos, NoteEvent noteEvent) {
+        if (track.size() >= MAX_TRACK_SIZE_IN_NOTE_EVENTS) {
+            return;
+        }
+
+        long tick;
+
+        if (noteEvent.isNoteOn()) {
+            commandLog.beginUndoPoint(track);
+            tick = tickProvider.startCounting(noteEvent.getNoteName(), timestampNanos);
         } else {
-            tickProvider.stopCounting();
+            tick = tickProvider.stopCounting(noteEvent.getNoteName(), timestampNanos);
         }
 
-        track.addNoteEvent(tickProvider.getTick(), noteEvent);
-        redraw();
+        track.addNoteEvent(tick, noteEvent);
+        commandLog.logAddNoteEvent(tick, noteEvent);
     }
 
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int id = item.getItemId();
 
+        drainNoteEvents();
         midiPlayer.stop();
 
         if (id == R.id.action_export_midi) {
@@ -158,6 +345,9 @@ public abstract class InstrumentActivity extends Activity {
         } else if (id == R.id.action_undo_midi) {
             onActionUndoMidi();
             return true;
+        } else if (id == R.id.action_redo_midi) {
+            onActionRedoMidi();
+            return true;
         } else if (id == R.id.action_import_midi) {
             onActionImportMidi();
             return true;
@@ -167,6 +357,9 @@ public abstract class InstrumentActivity extends Activity {
         } else if (id == R.id.action_play_midi) {
             onActionPlayMidi();
             return true;
+        } else if (id == R.id.action_select_track) {
+            onActionSelectTrack();
+            return true;
         }
 
         return super.onOptionsItemSelected(item);
@@ -177,46 +370,114 @@ public abstract class InstrumentActivity extends Activity {
     }
 
     private void onActionUndoMidi() {
-        if (false == mementoStack.isEmpty()) {
-            setTrack(mementoStack.popMementoAsTrack());
+        if (commandLog.canUndo()) {
+            setTrack(commandLog.undo());
+            redraw();
+        }
+    }
+
+    private void onActionRedoMidi() {
+        if (commandLog.canRedo()) {
+            setTrack(commandLog.redo());
             redraw();
         }
     }
 
     private void onActionImportMidi() {
         if (ProjectToMidiConverter.MIDI_FOLDER.exists()) {
-            FilenameFilter filter = new FilenameFilter() {
-                public boolean accept(File dir, String filename) {
-                    File selectedFile = new File(dir, filename);
-                    return filename.contains(ProjectToMidiConverter.MIDI_FILE_EXTENSION) || selectedFile.isDirectory();
+            if (null != midiCatalogEntries) {
+                importMidiFileByUserInput();
+                refreshMidiCatalog(false);
+            } else {
+                refreshMidiCatalog(true);
+            }
+        }
+    }
+
+    private void refreshMidiCatalog(final boolean showFileChooser) {
+        if (null == midiCatalog) {
+            midiCatalog = new MidiCatalog(ProjectToMidiConverter.MIDI_FOLDER, new File(getCacheDir(), MIDI_CATALOG_INDEX_FILE_NAME));
+        }
+
+        midiIoExecutor.refreshCatalog(midiCatalog, new MidiTask.Listener<List<MidiCatalogEntry>>() {
+            @Override
+            public void onProgress(int percent) {
+            }
+
+            @Override
+            public void onSuccess(List<MidiCatalogEntry> entries) {
+                if (isFinishing()) {
+                    return;
                 }
-            };
 
-            midiFileList = ProjectToMidiConverter.MIDI_FOLDER.list(filter);
+                midiCatalogEntries = entries;
+
+                if (showFileChooser) {
+                    importMidiFileByUserInput();
+                }
+            }
 
-            removeMidiExtension();
+            @Override
+            public void onError(Exception e) {
+            }
 
-            importMidiFileByUserInput();
-        }
+            @Override
+            public void onCancelled() {
+            }
+        });
     }
 
     private void onActionDeleteMidi() {
+        commandLog.beginUndoPoint(track);
+        commandLog.logClear();
         setTrack(new Track(track.getKey(), track.getInstrument(), track.getBeatsPerMinute()));
-        mementoStack.clear();
         redraw();
 
         Toast.makeText(getBaseContext(), R.string.action_delete_midi_success, Toast.LENGTH_LONG).show();
     }
 
+    private void onActionSelectTrack() {
+        String[] items = new String[project.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            items[i] = getString(R.string.action_select_track_item, i + 1, project.getTrack(i).getInstrument().toString());
+        }
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle(R.string.action_select_track_title);
+        builder.setSingleChoiceItems(items, trackIndex, new DialogInterface.OnClickListener() {
+            @Override
+            public void onClick(DialogInterface dialog, int index) {
+                dialog.dismiss();
+                drainNoteEvents();
+                selectTrack(index);
+                midiPlayer.prepareNotePreview(InstrumentActivity.this, track.getInstrument(), Octave.createOneLineOctave());
+                redraw();
+            }
+        });
+
+        builder.show();
+    }
+
+    private boolean isProjectEmpty() {
+        for (int i = 0; i < project.size(); i++) {
+            if (false == project.getTrack(i).empty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void onActionPlayMidi() {
-        if (track.empty()) {
+        if (isProjectEmpty()) {
             return;
         }
 
         lockScreenOrientation();
 
         try {
-            midiPlayer.playTrack(this, getCacheDir(), track, Project.DEFAULT_BEATS_PER_MINUTE);
+            midiPlayer.playProject(this, project);
 
             AlertDialog.Builder alertDialogBuilder = new AlertDialog.Builder(this);
             alertDialogBuilder.setMessage(R.string.action_play_midi_dialog_title)
@@ -255,39 +516,31 @@ public abstract class InstrumentActivity extends Activity {
         }
     }
 
-    private void removeMidiExtension() {
-        for (int i = 0; i < midiFileList.length; i++) {
-            midiFileList[i] = midiFileList[i].replaceFirst("[.][^.]+$", "");
+    private String[] createMidiFileChooserItems(List<MidiCatalogEntry> entries) {
+        String[] items = new String[entries.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            MidiCatalogEntry entry = entries.get(i);
+            long seconds = entry.getDurationInMilliseconds() / SECOND_IN_MILLISECONDS;
+
+            items[i] = getString(R.string.action_import_midi_file_chooser_item, entry.getName(), entry.getTrackCount(),
+                    entry.getBeatsPerMinute(), seconds / MINUTE_IN_SECONDS, seconds % MINUTE_IN_SECONDS);
         }
+
+        return items;
     }
 
     protected void importMidiFileByUserInput() {
+        final List<MidiCatalogEntry> entries = midiCatalogEntries;
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
 
         builder.setTitle(R.string.action_import_midi_file_chooser_title);
 
-        builder.setItems(midiFileList, new DialogInterface.OnClickListener() {
+        builder.setItems(createMidiFileChooserItems(entries), new DialogInterface.OnClickListener() {
             public void onClick(DialogInterface dialog, int index) {
-                File midiFile = new File(ProjectToMidiConverter.MIDI_FOLDER, midiFileList[index] + ProjectToMidiConverter.MIDI_FILE_EXTENSION);
-
-                final MidiToProjectConverter converter = new MidiToProjectConverter();
+                File midiFile = entries.get(index).getFile();
 
-                try {
-                    Project project = converter.convertMidiFileToProject(midiFile);
-
-                    setTrack(project.getTrack(0));
-                    redraw();
-
-                    Toast.makeText(getBaseContext(), R.string.action_import_midi_success,
-                            Toast.LENGTH_LONG).show();
-                    mementoStack.clear();
-                } catch (MidiException e) {
-                    Toast.makeText(getBaseContext(), R.string.action_import_midi_validation_error,
-                            Toast.LENGTH_LONG).show();
-                } catch (IOException e) {
-                    Toast.makeText(getBaseContext(), R.string.action_import_midi_io_error + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
-                }
+                importTask = midiIoExecutor.importProject(midiFile, new ImportMidiTaskListener());
             }
         });
 
@@ -311,19 +564,7 @@ public abstract class InstrumentActivity extends Activity {
                                 if ((userInput != null) && (false == userInput.equals(""))) {
                                     String filename = userInput.split(ProjectToMidiConverter.MIDI_FILE_EXTENSION)[0];
 
-                                    final ProjectToMidiConverter converter = new ProjectToMidiConverter();
-                                    final Project project = new Project(Project.DEFAULT_BEATS_PER_MINUTE);
-                                    project.addTrack(getTrack());
-
-                                    try {
-                                        converter.writeProjectAsMidi(project, filename);
-
-                                        Toast.makeText(getBaseContext(), R.string.action_export_midi_success,
-                                                Toast.LENGTH_LONG).show();
-                                    } catch (Exception e) {
-                                        Toast.makeText(getBaseContext(), R.string.action_export_midi_error,
-                                                Toast.LENGTH_LONG).show();
-                                    }
+                                    exportProject(project, ProjectToMidiConverter.getMidiFile(filename));
                                 } else {
                                     Toast.makeText(getBaseContext(), R.string.action_export_midi_cancel,
                                             Toast.LENGTH_LONG).show();
@@ -343,6 +584,159 @@ public abstract class InstrumentActivity extends Activity {
         alertDialog.show();
     }
 
+    private void exportProject(Project project, File file) {
+        exportTask = midiIoExecutor.exportProject(project, file, new ExportMidiTaskListener());
+    }
+
+    private void cancelMidiTask() {
+        if (null != importTask) {
+            importTask.cancel();
+        }
+
+        if (null != exportTask) {
+            exportTask.cancel();
+        }
+    }
+
+    private void detachMidiTaskListener() {
+        if (null != importTask) {
+            importTask.detachListener();
+        }
+
+        if (null != exportTask) {
+            exportTask.detachListener();
+        }
+
+        if (null != midiTaskListener) {
+            midiTaskListener.dismissProgressDialog();
+            midiTaskListener = null;
+        }
+    }
+
+    private static class RetainedMidiTasks {
+
+        private final MidiTask<Project> importTask;
+        private final MidiTask<File> exportTask;
+
+        public RetainedMidiTasks(MidiTask<Project> importTask, MidiTask<File> exportTask) {
+            this.importTask = importTask;
+            this.exportTask = exportTask;
+        }
+    }
+
+    private abstract class MidiTaskListener<T> implements MidiTask.Listener<T> {
+
+        private final ProgressDialog progressDialog;
+
+        public MidiTaskListener(int titleId) {
+            progressDialog = new ProgressDialog(InstrumentActivity.this);
+            progressDialog.setTitle(titleId);
+            progressDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+            progressDialog.setMax(MAX_PROGRESS);
+            progressDialog.setCancelable(false);
+            progressDialog.setButton(DialogInterface.BUTTON_NEGATIVE, getString(R.string.action_midi_progress_cancel),
+                    new DialogInterface.OnClickListener() {
+                        @Override
+                        public void onClick(DialogInterface dialog, int which) {
+                            cancelMidiTask();
+                        }
+                    });
+            progressDialog.show();
+            midiTaskListener = this;
+        }
+
+        @Override
+        public void onProgress(int percent) {
+            progressDialog.setProgress(percent);
+        }
+
+        protected void dismissProgressDialog() {
+            if (progressDialog.isShowing()) {
+                progressDialog.dismiss();
+            }
+        }
+
+        protected void finishMidiTask() {
+            dismissProgressDialog();
+            midiTaskListener = null;
+            importTask = null;
+            exportTask = null;
+        }
+    }
+
+    private class ImportMidiTaskListener extends MidiTaskListener<Project> {
+
+        public ImportMidiTaskListener() {
+            super(R.string.action_import_midi_progress);
+        }
+
+        @Override
+        public void onSuccess(Project importedProject) {
+            finishMidiTask();
+            project = importedProject;
+            commandLogs.clear();
+            selectTrack(0);
+            midiPlayer.prepareNotePreview(InstrumentActivity.this, track.getInstrument(), Octave.createOneLineOctave());
+            redraw();
+
+            Toast.makeText(getBaseContext(), R.string.action_import_midi_success,
+                    Toast.LENGTH_LONG).show();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            finishMidiTask();
+
+            if (e instanceof MidiException) {
+                Toast.makeText(getBaseContext(), R.string.action_import_midi_validation_error,
+                        Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(getBaseContext(), getString(R.string.action_import_midi_io_error) + e.getMessage(),
+                        Toast.LENGTH_LONG).show();
+            }
+        }
+
+        @Override
+        public void onCancelled() {
+            finishMidiTask();
+
+            Toast.makeText(getBaseContext(), R.string.action_import_midi_cancel,
+                    Toast.LENGTH_LONG).show();
+        }
+    }
+
+    private class ExportMidiTaskListener extends MidiTaskListener<File> {
+
+        public ExportMidiTaskListener() {
+            super(R.string.action_export_midi_progress);
+        }
+
+        @Override
+        public void onSuccess(File result) {
+            finishMidiTask();
+            refreshMidiCatalog(false);
+
+            Toast.makeText(getBaseContext(), R.string.action_export_midi_success,
+                    Toast.LENGTH_LONG).show();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            finishMidiTask();
+
+            Toast.makeText(getBaseContext(), R.string.action_export_midi_error,
+                    Toast.LENGTH_LONG).show();
+        }
+
+        @Override
+        public void onCancelled() {
+            finishMidiTask();
+
+            Toast.makeText(getBaseContext(), R.string.action_export_midi_cancel,
+                    Toast.LENGTH_LONG).show();
+        }
+    }
+
     public EditText getEditTextMidiExportNameDialogPrompt() {
         return editTextMidiExportNameDialogPrompt;
     }
@@ -358,8 +752,7 @@ public abstract class InstrumentActivity extends Activity {
         super.onStop();
 
         if (!activityInFocus) {
-            midiPlayer.stop();
-            midiPlayer.clearPlayQueue();
+            midiPlayer.release();
         }
     }
 
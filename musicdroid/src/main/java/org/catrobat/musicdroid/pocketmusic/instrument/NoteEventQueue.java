@@ -0,0 +1,106 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.instrument;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NoteEventQueue {
+
+    private final long[] timestamps;
+    private final short[] noteEventCodes;
+    private final int mask;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    private long cachedHead;
+
+    public NoteEventQueue(int capacity) {
+        if ((capacity <= 0) || (0 != (capacity & (capacity - 1)))) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        timestamps = new long[capacity];
+        noteEventCodes = new short[capacity];
+        mask = capacity - 1;
+        head = new AtomicLong(0);
+        tail = new AtomicLong(0);
+        cachedHead = 0;
+    }
+
+    public boolean offer(long timestampNanos, NoteEvent noteEvent) {
+        long currentTail = tail.get();
+
+        if (currentTail - cachedHead == timestamps.length) {
+            cachedHead = head.get();
+
+            if (currentTail - cachedHead == timestamps.length) {
+                return false;
+            }
+        }
+
+        int index = (int) (currentTail & mask);
+
+        timestamps[index] = timestampNanos;
+        noteEventCodes[index] = (short) noteEvent.toCode();
+        tail.lazySet(currentTail + 1);
+
+        return true;
+    }
+
+    public int drain(Consumer consumer) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        int count = 0;
+
+        while (currentHead < currentTail) {
+            int index = (int) (currentHead & mask);
+            long timestampNanos = timestamps[index];
+            NoteEvent noteEvent = NoteEvent.fromCode(noteEventCodes[index]);
+
+            currentHead++;
+            head.lazySet(currentHead);
+            count++;
+
+            consumer.onNoteEvent(timestampNanos, noteEvent);
+        }
+
+        return count;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public interface Consumer {
+        void onNoteEvent(long timestampNanos, NoteEvent noteEvent);
+    }
+}
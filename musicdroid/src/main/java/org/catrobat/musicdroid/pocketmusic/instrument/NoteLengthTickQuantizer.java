@@ -0,0 +1,63 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.instrument;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+
+import java.util.concurrent.TimeUnit;
+
+public class NoteLengthTickQuantizer implements TickQuantizer {
+
+    private final boolean quantizeRests;
+
+    public NoteLengthTickQuantizer() {
+        this(false);
+    }
+
+    public NoteLengthTickQuantizer(boolean quantizeRests) {
+        this.quantizeRests = quantizeRests;
+    }
+
+    @Override
+    public long quantizeNote(long durationNanos, int beatsPerMinute) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+
+        return NoteLength.getNoteLengthFromMilliseconds(durationMillis, beatsPerMinute).toTicks(beatsPerMinute);
+    }
+
+    @Override
+    public long quantizeRest(long durationNanos, int beatsPerMinute) {
+        if (false == quantizeRests) {
+            return 0;
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        long shortestRestMillis = NoteLength.SIXTEENTH.toMilliseconds(beatsPerMinute);
+
+        if (durationMillis < shortestRestMillis / 2) {
+            return 0;
+        }
+
+        return NoteLength.getNoteLengthFromMilliseconds(durationMillis, beatsPerMinute).toTicks(beatsPerMinute);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.instrument;
+
+import java.util.concurrent.TimeUnit;
+
+class PolyphonicNoteTimer {
+
+    private static final int MIDI_VALUE_COUNT = 128;
+    private static final long CHORD_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final long[] pressTimeNanos;
+    private final long[] pressTicks;
+    private final boolean[] held;
+    private int heldCount;
+    private long tick;
+    private long chordStartTick;
+    private long chordStartNanos;
+    private long chordEndTick;
+    private long releaseTimeNanos;
+    private boolean released;
+
+    public PolyphonicNoteTimer(long tick) {
+        pressTimeNanos = new long[MIDI_VALUE_COUNT];
+        pressTicks = new long[MIDI_VALUE_COUNT];
+        held = new boolean[MIDI_VALUE_COUNT];
+        reset(tick);
+    }
+
+    public void reset(long tick) {
+        for (int midi = 0; midi < MIDI_VALUE_COUNT; midi++) {
+            held[midi] = false;
+        }
+
+        this.heldCount = 0;
+        this.tick = tick;
+        this.chordStartTick = tick;
+        this.chordEndTick = tick;
+        this.released = false;
+    }
+
+    public long press(int midi, long timestampNanos, TickQuantizer quantizer, int beatsPerMinute) {
+        if (0 == heldCount) {
+            if (released) {
+                tick += quantizer.quantizeRest(timestampNanos - releaseTimeNanos, beatsPerMinute);
+            }
+
+            chordStartTick = tick;
+            chordStartNanos = timestampNanos;
+            chordEndTick = tick;
+        } else if (timestampNanos - chordStartNanos > CHORD_WINDOW_NANOS) {
+            chordStartTick += quantizer.quantizeNote(timestampNanos - chordStartNanos, beatsPerMinute);
+            chordStartNanos = timestampNanos;
+            chordEndTick = Math.max(chordEndTick, chordStartTick);
+        }
+
+        if (false == held[midi]) {
+            held[midi] = true;
+            heldCount++;
+        }
+
+        pressTimeNanos[midi] = timestampNanos;
+        pressTicks[midi] = chordStartTick;
+
+        return chordStartTick;
+    }
+
+    public long release(int midi, long timestampNanos, TickQuantizer quantizer, int beatsPerMinute) {
+        if (false == held[midi]) {
+            return tick;
+        }
+
+        long releaseTick = pressTicks[midi] + quantizer.quantizeNote(timestampNanos - pressTimeNanos[midi], beatsPerMinute);
+
+        held[midi] = false;
+        heldCount--;
+        chordEndTick = Math.max(chordEndTick, releaseTick);
+
+        if (0 == heldCount) {
+            tick = chordEndTick;
+            releaseTimeNanos = timestampNanos;
+            released = true;
+        }
+
+        return releaseTick;
+    }
+
+    public void increaseTick(long ticks) {
+        tick += ticks;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getHeldCount() {
+        return heldCount;
+    }
+}
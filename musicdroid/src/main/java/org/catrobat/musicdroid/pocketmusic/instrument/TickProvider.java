@@ -23,44 +23,99 @@
 
 package org.catrobat.musicdroid.pocketmusic.instrument;
 
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
 import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 
 public class TickProvider {
 
+    private static final int DEFAULT_RECORDING_CAPACITY = 256;
+
     protected int beatsPerMinute;
-    protected long tick;
-    protected long startTimiMillis;
+    private TickQuantizer quantizer;
+    private PolyphonicNoteTimer noteTimer;
+    private TimestampRingBuffer recording;
 
     public TickProvider(int beatsPerMinute) {
+        this(beatsPerMinute, new NoteLengthTickQuantizer());
+    }
+
+    public TickProvider(int beatsPerMinute, TickQuantizer quantizer) {
         this.beatsPerMinute = beatsPerMinute;
-        tick = 0;
-        startTimiMillis = 0;
+        this.quantizer = quantizer;
+        noteTimer = new PolyphonicNoteTimer(0);
+        recording = new TimestampRingBuffer(DEFAULT_RECORDING_CAPACITY);
     }
 
-    protected long currentTimeMillis() {
-        return System.currentTimeMillis();
+    protected long nanoTime() {
+        return System.nanoTime();
     }
 
-    public void startCounting() {
-        startTimiMillis = currentTimeMillis();
+    public long startCounting(NoteName noteName) {
+        return startCounting(noteName, nanoTime());
+    }
+
+    public long startCounting(NoteName noteName, long timestampNanos) {
+        recording.add(timestampNanos, NoteEvent.valueOf(noteName, true));
+
+        return noteTimer.press(noteName.getMidi(), timestampNanos, quantizer, beatsPerMinute);
     }
 
-    public void stopCounting() {
-        long  difference = currentTimeMillis() - startTimiMillis;
-        NoteLength noteLength = NoteLength.getNoteLengthFromMilliseconds(difference, beatsPerMinute);
-        tick += noteLength.toTicks(beatsPerMinute);
+    public long stopCounting(NoteName noteName) {
+        return stopCounting(noteName, nanoTime());
+    }
+
+    public long stopCounting(NoteName noteName, long timestampNanos) {
+        recording.add(timestampNanos, NoteEvent.valueOf(noteName, false));
+
+        return noteTimer.release(noteName.getMidi(), timestampNanos, quantizer, beatsPerMinute);
     }
 
     public long getTick() {
-        return tick;
+        return noteTimer.getTick();
+    }
+
+    public int getHeldNoteCount() {
+        return noteTimer.getHeldCount();
     }
 
     public void setTickBasedOnTrack(Track track) {
-        tick = track.getLastTick();
+        noteTimer.reset(track.getLastTick());
+        recording.clear();
     }
 
     public void increaseTick(NoteLength noteLength) {
-        tick += noteLength.toTicks(beatsPerMinute);
+        noteTimer.increaseTick(noteLength.toTicks(beatsPerMinute));
+    }
+
+    public TickQuantizer getQuantizer() {
+        return quantizer;
+    }
+
+    public void setQuantizer(TickQuantizer quantizer) {
+        this.quantizer = quantizer;
+    }
+
+    public TimestampRingBuffer getRecording() {
+        return recording;
+    }
+
+    public long[] quantizeRecording(TickQuantizer quantizer, int beatsPerMinute, long startTick) {
+        PolyphonicNoteTimer replayTimer = new PolyphonicNoteTimer(startTick);
+        long[] ticks = new long[recording.size()];
+
+        for (int i = 0; i < recording.size(); i++) {
+            int midi = NoteEvent.getMidiFromCode(recording.getNoteEventCode(i));
+            long timestampNanos = recording.getTimestamp(i);
+
+            if (recording.isPress(i)) {
+                ticks[i] = replayTimer.press(midi, timestampNanos, quantizer, beatsPerMinute);
+            } else {
+                ticks[i] = replayTimer.release(midi, timestampNanos, quantizer, beatsPerMinute);
+            }
+        }
+
+        return ticks;
     }
 }
@@ -0,0 +1,92 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.instrument;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+
+public class TimestampRingBuffer {
+
+    private final long[] timestamps;
+    private final short[] noteEventCodes;
+    private int start;
+    private int size;
+
+    public TimestampRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        timestamps = new long[capacity];
+        noteEventCodes = new short[capacity];
+        start = 0;
+        size = 0;
+    }
+
+    public void add(long timestampNanos, NoteEvent noteEvent) {
+        int index;
+
+        if (size < timestamps.length) {
+            index = (start + size) % timestamps.length;
+            size++;
+        } else {
+            index = start;
+            start = (start + 1) % timestamps.length;
+        }
+
+        timestamps[index] = timestampNanos;
+        noteEventCodes[index] = (short) noteEvent.toCode();
+    }
+
+    public long getTimestamp(int location) {
+        return timestamps[toIndex(location)];
+    }
+
+    public int getNoteEventCode(int location) {
+        return noteEventCodes[toIndex(location)];
+    }
+
+    public boolean isPress(int location) {
+        return NoteEvent.isNoteOnCode(getNoteEventCode(location));
+    }
+
+    private int toIndex(int location) {
+        if ((location < 0) || (location >= size)) {
+            throw new IndexOutOfBoundsException("Invalid location: " + location);
+        }
+
+        return (start + location) % timestamps.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+}
@@ -32,16 +32,19 @@ import android.view.WindowManager;
 
 import org.catrobat.musicdroid.pocketmusic.instrument.piano.PianoActivity;
 import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 import org.catrobat.musicdroid.pocketmusic.note.draw.DrawElementsTouchDetector;
+import org.catrobat.musicdroid.pocketmusic.note.draw.MultiStaffNoteSheetRenderer;
 import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetCanvas;
-import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetDrawer;
+import org.catrobat.musicdroid.pocketmusic.note.draw.NoteSheetRenderer;
 import org.catrobat.musicdroid.pocketmusic.note.draw.SymbolPosition;
 import org.catrobat.musicdroid.pocketmusic.note.symbol.Symbol;
 import org.catrobat.musicdroid.pocketmusic.note.symbol.TrackToSymbolsConverter;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class NoteSheetView extends View {
 
@@ -52,18 +55,50 @@ public class NoteSheetView extends View {
     protected List<SymbolPosition> symbolPositions;
 
     protected NoteSheetCanvas noteSheetCanvas;
-    protected NoteSheetDrawer noteSheetDrawer;
+    protected NoteSheetRenderer noteSheetRenderer;
+    protected MultiStaffNoteSheetRenderer multiStaffRenderer;
+    protected Project project;
+    protected MultiStaffNoteSheetRenderer.OnLayoutCompletedListener layoutCompletedListener;
     protected int widthBeforeResize;
+    protected RedrawScheduler redrawScheduler;
+    protected Track pendingTrack;
+    protected Project pendingProject;
+    protected int trackWidth;
 
 	public NoteSheetView(Context context, AttributeSet attrs) {
 		super(context, attrs);
 
         touchDetector = new DrawElementsTouchDetector();
         trackConverter = new TrackToSymbolsConverter();
-        symbols = new LinkedList<Symbol>();
-        symbolPositions = new LinkedList<SymbolPosition>();
+        symbols = new ArrayList<Symbol>();
+        symbolPositions = new ArrayList<SymbolPosition>();
         key = MusicalKey.VIOLIN;
+        noteSheetRenderer = new NoteSheetRenderer(getResources());
+        multiStaffRenderer = new MultiStaffNoteSheetRenderer(getResources(), new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                post(runnable);
+            }
+        });
+        project = null;
+        layoutCompletedListener = new MultiStaffNoteSheetRenderer.OnLayoutCompletedListener() {
+            @Override
+            public void onLayoutCompleted() {
+                invalidate();
+            }
+        };
         widthBeforeResize = getWidth();
+        redrawScheduler = new RedrawScheduler(this, new Runnable() {
+            @Override
+            public void run() {
+                if (applyPendingRedraw()) {
+                    invalidate();
+                }
+            }
+        });
+        pendingTrack = null;
+        pendingProject = null;
+        trackWidth = -1;
 	}
 
     public boolean checkForScrollAndRecalculateWidth() {
@@ -76,11 +111,37 @@ public class NoteSheetView extends View {
     }
 
 	public void redraw(Track track) {
-        key = track.getKey();
-        symbols = trackConverter.convertTrack(track);
-        invalidate();
+        pendingTrack = track;
+        pendingProject = null;
+        redrawScheduler.scheduleRedraw();
 	}
 
+    public void redraw(Project project, int selectedTrackIndex) {
+        pendingTrack = null;
+        pendingProject = project;
+        multiStaffRenderer.setSelectedStaff(selectedTrackIndex);
+        redrawScheduler.scheduleRedraw();
+    }
+
+    protected boolean applyPendingRedraw() {
+        if (null != pendingTrack) {
+            project = null;
+            key = pendingTrack.getKey();
+            symbols = trackConverter.convertTrackIncrementally(pendingTrack);
+            noteSheetRenderer.invalidateLayout();
+        } else if (null != pendingProject) {
+            project = pendingProject;
+            multiStaffRenderer.invalidateLayout();
+        } else {
+            return false;
+        }
+
+        pendingTrack = null;
+        pendingProject = null;
+
+        return true;
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         remeasureDisplayForDrawing();
@@ -94,10 +155,9 @@ public class NoteSheetView extends View {
         int screenWidth = displayMetrics.widthPixels;
         int screenHeight = displayMetrics.heightPixels;
 
-        if(noteSheetDrawer == null) {
+        if(noteSheetCanvas == null) {
             setMeasuredDimension(screenWidth, screenHeight / 2);
         } else {
-            int trackWidth = noteSheetDrawer.getWidthForDrawingTrack();
             if (trackWidth < screenWidth) {
                 setMeasuredDimension(screenWidth, getHeight());
             } else {
@@ -109,17 +169,35 @@ public class NoteSheetView extends View {
 	@Override
 	protected void onDraw(Canvas canvas) {
 		super.onDraw(canvas);
-		noteSheetCanvas = new NoteSheetCanvas(canvas);
-        requestLayout();
-        noteSheetDrawer = new NoteSheetDrawer(noteSheetCanvas, getResources(), symbols, key);
-        symbolPositions = noteSheetDrawer.drawNoteSheet();
+
+        if (null == noteSheetCanvas) {
+            noteSheetCanvas = new NoteSheetCanvas(canvas);
+        } else {
+            noteSheetCanvas.setCanvas(canvas);
+        }
+
+        applyPendingRedraw();
+
+        if (null == project) {
+            symbolPositions = noteSheetRenderer.drawNoteSheet(noteSheetCanvas, symbols, key);
+        } else {
+            multiStaffRenderer.drawNoteSheet(noteSheetCanvas, project, layoutCompletedListener);
+        }
+
+        int currentTrackWidth = (null == project) ? noteSheetRenderer.getWidthForDrawingTrack() : multiStaffRenderer.getWidthForDrawingTrack();
+
+        if (currentTrackWidth != trackWidth) {
+            trackWidth = currentTrackWidth;
+            requestLayout();
+        }
+
         ((PianoActivity) getContext()).scrollNoteSheet();
 	}
 
     @Override
     public boolean onTouchEvent(MotionEvent e) {
-        if (MotionEvent.ACTION_UP == e.getAction()) {
-            int index = touchDetector.getIndexOfTouchedDrawElement(symbolPositions, e.getX(), e.getY());
+        if ((null == project) && (MotionEvent.ACTION_UP == e.getAction())) {
+            int index = touchDetector.getIndexOfTouchedDrawElement(noteSheetRenderer.getSymbolPositionIndex(), e.getX(), e.getY());
 
             if (DrawElementsTouchDetector.INVALID_INDEX != index) {
                 Symbol symbol = symbols.get(index);
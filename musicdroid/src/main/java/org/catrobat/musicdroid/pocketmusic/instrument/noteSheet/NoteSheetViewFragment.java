@@ -34,6 +34,7 @@ import android.widget.TextView;
 
 import org.catrobat.musicdroid.pocketmusic.R;
 import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 
 public  class NoteSheetViewFragment extends Fragment {
@@ -68,8 +69,15 @@ public  class NoteSheetViewFragment extends Fragment {
         return widthAndHeight;
     }
 
-    public void redraw(Track track) {
-        noteSheetView.redraw(track);
+    public void redraw(Project project, int trackIndex) {
+        Track track = project.getTrack(trackIndex);
+
+        if (project.size() > 1) {
+            noteSheetView.redraw(project, trackIndex);
+        } else {
+            noteSheetView.redraw(track);
+        }
+
         trackSizeTextView.setText(track.size()/2 +" / " + InstrumentActivity.MAX_TRACK_SIZE_IN_SYMBOLS);
     }
     public String getTrackSizeTextViewText(){
@@ -0,0 +1,80 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.catrobat.musicdroid.pocketmusic.instrument.noteSheet;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.View;
+
+public class RedrawScheduler {
+
+    private static final long FRAME_INTERVAL_MILLIS = 16;
+
+    private final View view;
+    private final Runnable frameRunnable;
+    private boolean scheduled;
+
+    public RedrawScheduler(View view, final Runnable redrawRunnable) {
+        this.view = view;
+        this.scheduled = false;
+        this.frameRunnable = new Runnable() {
+            @Override
+            public void run() {
+                scheduled = false;
+                redrawRunnable.run();
+            }
+        };
+    }
+
+    public void scheduleRedraw() {
+        if (scheduled) {
+            return;
+        }
+
+        scheduled = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postOnAnimation();
+        } else {
+            long delay = FRAME_INTERVAL_MILLIS - (SystemClock.uptimeMillis() % FRAME_INTERVAL_MILLIS);
+            view.postDelayed(frameRunnable, delay);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postOnAnimation() {
+        view.postOnAnimation(frameRunnable);
+    }
+
+    public void cancel() {
+        if (scheduled) {
+            view.removeCallbacks(frameRunnable);
+            scheduled = false;
+        }
+    }
+
+    public boolean isScheduled() {
+        return scheduled;
+    }
+}
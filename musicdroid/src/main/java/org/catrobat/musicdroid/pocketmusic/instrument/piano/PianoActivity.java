@@ -70,7 +70,7 @@ public class PianoActivity extends InstrumentActivity {
     @Override
     protected void onStart() {
         super.onStart();
-        noteSheetViewFragment.redraw(getTrack());
+        noteSheetViewFragment.redraw(getProject(), getTrackIndex());
 
     }
 
@@ -88,7 +88,7 @@ public class PianoActivity extends InstrumentActivity {
     // TODO fw add test for this?!
     @Override
     protected void redraw() {
-        noteSheetViewFragment.redraw(getTrack());
+        noteSheetViewFragment.redraw(getProject(), getTrackIndex());
     }
 
 
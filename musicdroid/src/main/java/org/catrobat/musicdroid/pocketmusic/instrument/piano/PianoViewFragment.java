@@ -156,10 +156,10 @@ public  class PianoViewFragment extends Fragment {
 
                 if (isDownActionEvent(event)) {
                     view.setX(view.getX()+5);
-                    addKeyPress(new NoteEvent(noteName, true));
+                    addKeyPress(NoteEvent.valueOf(noteName, true));
                 } else if (isUpActionEvent(event)) {
                     view.setX(view.getX()-5);
-                    addKeyPress(new NoteEvent(noteName, false));
+                    addKeyPress(NoteEvent.valueOf(noteName, false));
                 }
 
                 return true;
@@ -170,14 +170,14 @@ public  class PianoViewFragment extends Fragment {
             }
 
             private boolean isUpActionEvent(MotionEvent event) {
-                return (event.getAction() == android.view.MotionEvent.ACTION_UP);
+                return (event.getAction() == android.view.MotionEvent.ACTION_UP) || (event.getAction() == android.view.MotionEvent.ACTION_CANCEL);
             }
         });
     }
 
     private void addKeyPress(NoteEvent noteEvent) {
         PianoActivity pianoActivity = (PianoActivity) getActivity();
-        pianoActivity.addNoteEvent(noteEvent);
+        pianoActivity.enqueueNoteEvent(noteEvent);
     }
 
     public Button getBlackButtonAtIndex(int index) {
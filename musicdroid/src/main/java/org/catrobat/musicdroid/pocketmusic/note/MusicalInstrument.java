@@ -45,22 +45,31 @@ public enum MusicalInstrument {
             119), GUITAR_FRET_NOISE(120), BREATH_NOISE(121), SEASHORE(122), BIRD_TWEET(123), TELEPHONE_RING(124), HELICOPTER(
             125), APPLAUSE(126), GUNSHOT(127);
 
+    private static final int PROGRAM_COUNT = 128;
+    private static final MusicalInstrument[] INSTRUMENTS_BY_PROGRAM = createInstrumentsByProgram();
+
     private int program;
 
     private MusicalInstrument(int program) {
         this.program = program;
     }
 
-    public static MusicalInstrument getInstrumentFromProgram(int program) {
-        MusicalInstrument[] instruments = MusicalInstrument.values();
+    private static MusicalInstrument[] createInstrumentsByProgram() {
+        MusicalInstrument[] instrumentsByProgram = new MusicalInstrument[PROGRAM_COUNT];
 
-        for (int i = 0; i < instruments.length; i++) {
-            if (instruments[i].getProgram() == program) {
-                return instruments[i];
+        for (MusicalInstrument instrument : values()) {
+            if (null == instrumentsByProgram[instrument.program]) {
+                instrumentsByProgram[instrument.program] = instrument;
             }
         }
 
-        return ACOUSTIC_GRAND_PIANO;
+        return instrumentsByProgram;
+    }
+
+    public static MusicalInstrument getInstrumentFromProgram(int program) {
+        MusicalInstrument instrument = ((program >= 0) && (program < PROGRAM_COUNT)) ? INSTRUMENTS_BY_PROGRAM[program] : null;
+
+        return (null == instrument) ? ACOUSTIC_GRAND_PIANO : instrument;
     }
 
     public int getProgram() {
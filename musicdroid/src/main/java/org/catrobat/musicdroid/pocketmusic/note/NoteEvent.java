@@ -29,6 +29,11 @@ public class NoteEvent implements Serializable {
 
     private static final long serialVersionUID = 7483022549872527955L;
 
+    private static final int NOTE_ON_BIT = 1;
+    private static final int MIDI_SHIFT = 1;
+    private static final int CODE_COUNT = 256;
+    private static final NoteEvent[] FLYWEIGHTS = createFlyweights();
+
     private NoteName noteName;
     private boolean noteOn;
 
@@ -42,6 +47,47 @@ public class NoteEvent implements Serializable {
         this.noteOn = noteEvent.isNoteOn();
     }
 
+    private static NoteEvent[] createFlyweights() {
+        NoteEvent[] flyweights = new NoteEvent[CODE_COUNT];
+
+        for (NoteName noteName : NoteName.values()) {
+            flyweights[encode(noteName, true)] = new NoteEvent(noteName, true);
+            flyweights[encode(noteName, false)] = new NoteEvent(noteName, false);
+        }
+
+        return flyweights;
+    }
+
+    public static int encode(NoteName noteName, boolean noteOn) {
+        return (noteName.getMidi() << MIDI_SHIFT) | (noteOn ? NOTE_ON_BIT : 0);
+    }
+
+    public static NoteEvent valueOf(NoteName noteName, boolean noteOn) {
+        return FLYWEIGHTS[encode(noteName, noteOn)];
+    }
+
+    public static NoteEvent fromCode(int code) {
+        NoteEvent noteEvent = ((code >= 0) && (code < CODE_COUNT)) ? FLYWEIGHTS[code] : null;
+
+        if (null == noteEvent) {
+            throw new IllegalArgumentException("Invalid note event code: " + code);
+        }
+
+        return noteEvent;
+    }
+
+    public static int getMidiFromCode(int code) {
+        return code >> MIDI_SHIFT;
+    }
+
+    public static boolean isNoteOnCode(int code) {
+        return (code & NOTE_ON_BIT) == NOTE_ON_BIT;
+    }
+
+    public int toCode() {
+        return encode(noteName, noteOn);
+    }
+
     public NoteName getNoteName() {
         return noteName;
     }
@@ -65,6 +111,11 @@ public class NoteEvent implements Serializable {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return toCode();
+    }
+
     @Override
     public String toString() {
         return "[NoteEvent] noteName= " + noteName + " noteOn=" + noteOn;
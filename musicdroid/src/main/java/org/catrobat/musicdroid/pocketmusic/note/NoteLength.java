@@ -23,78 +23,116 @@
 
 package org.catrobat.musicdroid.pocketmusic.note;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum NoteLength {
     WHOLE_DOT(4f + 2f), WHOLE(4f), HALF_DOT(2f + 1f), HALF(2f), QUARTER_DOT(1f + 1 / 2f),
     QUARTER(1f), EIGHT_DOT(1 / 2f + 1 / 4f), EIGHT(1 / 2f), SIXTEENTH(1 / 4f);
 
-    private static final NoteLengthMillisecondsHelper NOTE_LENGTH_MILLISECONDS_HELPER = new NoteLengthMillisecondsHelper();
     private static final NoteLength[] SORTED_NOTE_LENGTHS = new NoteLength[] {SIXTEENTH, EIGHT, EIGHT_DOT, QUARTER, QUARTER_DOT, HALF, HALF_DOT, WHOLE, WHOLE_DOT};
     private static final long DEFAULT_TICK_DURATION_MODIFIER = 8;
-    private static final NoteLength SMALLEST_NOTE_LENGTH = SIXTEENTH;
 
     private static final int MINUTE_IN_SECONDS = 60;
     private static final int SECOND_IN_MILLISECONDS = 1000;
 
+    private static final int MIN_PRECOMPUTED_BEATS_PER_MINUTE = 1;
+    private static final int MAX_PRECOMPUTED_BEATS_PER_MINUTE = 300;
+    private static final int[] SORTED_INDEX_BY_ORDINAL = createSortedIndexByOrdinal();
+    private static final NoteLengthTable[] PRECOMPUTED_TABLES = createPrecomputedTables();
+
     private float length;
 
     private NoteLength(float length) {
         this.length = length;
     }
 
-    public static NoteLength getNoteLengthFromTickDuration(long duration, int beatsPerMinute) {
-        NoteLength noteLength = SMALLEST_NOTE_LENGTH;
-        NoteLength[] allNoteLengths = NoteLength.values();
+    private static int[] createSortedIndexByOrdinal() {
+        int[] sortedIndexByOrdinal = new int[SORTED_NOTE_LENGTHS.length];
 
-        for (int i = (allNoteLengths.length - 1); i >= 0; i--) {
-            long difference = duration - allNoteLengths[i].toTicks(beatsPerMinute);
+        for (int i = 0; i < SORTED_NOTE_LENGTHS.length; i++) {
+            sortedIndexByOrdinal[SORTED_NOTE_LENGTHS[i].ordinal()] = i;
+        }
 
-            if (difference < 0) {
-                break;
-            }
+        return sortedIndexByOrdinal;
+    }
 
-            noteLength = allNoteLengths[i];
+    private static NoteLengthTable[] createPrecomputedTables() {
+        NoteLengthTable[] tables = new NoteLengthTable[MAX_PRECOMPUTED_BEATS_PER_MINUTE - MIN_PRECOMPUTED_BEATS_PER_MINUTE + 1];
+
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = new NoteLengthTable(MIN_PRECOMPUTED_BEATS_PER_MINUTE + i);
+        }
+
+        return tables;
+    }
+
+    private static NoteLengthTable getTable(int beatsPerMinute) {
+        if ((beatsPerMinute >= MIN_PRECOMPUTED_BEATS_PER_MINUTE) && (beatsPerMinute <= MAX_PRECOMPUTED_BEATS_PER_MINUTE)) {
+            return PRECOMPUTED_TABLES[beatsPerMinute - MIN_PRECOMPUTED_BEATS_PER_MINUTE];
         }
 
-        return noteLength;
+        return new NoteLengthTable(beatsPerMinute);
+    }
+
+    public static NoteLength getNoteLengthFromTickDuration(long duration, int beatsPerMinute) {
+        long[] ticks = getTable(beatsPerMinute).ticks;
+        int index = lowerBound(ticks, duration);
+
+        if ((index < ticks.length) && (ticks[index] == duration)) {
+            return SORTED_NOTE_LENGTHS[index];
+        }
+
+        return SORTED_NOTE_LENGTHS[Math.max(0, index - 1)];
     }
 
     public static NoteLength getNoteLengthFromMilliseconds(long millis, int beatsPerMinute) {
-        long[] calculatedMilliseconds = NOTE_LENGTH_MILLISECONDS_HELPER.getMilliseconds(beatsPerMinute);
-        long bottomLimit = calculatedMilliseconds[0];
-        int bottomIndex = 0;
-        long topLimit = calculatedMilliseconds[calculatedMilliseconds.length - 1];
-        int topIndex = 0;
-
-        for (int i = 0; i < calculatedMilliseconds.length; i++) {
-            long calculatedMillis = calculatedMilliseconds[i];
-            if (millis > calculatedMillis) {
-                bottomLimit = calculatedMillis;
-                bottomIndex = i;
-            } else {
-                topLimit = calculatedMillis;
-                topIndex = i;
-                break;
-            }
+        long[] milliseconds = getTable(beatsPerMinute).milliseconds;
+        int topIndex = lowerBound(milliseconds, millis);
+
+        if (0 == topIndex) {
+            return SORTED_NOTE_LENGTHS[0];
+        } else if (milliseconds.length == topIndex) {
+            return SORTED_NOTE_LENGTHS[milliseconds.length - 1];
         }
 
-        long distanceBottom = Math.abs(bottomLimit - millis);
-        long distanceTop = Math.abs(topLimit - millis);
+        long distanceBottom = millis - milliseconds[topIndex - 1];
+        long distanceTop = milliseconds[topIndex] - millis;
 
         if (distanceBottom > distanceTop) {
             return SORTED_NOTE_LENGTHS[topIndex];
         } else {
-            return SORTED_NOTE_LENGTHS[bottomIndex];
+            return SORTED_NOTE_LENGTHS[topIndex - 1];
         }
     }
 
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
     public long toTicks(int beatsPerMinute) {
-        return Math.round(beatsPerMinute * DEFAULT_TICK_DURATION_MODIFIER * length);
+        return getTable(beatsPerMinute).ticks[SORTED_INDEX_BY_ORDINAL[ordinal()]];
     }
 
     public long toMilliseconds(int beatsPerMinute) {
+        return getTable(beatsPerMinute).milliseconds[SORTED_INDEX_BY_ORDINAL[ordinal()]];
+    }
+
+    private long calculateTicks(int beatsPerMinute) {
+        return Math.round(beatsPerMinute * DEFAULT_TICK_DURATION_MODIFIER * length);
+    }
+
+    private long calculateMilliseconds(int beatsPerMinute) {
         return Math.round(beatsPerMinute * length * SECOND_IN_MILLISECONDS / MINUTE_IN_SECONDS);
     }
 
@@ -103,6 +141,14 @@ public enum NoteLength {
         return millis;
     }
 
+    public static long tickToSampleFrames(long tick, int sampleRate) {
+        return tick * sampleRate / MINUTE_IN_SECONDS / DEFAULT_TICK_DURATION_MODIFIER;
+    }
+
+    public static long sampleFramesToTick(long sampleFrames, int sampleRate) {
+        return sampleFrames * MINUTE_IN_SECONDS * DEFAULT_TICK_DURATION_MODIFIER / sampleRate;
+    }
+
     public boolean hasStem() {
         if ((this == WHOLE) || (this == WHOLE_DOT)) {
             return false;
@@ -137,31 +183,19 @@ public enum NoteLength {
         return false;
     }
 
-    private static class NoteLengthMillisecondsHelper {
+    private static final class NoteLengthTable {
 
-        private Map<Integer, long[]> millisecondsCalculationMap;
+        private final long[] ticks;
+        private final long[] milliseconds;
 
-        public NoteLengthMillisecondsHelper() {
-            millisecondsCalculationMap = new HashMap<Integer, long[]>();
-        }
+        public NoteLengthTable(int beatsPerMinute) {
+            ticks = new long[SORTED_NOTE_LENGTHS.length];
+            milliseconds = new long[SORTED_NOTE_LENGTHS.length];
 
-        public long[] getMilliseconds(int beatsPerMinute) {
-            if (false == millisecondsCalculationMap.containsKey(beatsPerMinute)) {
-                millisecondsCalculationMap.put(beatsPerMinute, calculateMilliseconds(beatsPerMinute));
+            for (int i = 0; i < SORTED_NOTE_LENGTHS.length; i++) {
+                ticks[i] = SORTED_NOTE_LENGTHS[i].calculateTicks(beatsPerMinute);
+                milliseconds[i] = SORTED_NOTE_LENGTHS[i].calculateMilliseconds(beatsPerMinute);
             }
-
-            return millisecondsCalculationMap.get(beatsPerMinute);
-        }
-
-        private long[] calculateMilliseconds(int beatsPerMinute) {
-            long[] milliseconds = new long[SORTED_NOTE_LENGTHS.length];
-
-            for (int i = 0; i < milliseconds.length; i++) {
-                NoteLength noteLength = SORTED_NOTE_LENGTHS[i];
-                milliseconds[i] = noteLength.toMilliseconds(beatsPerMinute);
-            }
-
-            return milliseconds;
         }
     }
 }
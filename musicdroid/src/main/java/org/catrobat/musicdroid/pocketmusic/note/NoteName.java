@@ -38,6 +38,11 @@ public enum NoteName {
             105, false), A7S(106, true), B7(107, false), C8(108, false);
 
     private static final NoteName DEFAULT_NOTE_NAME = NoteName.C4;
+    private static final int MIDI_VALUE_COUNT = 128;
+
+    private static final NoteName[] VALUES = values();
+    private static final NoteName[] NOTE_NAMES_BY_MIDI = createNoteNamesByMidi();
+    private static final int[] STAFF_POSITIONS = createStaffPositions();
 
     private int midi;
     private boolean signed;
@@ -47,16 +52,37 @@ public enum NoteName {
         this.signed = signed;
     }
 
-    public static NoteName getNoteNameFromMidiValue(int midiValue) {
-        NoteName[] noteNames = NoteName.values();
+    private static NoteName[] createNoteNamesByMidi() {
+        NoteName[] noteNamesByMidi = new NoteName[MIDI_VALUE_COUNT];
+
+        for (NoteName noteName : VALUES) {
+            if (null == noteNamesByMidi[noteName.midi]) {
+                noteNamesByMidi[noteName.midi] = noteName;
+            }
+        }
+
+        return noteNamesByMidi;
+    }
+
+    private static int[] createStaffPositions() {
+        int[] staffPositions = new int[VALUES.length];
+        int staffPosition = 0;
 
-        for (int i = 0; i < noteNames.length; i++) {
-            if (noteNames[i].getMidi() == midiValue) {
-                return noteNames[i];
+        for (int i = 0; i < VALUES.length; i++) {
+            staffPositions[i] = staffPosition;
+
+            if (!VALUES[i].isSigned()) {
+                staffPosition++;
             }
         }
 
-        return DEFAULT_NOTE_NAME;
+        return staffPositions;
+    }
+
+    public static NoteName getNoteNameFromMidiValue(int midiValue) {
+        NoteName noteName = ((midiValue >= 0) && (midiValue < MIDI_VALUE_COUNT)) ? NOTE_NAMES_BY_MIDI[midiValue] : null;
+
+        return (null == noteName) ? DEFAULT_NOTE_NAME : noteName;
     }
 
     public static int calculateDistanceCountingNoneSignedNotesOnly(NoteName referenceNoteName, NoteName noteName) {
@@ -72,13 +98,7 @@ public enum NoteName {
             distance = -1;
         }
 
-        while (smallNoteName.getMidi() != largeNoteName.getMidi()) {
-            if (!smallNoteName.isSigned()) {
-                distance++;
-            }
-
-            smallNoteName = smallNoteName.next();
-        }
+        distance += STAFF_POSITIONS[largeNoteName.ordinal()] - STAFF_POSITIONS[smallNoteName.ordinal()];
 
         return (isDownGoing ? distance * (-1) : distance);
     }
@@ -94,11 +114,11 @@ public enum NoteName {
     public NoteName next() {
         int index = this.ordinal() + 1;
 
-        if (index >= values().length) {
+        if (index >= VALUES.length) {
             index--;
         }
 
-        return values()[index];
+        return VALUES[index];
     }
 
     public NoteName previous() {
@@ -108,7 +128,7 @@ public enum NoteName {
             index++;
         }
 
-        return values()[index];
+        return VALUES[index];
     }
 
     public boolean isSigned() {
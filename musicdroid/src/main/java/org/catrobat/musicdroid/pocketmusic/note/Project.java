@@ -24,7 +24,7 @@
 package org.catrobat.musicdroid.pocketmusic.note;
 
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Project implements Serializable {
@@ -37,12 +37,12 @@ public class Project implements Serializable {
 
     public Project(int beatsPerMinute) {
         this.beatsPerMinute = beatsPerMinute;
-        this.tracks = new LinkedList<Track>();
+        this.tracks = new ArrayList<Track>();
     }
 
     public Project(Project project) {
         beatsPerMinute = project.getBeatsPerMinute();
-        tracks = new LinkedList<Track>();
+        tracks = new ArrayList<Track>(project.size());
 
         for (int i = 0; i < project.size(); i++) {
             Track track = project.getTrack(i);
@@ -51,6 +51,16 @@ public class Project implements Serializable {
         }
     }
 
+    public Project createDetachedCopy() {
+        Project copy = new Project(beatsPerMinute);
+
+        for (Track track : tracks) {
+            copy.addTrack(track.createDetachedCopy());
+        }
+
+        return copy;
+    }
+
     public int getBeatsPerMinute() {
         return beatsPerMinute;
     }
@@ -67,6 +77,10 @@ public class Project implements Serializable {
         return tracks.get(location);
     }
 
+    public void setTrack(int location, Track track) {
+        tracks.set(location, track);
+    }
+
     public int size() {
         return tracks.size();
     }
@@ -23,25 +23,34 @@
 
 package org.catrobat.musicdroid.pocketmusic.note;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 public class Track implements Serializable {
 
-    private static final long serialVersionUID = 7483021689872527955L;
+    private static final long serialVersionUID = 7483021689872527958L;
+    private static final int INITIAL_TICK_CAPACITY = 16;
+    private static final int INITIAL_NOTE_EVENT_CAPACITY = 32;
 
     private MusicalInstrument instrument;
-    private HashMap<Long, List<NoteEvent>> events;
+    private transient NoteEventBuffer buffer;
+    private int tickCount;
+    private int size;
     private MusicalKey key;
     private int beatsPerMinute;
     private long lastTick;
 
     public Track(MusicalKey key, MusicalInstrument instrument, int beatsPerMinute) {
-        this.events = new HashMap<Long, List<NoteEvent>>();
+        this.buffer = new NoteEventBuffer(INITIAL_TICK_CAPACITY, INITIAL_NOTE_EVENT_CAPACITY);
+        this.tickCount = 0;
+        this.size = 0;
         this.instrument = instrument;
         this.key = key;
         this.beatsPerMinute = beatsPerMinute;
@@ -49,20 +58,26 @@ public class Track implements Serializable {
     }
 
     public Track(Track track) {
-        this.events = new HashMap<Long, List<NoteEvent>>();
+        track.buffer.shared = true;
+
+        this.buffer = track.buffer;
+        this.tickCount = track.tickCount;
+        this.size = track.size;
         this.instrument = track.getInstrument();
         this.key = track.getKey();
         this.beatsPerMinute = track.getBeatsPerMinute();
         this.lastTick = track.getLastTick();
+    }
 
-        for (long tick : track.getSortedTicks()) {
-            List<NoteEvent> noteEventList = new LinkedList<NoteEvent>();
-            this.events.put(tick, noteEventList);
+    public Track createDetachedCopy() {
+        Track copy = new Track(key, instrument, beatsPerMinute);
 
-            for (NoteEvent noteEvent : track.getNoteEventsForTick(tick)) {
-                noteEventList.add(new NoteEvent(noteEvent));
-            }
-        }
+        copy.buffer = buffer.copy(tickCount, size);
+        copy.tickCount = tickCount;
+        copy.size = size;
+        copy.lastTick = lastTick;
+
+        return copy;
     }
 
     public MusicalInstrument getInstrument() {
@@ -76,37 +91,114 @@ public class Track implements Serializable {
     public int getBeatsPerMinute() { return beatsPerMinute; }
 
     public void addNoteEvent(long tick, NoteEvent noteEvent) {
-        List<NoteEvent> noteEventList = null;
-
-        if (events.containsKey(tick)) {
-            noteEventList = events.get(tick);
+        if ((tickCount > 0) && (buffer.ticks[tickCount - 1] > tick)) {
+            insertNoteEvent(tick, noteEvent);
         } else {
-            noteEventList = new LinkedList<NoteEvent>();
-            events.put(tick, noteEventList);
+            appendNoteEvent(tick, noteEvent);
         }
 
         if (false == noteEvent.isNoteOn()) {
-            lastTick = tick;
+            lastTick = Math.max(lastTick, tick);
+        }
+    }
+
+    private void appendNoteEvent(long tick, NoteEvent noteEvent) {
+        if (false == buffer.isAppendableBy(this)) {
+            buffer = buffer.copy(tickCount, size);
+        }
+
+        buffer.ensureCapacity(tickCount + 1, size + 1);
+
+        if ((0 == tickCount) || (buffer.ticks[tickCount - 1] != tick)) {
+            buffer.ticks[tickCount] = tick;
+            buffer.tickStarts[tickCount] = size;
+            tickCount++;
+        }
+
+        buffer.noteEventCodes[size] = (short) noteEvent.toCode();
+        size++;
+
+        buffer.tickCount = tickCount;
+        buffer.size = size;
+    }
+
+    private void insertNoteEvent(long tick, NoteEvent noteEvent) {
+        if (buffer.shared || (false == buffer.isAppendableBy(this))) {
+            buffer = buffer.copy(tickCount, size);
+        }
+
+        buffer.ensureCapacity(tickCount + 1, size + 1);
+
+        int index = Arrays.binarySearch(buffer.ticks, 0, tickCount, tick);
+
+        if (index < 0) {
+            index = -(index + 1);
+
+            System.arraycopy(buffer.ticks, index, buffer.ticks, index + 1, tickCount - index);
+            System.arraycopy(buffer.tickStarts, index, buffer.tickStarts, index + 1, tickCount - index);
+            buffer.ticks[index] = tick;
+            tickCount++;
         }
 
-        noteEventList.add(noteEvent);
+        int position = getTickEnd(index);
+
+        System.arraycopy(buffer.noteEventCodes, position, buffer.noteEventCodes, position + 1, size - position);
+        buffer.noteEventCodes[position] = (short) noteEvent.toCode();
+        size++;
+
+        for (int i = index + 1; i < tickCount; i++) {
+            buffer.tickStarts[i]++;
+        }
+
+        buffer.tickCount = tickCount;
+        buffer.size = size;
+    }
+
+    private int getTickEnd(int index) {
+        return (index + 1 < tickCount) ? buffer.tickStarts[index + 1] : size;
+    }
+
+    private int indexOfTick(long tick) {
+        if ((tickCount > 0) && (buffer.ticks[tickCount - 1] == tick)) {
+            return tickCount - 1;
+        }
+
+        return Arrays.binarySearch(buffer.ticks, 0, tickCount, tick);
     }
 
     public List<NoteEvent> getNoteEventsForTick(long tick) {
-        return events.get(tick);
+        int index = indexOfTick(tick);
+
+        if (index < 0) {
+            return null;
+        }
+
+        return new NoteEventSlice(buffer.noteEventCodes, buffer.tickStarts[index], getTickEnd(index));
     }
 
     public Set<Long> getSortedTicks() {
-        return new TreeSet<Long>(events.keySet());
+        Set<Long> sortedTicks = new LinkedHashSet<Long>();
+
+        for (int i = 0; i < tickCount; i++) {
+            sortedTicks.add(buffer.ticks[i]);
+        }
+
+        return sortedTicks;
     }
 
-    public int size() {
-        int size = 0;
+    public int getTickCount() {
+        return tickCount;
+    }
 
-        for (List<NoteEvent> noteEventList : events.values()) {
-            size += noteEventList.size();
-        }
+    public TickIterator tickIterator() {
+        return new TickIterator(0);
+    }
 
+    public TickIterator tickIterator(int tickIndex) {
+        return new TickIterator(tickIndex);
+    }
+
+    public int size() {
         return size;
     }
 
@@ -140,27 +232,170 @@ public class Track implements Serializable {
             return false;
         }
 
-        Set<Long> ownTrackTicks = getSortedTicks();
-        Set<Long> otherTrackTicks = track.getSortedTicks();
+        if ((track.tickCount != tickCount) || (track.size != size)) {
+            return false;
+        }
 
-        if (otherTrackTicks.equals(ownTrackTicks)) {
-            for (long tick : ownTrackTicks) {
-                List<NoteEvent> ownNoteEventList = getNoteEventsForTick(tick);
-                List<NoteEvent> otherNoteEventList = track.getNoteEventsForTick(tick);
+        if (track.buffer == buffer) {
+            return true;
+        }
 
-                if (false == ownNoteEventList.equals(otherNoteEventList)) {
-                    return false;
-                }
+        for (int i = 0; i < tickCount; i++) {
+            if ((track.buffer.ticks[i] != buffer.ticks[i]) || (track.buffer.tickStarts[i] != buffer.tickStarts[i])) {
+                return false;
             }
+        }
 
-            return true;
+        for (int i = 0; i < size; i++) {
+            if (track.buffer.noteEventCodes[i] != buffer.noteEventCodes[i]) {
+                return false;
+            }
         }
 
-        return false;
+        return true;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+
+        for (int i = 0; i < tickCount; i++) {
+            out.writeLong(buffer.ticks[i]);
+            out.writeInt(buffer.tickStarts[i]);
+        }
+
+        for (int i = 0; i < size; i++) {
+            out.writeShort(buffer.noteEventCodes[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        buffer = new NoteEventBuffer(Math.max(tickCount, INITIAL_TICK_CAPACITY), Math.max(size, INITIAL_NOTE_EVENT_CAPACITY));
+
+        for (int i = 0; i < tickCount; i++) {
+            buffer.ticks[i] = in.readLong();
+            buffer.tickStarts[i] = in.readInt();
+        }
+
+        for (int i = 0; i < size; i++) {
+            buffer.noteEventCodes[i] = in.readShort();
+        }
+
+        buffer.tickCount = tickCount;
+        buffer.size = size;
     }
 
     @Override
     public String toString() {
         return "[Track] instrument=" + instrument + " key=" + key + " beatsPerMinute=" + beatsPerMinute + " size=" + size();
     }
+
+    private static class NoteEventBuffer {
+
+        private long[] ticks;
+        private int[] tickStarts;
+        private short[] noteEventCodes;
+        private int tickCount;
+        private int size;
+        private boolean shared;
+
+        public NoteEventBuffer(int tickCapacity, int noteEventCapacity) {
+            ticks = new long[tickCapacity];
+            tickStarts = new int[tickCapacity];
+            noteEventCodes = new short[noteEventCapacity];
+            tickCount = 0;
+            size = 0;
+            shared = false;
+        }
+
+        public boolean isAppendableBy(Track track) {
+            return (tickCount == track.tickCount) && (size == track.size);
+        }
+
+        public NoteEventBuffer copy(int tickCount, int size) {
+            NoteEventBuffer copy = new NoteEventBuffer(0, 0);
+
+            copy.ticks = Arrays.copyOf(ticks, Math.max(tickCount * 2, INITIAL_TICK_CAPACITY));
+            copy.tickStarts = Arrays.copyOf(tickStarts, copy.ticks.length);
+            copy.noteEventCodes = Arrays.copyOf(noteEventCodes, Math.max(size * 2, INITIAL_NOTE_EVENT_CAPACITY));
+            copy.tickCount = tickCount;
+            copy.size = size;
+
+            return copy;
+        }
+
+        public void ensureCapacity(int tickCapacity, int noteEventCapacity) {
+            if (tickCapacity > ticks.length) {
+                ticks = Arrays.copyOf(ticks, tickCapacity * 2);
+                tickStarts = Arrays.copyOf(tickStarts, ticks.length);
+            }
+
+            if (noteEventCapacity > noteEventCodes.length) {
+                noteEventCodes = Arrays.copyOf(noteEventCodes, noteEventCapacity * 2);
+            }
+        }
+    }
+
+    private static class NoteEventSlice extends AbstractList<NoteEvent> {
+
+        private final short[] noteEventCodes;
+        private final int start;
+        private final int end;
+
+        public NoteEventSlice(short[] noteEventCodes, int start, int end) {
+            this.noteEventCodes = noteEventCodes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public NoteEvent get(int location) {
+            if ((location < 0) || (location >= size())) {
+                throw new IndexOutOfBoundsException("Invalid location: " + location);
+            }
+
+            return NoteEvent.fromCode(noteEventCodes[start + location]);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+
+    public final class TickIterator {
+
+        private int index;
+
+        private TickIterator(int tickIndex) {
+            index = tickIndex - 1;
+        }
+
+        public boolean hasNext() {
+            return (index + 1) < tickCount;
+        }
+
+        public long next() {
+            index++;
+
+            return buffer.ticks[index];
+        }
+
+        public int getNoteEventCount() {
+            return getTickEnd(index) - buffer.tickStarts[index];
+        }
+
+        public int getNoteEventCode(int location) {
+            return buffer.noteEventCodes[buffer.tickStarts[index] + location];
+        }
+
+        public NoteEvent getNoteEvent(int location) {
+            return NoteEvent.fromCode(getNoteEventCode(location));
+        }
+
+        public List<NoteEvent> getNoteEvents() {
+            return new NoteEventSlice(buffer.noteEventCodes, buffer.tickStarts[index], getTickEnd(index));
+        }
+    }
 }
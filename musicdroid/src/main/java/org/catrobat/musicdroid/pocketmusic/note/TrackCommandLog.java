@@ -0,0 +1,315 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TrackCommandLog implements Serializable {
+
+    public static final int DEFAULT_BYTE_BUDGET = 128 * 1024;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 32;
+
+    private static final long serialVersionUID = 7481421611372527769L;
+
+    private static final short CLEAR_COMMAND_CODE = -1;
+    private static final int BYTES_PER_COMMAND = 10;
+    private static final int BYTES_PER_UNDO_POINT = 4;
+    private static final int TRIM_PERCENTAGE = 75;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int byteBudget;
+    private final int checkpointInterval;
+
+    private Track baseTrack;
+    private transient long[] commandTicks;
+    private transient short[] commandCodes;
+    private int commandCount;
+    private int appliedCommandCount;
+    private transient int[] undoPoints;
+    private int undoPointCount;
+    private int activeUndoPointCount;
+
+    private transient List<Checkpoint> checkpoints;
+
+    public TrackCommandLog(Track baseTrack) {
+        this(baseTrack, DEFAULT_BYTE_BUDGET, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public TrackCommandLog(Track baseTrack, int byteBudget, int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+
+        this.byteBudget = byteBudget;
+        this.checkpointInterval = checkpointInterval;
+
+        reset(baseTrack);
+    }
+
+    public void reset(Track track) {
+        baseTrack = new Track(track);
+        commandTicks = new long[INITIAL_CAPACITY];
+        commandCodes = new short[INITIAL_CAPACITY];
+        commandCount = 0;
+        appliedCommandCount = 0;
+        undoPoints = new int[INITIAL_CAPACITY];
+        undoPointCount = 0;
+        activeUndoPointCount = 0;
+        checkpoints = null;
+    }
+
+    public void beginUndoPoint(Track currentTrack) {
+        discardRedo();
+
+        if (undoPointCount == undoPoints.length) {
+            undoPoints = Arrays.copyOf(undoPoints, undoPointCount * 2);
+        }
+
+        undoPoints[undoPointCount] = commandCount;
+        undoPointCount++;
+        activeUndoPointCount = undoPointCount;
+
+        if (0 == undoPointCount % checkpointInterval) {
+            getCheckpoints().add(new Checkpoint(commandCount, currentTrack));
+        }
+    }
+
+    public void logAddNoteEvent(long tick, NoteEvent noteEvent) {
+        logCommand(tick, (short) noteEvent.toCode());
+    }
+
+    public void logClear() {
+        logCommand(0, CLEAR_COMMAND_CODE);
+    }
+
+    private void logCommand(long tick, short code) {
+        discardRedo();
+
+        if (commandCount == commandTicks.length) {
+            commandTicks = Arrays.copyOf(commandTicks, commandCount * 2);
+            commandCodes = Arrays.copyOf(commandCodes, commandTicks.length);
+        }
+
+        commandTicks[commandCount] = tick;
+        commandCodes[commandCount] = code;
+        commandCount++;
+        appliedCommandCount = commandCount;
+
+        if (getByteSize() > byteBudget) {
+            trimToByteSize(byteBudget * TRIM_PERCENTAGE / 100);
+        }
+    }
+
+    private void discardRedo() {
+        if (activeUndoPointCount == undoPointCount) {
+            return;
+        }
+
+        commandCount = appliedCommandCount;
+        undoPointCount = activeUndoPointCount;
+
+        List<Checkpoint> checkpointList = getCheckpoints();
+
+        while (checkpointList.get(checkpointList.size() - 1).commandIndex > commandCount) {
+            checkpointList.remove(checkpointList.size() - 1);
+        }
+    }
+
+    public Track undo() {
+        if (false == canUndo()) {
+            return null;
+        }
+
+        activeUndoPointCount--;
+        appliedCommandCount = undoPoints[activeUndoPointCount];
+
+        return replay(appliedCommandCount);
+    }
+
+    public Track redo() {
+        if (false == canRedo()) {
+            return null;
+        }
+
+        activeUndoPointCount++;
+
+        if (activeUndoPointCount < undoPointCount) {
+            appliedCommandCount = undoPoints[activeUndoPointCount];
+        } else {
+            appliedCommandCount = commandCount;
+        }
+
+        return replay(appliedCommandCount);
+    }
+
+    public boolean canUndo() {
+        return activeUndoPointCount > 0;
+    }
+
+    public boolean canRedo() {
+        return activeUndoPointCount < undoPointCount;
+    }
+
+    public int size() {
+        return activeUndoPointCount;
+    }
+
+    public int redoSize() {
+        return undoPointCount - activeUndoPointCount;
+    }
+
+    public long getByteSize() {
+        return (long) commandCount * BYTES_PER_COMMAND
+                + (long) undoPointCount * BYTES_PER_UNDO_POINT;
+    }
+
+    private Track replay(int commandIndex) {
+        Checkpoint checkpoint = findCheckpoint(commandIndex);
+        Track track = new Track(checkpoint.track);
+
+        for (int i = checkpoint.commandIndex; i < commandIndex; i++) {
+            if (CLEAR_COMMAND_CODE == commandCodes[i]) {
+                track = new Track(track.getKey(), track.getInstrument(), track.getBeatsPerMinute());
+            } else {
+                track.addNoteEvent(commandTicks[i], NoteEvent.fromCode(commandCodes[i]));
+            }
+        }
+
+        return track;
+    }
+
+    private Checkpoint findCheckpoint(int commandIndex) {
+        List<Checkpoint> checkpointList = getCheckpoints();
+
+        for (int i = checkpointList.size() - 1; i > 0; i--) {
+            if (checkpointList.get(i).commandIndex <= commandIndex) {
+                return checkpointList.get(i);
+            }
+        }
+
+        return checkpointList.get(0);
+    }
+
+    private void trimToByteSize(int targetByteSize) {
+        int droppedUndoPoints = 1;
+
+        while ((droppedUndoPoints < activeUndoPointCount - 1) && (estimateByteSizeAfterDropping(droppedUndoPoints) > targetByteSize)) {
+            droppedUndoPoints++;
+        }
+
+        if (droppedUndoPoints >= activeUndoPointCount) {
+            return;
+        }
+
+        int offset = undoPoints[droppedUndoPoints];
+        Track newBaseTrack = replay(offset);
+
+        System.arraycopy(commandTicks, offset, commandTicks, 0, commandCount - offset);
+        System.arraycopy(commandCodes, offset, commandCodes, 0, commandCount - offset);
+        commandCount -= offset;
+        appliedCommandCount -= offset;
+
+        for (int i = droppedUndoPoints; i < undoPointCount; i++) {
+            undoPoints[i - droppedUndoPoints] = undoPoints[i] - offset;
+        }
+
+        undoPointCount -= droppedUndoPoints;
+        activeUndoPointCount -= droppedUndoPoints;
+
+        List<Checkpoint> newCheckpoints = new ArrayList<Checkpoint>();
+        newCheckpoints.add(new Checkpoint(0, newBaseTrack));
+
+        for (Checkpoint checkpoint : getCheckpoints()) {
+            if (checkpoint.commandIndex > offset) {
+                newCheckpoints.add(new Checkpoint(checkpoint.commandIndex - offset, checkpoint.track));
+            }
+        }
+
+        baseTrack = newBaseTrack;
+        checkpoints = newCheckpoints;
+    }
+
+    private long estimateByteSizeAfterDropping(int droppedUndoPoints) {
+        int offset = undoPoints[droppedUndoPoints];
+
+        return (long) (commandCount - offset) * BYTES_PER_COMMAND
+                + (long) (undoPointCount - droppedUndoPoints) * BYTES_PER_UNDO_POINT;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+
+        for (int i = 0; i < commandCount; i++) {
+            out.writeLong(commandTicks[i]);
+            out.writeShort(commandCodes[i]);
+        }
+
+        for (int i = 0; i < undoPointCount; i++) {
+            out.writeInt(undoPoints[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        commandTicks = new long[Math.max(commandCount, INITIAL_CAPACITY)];
+        commandCodes = new short[commandTicks.length];
+        undoPoints = new int[Math.max(undoPointCount, INITIAL_CAPACITY)];
+
+        for (int i = 0; i < commandCount; i++) {
+            commandTicks[i] = in.readLong();
+            commandCodes[i] = in.readShort();
+        }
+
+        for (int i = 0; i < undoPointCount; i++) {
+            undoPoints[i] = in.readInt();
+        }
+    }
+
+    private List<Checkpoint> getCheckpoints() {
+        if (null == checkpoints) {
+            checkpoints = new ArrayList<Checkpoint>();
+            checkpoints.add(new Checkpoint(0, baseTrack));
+        }
+
+        return checkpoints;
+    }
+
+    private static class Checkpoint {
+
+        private final int commandIndex;
+        private final Track track;
+
+        public Checkpoint(int commandIndex, Track track) {
+            this.commandIndex = commandIndex;
+            this.track = new Track(track);
+        }
+    }
+}
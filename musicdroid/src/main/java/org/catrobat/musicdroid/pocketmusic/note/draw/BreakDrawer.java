@@ -27,7 +27,6 @@ import android.content.res.Resources;
 import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.Rect;
-import android.graphics.RectF;
 
 import org.catrobat.musicdroid.pocketmusic.R;
 import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
@@ -42,11 +41,13 @@ public class BreakDrawer extends SymbolDrawer {
     public static final int SIXTEENTH_BREAK_HEIGHT = 4;
 
     private SymbolDotDrawer symbolDotDrawer;
+    private Rect breakRect;
 
     public BreakDrawer(NoteSheetCanvas noteSheetCanvas, Paint paint, Resources resources, MusicalKey key, NoteSheetDrawPosition drawPosition, int distanceBetweenLines) {
         super(noteSheetCanvas, paint, resources, key, drawPosition, distanceBetweenLines);
 
         symbolDotDrawer = new SymbolDotDrawer(noteSheetCanvas, distanceBetweenLines);
+        breakRect = new Rect();
     }
 
     @Override
@@ -71,7 +72,7 @@ public class BreakDrawer extends SymbolDrawer {
             symbolDotDrawer.drawDot(breakRect, paint);
         }
 
-        return new SymbolPosition(new RectF(breakRect.left, breakRect.top, breakRect.right, breakRect.bottom));
+        return new SymbolPosition(breakRect.left, breakRect.top, breakRect.right, breakRect.bottom);
     }
 
     private Rect drawBreakBitmap(NoteLength noteLength) {
@@ -91,14 +92,13 @@ public class BreakDrawer extends SymbolDrawer {
 
         int startXPositionBreak = getCenterPointForNextSymbol().x;
 
-        Rect breakRect = noteSheetCanvas.drawBitmap(resources, breakId, breakHeight, startXPositionBreak, noteSheetCanvas.getHeightHalf());
-        drawPosition.setStartXPositionForNextElement(breakRect.right);
+        Rect bitmapRect = noteSheetCanvas.drawBitmap(resources, breakId, breakHeight, startXPositionBreak, noteSheetCanvas.getHeightHalf());
+        drawPosition.setStartXPositionForNextElement(bitmapRect.right);
 
-        return breakRect;
+        return bitmapRect;
     }
 
     private Rect drawBreakBar(NoteLength noteLength, Paint paint) {
-        Rect breakRect = new Rect();
         Point centerPoint = getCenterPointForNextSymbol();
         int breakWidthHalf = distanceBetweenLines / 2;
 
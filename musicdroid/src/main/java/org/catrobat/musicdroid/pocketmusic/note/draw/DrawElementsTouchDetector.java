@@ -23,6 +23,8 @@
 
 package org.catrobat.musicdroid.pocketmusic.note.draw;
 
+import android.graphics.RectF;
+
 import java.util.List;
 
 public class DrawElementsTouchDetector {
@@ -30,14 +32,24 @@ public class DrawElementsTouchDetector {
     public static final int INVALID_INDEX = -1;
 
     public int getIndexOfTouchedDrawElement(List<SymbolPosition> drawElements, float x, float y) {
-        for (int i = 0; i < drawElements.size(); i++) {
-            SymbolPosition element = drawElements.get(i);
+        int i = 0;
 
+        for (SymbolPosition element : drawElements) {
             if ((element.getLeft() <= x) && (element.getRight() >= x) && (element.getTop() <= y) && (element.getBottom() >= y)) {
                 return i;
             }
+
+            i++;
         }
 
         return INVALID_INDEX;
     }
+
+    public int getIndexOfTouchedDrawElement(SymbolPositionIndex drawElements, float x, float y) {
+        return drawElements.getIndexAt(x, y);
+    }
+
+    public List<Integer> getIndicesOfDrawElementsInRect(SymbolPositionIndex drawElements, RectF rect) {
+        return drawElements.getIndicesInRect(rect.left, rect.top, rect.right, rect.bottom);
+    }
 }
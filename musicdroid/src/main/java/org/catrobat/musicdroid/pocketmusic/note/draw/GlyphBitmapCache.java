@@ -0,0 +1,108 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.LruCache;
+
+public class GlyphBitmapCache {
+
+    private static final int MEMORY_CLASS_DIVIDOR = 16;
+    private static final int BITS_PER_INT = 32;
+
+    private static GlyphBitmapCache instance;
+
+    private LruCache<Long, Bitmap> bitmaps;
+
+    protected GlyphBitmapCache(int maxSizeInBytes) {
+        bitmaps = new LruCache<Long, Bitmap>(maxSizeInBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    public static synchronized GlyphBitmapCache getInstance() {
+        if (null == instance) {
+            instance = new GlyphBitmapCache((int) (Runtime.getRuntime().maxMemory() / MEMORY_CLASS_DIVIDOR));
+        }
+
+        return instance;
+    }
+
+    public static Long createKey(int bitmapId, int bitmapHeight) {
+        return ((long) bitmapId << BITS_PER_INT) | (bitmapHeight & 0xFFFFFFFFL);
+    }
+
+    public Bitmap getBitmap(Resources resources, int bitmapId, int bitmapHeight) {
+        return getBitmap(resources, bitmapId, bitmapHeight, createKey(bitmapId, bitmapHeight));
+    }
+
+    public Bitmap getBitmap(Resources resources, int bitmapId, int bitmapHeight, Long key) {
+        Bitmap bitmap = bitmaps.get(key);
+
+        if (null == bitmap) {
+            bitmap = decodeScaledBitmap(resources, bitmapId, bitmapHeight);
+            bitmaps.put(key, bitmap);
+        }
+
+        return bitmap;
+    }
+
+    private Bitmap decodeScaledBitmap(Resources resources, int bitmapId, int bitmapHeight) {
+        Bitmap originalBitmap = BitmapFactory.decodeResource(resources, bitmapId);
+
+        int height = Math.max(1, bitmapHeight);
+        int width = Math.max(1, originalBitmap.getWidth() * height / originalBitmap.getHeight());
+
+        if ((originalBitmap.getWidth() == width) && (originalBitmap.getHeight() == height)) {
+            return originalBitmap;
+        }
+
+        Bitmap scaledBitmap = Bitmap.createScaledBitmap(originalBitmap, width, height, true);
+        originalBitmap.recycle();
+
+        return scaledBitmap;
+    }
+
+    public int getSizeInBytes() {
+        return bitmaps.size();
+    }
+
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            bitmaps.trimToSize(bitmaps.maxSize() / 2);
+        }
+    }
+
+    public void clear() {
+        bitmaps.evictAll();
+    }
+}
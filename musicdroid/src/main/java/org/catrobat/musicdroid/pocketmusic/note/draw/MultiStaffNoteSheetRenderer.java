@@ -0,0 +1,242 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.WorkerPool;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MultiStaffNoteSheetRenderer {
+
+    public interface OnLayoutCompletedListener {
+
+        void onLayoutCompleted();
+    }
+
+    private static final int COLOR_SELECTED_STAFF = 0x20FF0000;
+
+    private final Resources resources;
+    private final Executor workerExecutor;
+    private final Executor uiExecutor;
+    private final Rect selectedStaffBounds;
+    private final Paint selectedStaffPaint;
+
+    private StaffLayout[] staffLayouts;
+    private Track[] staffTracks;
+    private int[] staffTrackSizes;
+    private int staffWidth;
+    private int staffHeight;
+    private int width;
+
+    private boolean layoutValid;
+    private int layoutGeneration;
+    private int publishedGeneration;
+    private int requestedWidth;
+    private int requestedHeight;
+    private Rect clipBounds;
+    private int selectedStaff;
+
+    public MultiStaffNoteSheetRenderer(Resources resources, Executor uiExecutor) {
+        this(resources, WorkerPool.getInstance(), uiExecutor);
+    }
+
+    public MultiStaffNoteSheetRenderer(Resources resources, Executor workerExecutor, Executor uiExecutor) {
+        this.resources = resources;
+        this.workerExecutor = workerExecutor;
+        this.uiExecutor = uiExecutor;
+
+        staffLayouts = new StaffLayout[0];
+        staffTracks = new Track[0];
+        staffTrackSizes = new int[0];
+        clipBounds = new Rect();
+        staffWidth = 0;
+        staffHeight = 0;
+        width = 0;
+
+        layoutValid = false;
+        layoutGeneration = 0;
+        publishedGeneration = 0;
+        requestedWidth = 0;
+        requestedHeight = 0;
+
+        selectedStaff = -1;
+        selectedStaffBounds = new Rect();
+        selectedStaffPaint = new Paint();
+        selectedStaffPaint.setColor(COLOR_SELECTED_STAFF);
+    }
+
+    public void invalidateLayout() {
+        layoutValid = false;
+    }
+
+    public void setSelectedStaff(int selectedStaff) {
+        this.selectedStaff = selectedStaff;
+    }
+
+    public int getSelectedStaff() {
+        return selectedStaff;
+    }
+
+    public int getWidthForDrawingTrack() {
+        return width;
+    }
+
+    public int getStaffCount() {
+        return staffLayouts.length;
+    }
+
+    public int getStaffHeight() {
+        return staffHeight;
+    }
+
+    public boolean isLayoutPending() {
+        return (false == layoutValid) || (publishedGeneration != layoutGeneration);
+    }
+
+    public void drawNoteSheet(NoteSheetCanvas noteSheetCanvas, Project project, OnLayoutCompletedListener listener) {
+        int canvasWidth = noteSheetCanvas.getWidth();
+        int canvasHeight = noteSheetCanvas.getHeight();
+
+        if ((false == layoutValid) || (requestedWidth != canvasWidth) || (requestedHeight != canvasHeight)) {
+            requestLayout(project, canvasWidth, canvasHeight, listener);
+        }
+
+        noteSheetCanvas.getClipBounds(clipBounds);
+
+        for (int i = 0; i < staffLayouts.length; i++) {
+            noteSheetCanvas.save();
+            noteSheetCanvas.translate(0, i * staffHeight);
+
+            if ((i == selectedStaff) && (staffLayouts.length > 1)) {
+                selectedStaffBounds.set(clipBounds.left, 0, clipBounds.right, staffHeight);
+                noteSheetCanvas.drawRect(selectedStaffBounds, selectedStaffPaint);
+            }
+
+            staffLayouts[i].draw(noteSheetCanvas, clipBounds);
+            noteSheetCanvas.restore();
+        }
+    }
+
+    private void requestLayout(Project project, int canvasWidth, int canvasHeight, final OnLayoutCompletedListener listener) {
+        final int generation = ++layoutGeneration;
+        final int trackCount = project.size();
+        final int height = (trackCount > 0) ? canvasHeight / trackCount : canvasHeight;
+        final StaffLayout[] layouts = new StaffLayout[trackCount];
+        final Track[] tracks = new Track[trackCount];
+        final int[] trackSizes = new int[trackCount];
+        int changedTrackCount = 0;
+
+        layoutValid = true;
+        requestedWidth = canvasWidth;
+        requestedHeight = canvasHeight;
+
+        for (int i = 0; i < trackCount; i++) {
+            tracks[i] = project.getTrack(i);
+            trackSizes[i] = tracks[i].size();
+
+            if (isStaffUpToDate(i, tracks[i], canvasWidth, height)) {
+                layouts[i] = staffLayouts[i];
+            } else {
+                changedTrackCount++;
+            }
+        }
+
+        if (0 == changedTrackCount) {
+            publishLayout(generation, layouts, tracks, trackSizes, canvasWidth, height, listener);
+            return;
+        }
+
+        final AtomicInteger pendingTracks = new AtomicInteger(changedTrackCount);
+
+        for (int i = 0; i < trackCount; i++) {
+            if (null != layouts[i]) {
+                continue;
+            }
+
+            final int index = i;
+            final Track track = tracks[i].createDetachedCopy();
+            final int width = canvasWidth;
+
+            workerExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        layouts[index] = StaffLayout.layoutTrack(resources, track, width, height);
+                    } finally {
+                        if (0 == pendingTracks.decrementAndGet()) {
+                            publishLayout(generation, layouts, tracks, trackSizes, width, height, listener);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private boolean isStaffUpToDate(int index, Track track, int canvasWidth, int height) {
+        return (index < staffLayouts.length) && (staffTracks[index] == track) && (staffTrackSizes[index] == track.size())
+                && (staffWidth == canvasWidth) && (staffHeight == height);
+    }
+
+    private void publishLayout(final int generation, final StaffLayout[] layouts, final Track[] tracks, final int[] trackSizes,
+                               final int canvasWidth, final int height, final OnLayoutCompletedListener listener) {
+        uiExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != layoutGeneration) {
+                    return;
+                }
+
+                int maxWidth = 0;
+
+                for (StaffLayout layout : layouts) {
+                    if (null == layout) {
+                        layoutValid = false;
+                        return;
+                    }
+
+                    maxWidth = Math.max(maxWidth, layout.getWidth());
+                }
+
+                publishedGeneration = generation;
+                staffLayouts = layouts;
+                staffTracks = tracks;
+                staffTrackSizes = trackSizes;
+                staffWidth = canvasWidth;
+                staffHeight = height;
+                width = maxWidth;
+
+                if (null != listener) {
+                    listener.onLayoutCompleted();
+                }
+            }
+        });
+    }
+}
@@ -43,6 +43,8 @@ public final class NoteBodyDrawer {
     private NoteSheetCanvas noteSheetCanvas;
     private MusicalKey key;
     private int distanceBetweenLines;
+    private RectF noteRect;
+    private Rect roundedNoteRect;
 
 	public NoteBodyDrawer(SymbolDrawer symbolDrawer, NoteSheetCanvas noteSheetCanvas, MusicalKey key, int distanceBetweenLines) {
         this.symbolDrawer = symbolDrawer;
@@ -50,6 +52,8 @@ public final class NoteBodyDrawer {
         this.noteSheetCanvas = noteSheetCanvas;
         this.key = key;
         this.distanceBetweenLines = distanceBetweenLines;
+        noteRect = new RectF();
+        roundedNoteRect = new Rect();
 	}
 
 	public SymbolPosition drawBody(NoteSymbol noteSymbol, Paint paint) {
@@ -60,19 +64,19 @@ public final class NoteBodyDrawer {
 
 		Point centerPointOfSpaceForNote = symbolDrawer.getCenterPointForNextSymbol();
         List<NoteName> sortedNoteNames = noteSymbol.getNoteNamesSorted();
-		RectF[] noteSurroundingRects = new RectF[sortedNoteNames.size()];
+		SymbolPosition symbolPosition = null;
 		NoteName prevNoteName = null;
 
 		for (int i = 0; i < sortedNoteNames.size(); i++) {
             NoteName noteName = sortedNoteNames.get(i);
             NoteLength noteLength = noteSymbol.getNoteLength(noteName);
-			Point centerPointOfActualNote = new Point(centerPointOfSpaceForNote);
-			centerPointOfActualNote.y += NoteName.calculateDistanceToMiddleLineCountingSignedNotesOnly(key, noteName)
-					* noteHeight;
-			int left = centerPointOfActualNote.x - noteWidth;
-			int top = centerPointOfActualNote.y - noteHeight;
-			int right = centerPointOfActualNote.x + noteWidth;
-			int bottom = centerPointOfActualNote.y + noteHeight;
+			int centerXOfActualNote = centerPointOfSpaceForNote.x;
+			int centerYOfActualNote = centerPointOfSpaceForNote.y
+					+ NoteName.calculateDistanceToMiddleLineCountingSignedNotesOnly(key, noteName) * noteHeight;
+			int left = centerXOfActualNote - noteWidth;
+			int top = centerYOfActualNote - noteHeight;
+			int right = centerXOfActualNote + noteWidth;
+			int bottom = centerYOfActualNote + noteHeight;
 
 			if (prevNoteName != null) {
 				int differenceBetweenNotesInHalfTones = Math.abs(NoteName.calculateDistanceCountingNoneSignedNotesOnly(
@@ -89,9 +93,14 @@ public final class NoteBodyDrawer {
 				}
 			}
 
-			RectF noteRect = new RectF(left, top, right, bottom);
+			noteRect.set(left, top, right, bottom);
+
+			if (null == symbolPosition) {
+				symbolPosition = new SymbolPosition(left, top, right, bottom);
+			} else {
+				symbolPosition.union(left, top, right, bottom);
+			}
 
-			noteSurroundingRects[i] = noteRect;
             Paint.Style savedStyle = paint.getStyle();
 
             if (noteLength.isFilled()) {
@@ -104,14 +113,13 @@ public final class NoteBodyDrawer {
             paint.setStyle(savedStyle);
 
             if (noteLength.hasDot()) {
-                Rect roundedNoteRect = new Rect();
                 noteRect.roundOut(roundedNoteRect);
-                symbolDotDrawer.drawDot(new Rect(roundedNoteRect), paint);
+                symbolDotDrawer.drawDot(roundedNoteRect, paint);
             }
 
 			prevNoteName = noteName;
 		}
 
-		return new SymbolPosition(noteSurroundingRects);
+		return symbolPosition;
 	}
 }
@@ -31,6 +31,8 @@ import org.catrobat.musicdroid.pocketmusic.note.NoteName;
 import org.catrobat.musicdroid.pocketmusic.note.symbol.NoteSymbol;
 import org.catrobat.musicdroid.pocketmusic.note.symbol.Symbol;
 
+import java.util.List;
+
 public class NoteDrawer extends SymbolDrawer {
 
     private NoteCrossDrawer noteCrossDrawer;
@@ -58,18 +60,23 @@ public class NoteDrawer extends SymbolDrawer {
         drawHelpLines(bodyPosition, paint);
 
         if (noteSymbol.hasStem()) {
-            return new SymbolPosition(bodyPosition.toRectF(), stemRect);
-        } else {
-            return new SymbolPosition(bodyPosition.toRectF());
+            bodyPosition.union(stemRect.left, stemRect.top, stemRect.right, stemRect.bottom);
         }
+
+        return bodyPosition;
     }
 
     protected void drawCross(NoteSymbol noteSymbol) {
-        Integer xPositionForCross = null;
+        List<NoteName> sortedNoteNames = noteSymbol.getNoteNamesSorted();
+        boolean crossPositionCalculated = false;
+        int xPositionForCross = 0;
+
+        for (int i = 0; i < sortedNoteNames.size(); i++) {
+            NoteName noteName = sortedNoteNames.get(i);
 
-        for (NoteName noteName : noteSymbol.getNoteNamesSorted()) {
             if (noteName.isSigned()) {
-                if (xPositionForCross == null) {
+                if (false == crossPositionCalculated) {
+                    crossPositionCalculated = true;
                     xPositionForCross = getCenterPointForNextSmallSymbol().x;
                 }
 
@@ -35,10 +35,23 @@ public class NoteFlagDrawer {
 
     private NoteSheetCanvas noteSheetCanvas;
     private int distanceBetweenLines;
+    private Path stemUpFlagPath;
+    private Path stemDownFlagPath;
+    private Path flagPath;
 
     public NoteFlagDrawer(NoteSheetCanvas noteSheetCanvas, int distanceBetweenLines) {
         this.noteSheetCanvas = noteSheetCanvas;
         this.distanceBetweenLines = distanceBetweenLines;
+
+        stemUpFlagPath = new Path();
+        stemUpFlagPath.moveTo(0, 0);
+        stemUpFlagPath.cubicTo(0, 3 * distanceBetweenLines / 2, distanceBetweenLines * 2, distanceBetweenLines * 2, distanceBetweenLines / 2, distanceBetweenLines * 3);
+
+        stemDownFlagPath = new Path();
+        stemDownFlagPath.moveTo(0, 0);
+        stemDownFlagPath.cubicTo(0, -distanceBetweenLines, distanceBetweenLines * 2, -distanceBetweenLines * 2, distanceBetweenLines, -distanceBetweenLines * 2 - distanceBetweenLines / 2);
+
+        flagPath = new Path();
     }
 
     public void drawFlag(PointF endPointOfNoteStem, NoteSymbol noteSymbol, MusicalKey key, Paint paint) {
@@ -62,18 +75,9 @@ public class NoteFlagDrawer {
     }
 
     private void drawBezierPath(PointF endPointOfNoteStem, boolean isStemUp, Paint paint) {
-        float xPosition = endPointOfNoteStem.x;
-        float yPosition = endPointOfNoteStem.y;
-
-        Path bezierPath = new Path();
-        bezierPath.moveTo(xPosition, yPosition);
-
-        if (isStemUp) {
-            bezierPath.cubicTo(xPosition, yPosition + 3 * distanceBetweenLines / 2, xPosition + distanceBetweenLines * 2, yPosition + distanceBetweenLines * 2, xPosition + distanceBetweenLines / 2, yPosition + distanceBetweenLines * 3);
-        } else {
-            bezierPath.cubicTo(xPosition, yPosition - distanceBetweenLines, xPosition + distanceBetweenLines * 2, yPosition - distanceBetweenLines * 2, xPosition + distanceBetweenLines, yPosition - distanceBetweenLines * 2 - distanceBetweenLines / 2);
-        }
+        Path cachedFlagPath = isStemUp ? stemUpFlagPath : stemDownFlagPath;
 
-        noteSheetCanvas.drawPath(bezierPath, paint);
+        cachedFlagPath.offset(endPointOfNoteStem.x, endPointOfNoteStem.y, flagPath);
+        noteSheetCanvas.drawPath(flagPath, paint);
     }
 }
@@ -24,20 +24,24 @@ package org.catrobat.musicdroid.pocketmusic.note.draw;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
-import android.graphics.Point;
 import android.graphics.Rect;
 import android.graphics.RectF;
 
 public class NoteSheetCanvas {
 
     private Canvas canvas;
+    private Rect bitmapRect;
 
     public NoteSheetCanvas(Canvas canvas) {
         this.canvas = canvas;
+        bitmapRect = new Rect();
+    }
+
+    public void setCanvas(Canvas canvas) {
+        this.canvas = canvas;
     }
 
     public int getHeightHalf() {
@@ -67,21 +71,51 @@ public class NoteSheetCanvas {
     public void drawPath(Path path, Paint paint) { canvas.drawPath(path, paint); }
 
     public Rect drawBitmap(Resources resources, int bitmapId, int bitmapHeight, int xPosition, int yPosition) {
-        Bitmap bitmap = BitmapFactory.decodeResource(resources, bitmapId);
+        Bitmap bitmap = GlyphBitmapCache.getInstance().getBitmap(resources, bitmapId, bitmapHeight);
 
-        Rect rect = calculateProportionalRect(bitmap, bitmapHeight, xPosition, yPosition);
+        calculateProportionalRect(bitmap, bitmapHeight, xPosition, yPosition, bitmapRect);
+        drawBitmap(bitmap, bitmapRect);
 
+        return bitmapRect;
+    }
+
+    public void drawBitmap(Bitmap bitmap, Rect rect) {
         canvas.drawBitmap(bitmap, null, rect, null);
+    }
 
-        return rect;
+    public void save() {
+        canvas.save();
+    }
+
+    public void translate(float dx, float dy) {
+        canvas.translate(dx, dy);
+    }
+
+    public void restore() {
+        canvas.restore();
+    }
+
+    public Rect getClipBounds() {
+        Rect clipBounds = new Rect();
+        getClipBounds(clipBounds);
+
+        return clipBounds;
+    }
+
+    public void getClipBounds(Rect clipBounds) {
+        canvas.getClipBounds(clipBounds);
     }
 
     protected Rect calculateProportionalRect(Bitmap originalPicture, int height, int startXPosition, int yCenterPosition) {
-        int keyPictureWidth = originalPicture.getWidth() * height / originalPicture.getHeight();
+        Rect rect = new Rect();
+        calculateProportionalRect(originalPicture, height, startXPosition, yCenterPosition, rect);
 
-        Point leftUpperOfRect = new Point(startXPosition, yCenterPosition - height / 2);
-        Point rightBottomOfRect = new Point(startXPosition + keyPictureWidth, yCenterPosition + height / 2);
+        return rect;
+    }
+
+    protected void calculateProportionalRect(Bitmap originalPicture, int height, int startXPosition, int yCenterPosition, Rect rect) {
+        int keyPictureWidth = originalPicture.getWidth() * height / originalPicture.getHeight();
 
-        return new Rect(leftUpperOfRect.x, leftUpperOfRect.y, rightBottomOfRect.x, rightBottomOfRect.y);
+        rect.set(startXPosition, yCenterPosition - height / 2, startXPosition + keyPictureWidth, yCenterPosition + height / 2);
     }
 }
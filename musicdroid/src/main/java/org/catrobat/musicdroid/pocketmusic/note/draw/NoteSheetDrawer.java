@@ -60,6 +60,7 @@ public class NoteSheetDrawer {
     protected int yPositionOfBarBottom;
 
     private SymbolsDrawer symbolsDrawer;
+    private Rect boldBar;
 
     public NoteSheetDrawer(NoteSheetCanvas noteSheetCanvas, Resources resources, List<Symbol> symbols, MusicalKey key) {
         this.noteSheetCanvas = noteSheetCanvas;
@@ -74,9 +75,10 @@ public class NoteSheetDrawer {
         yPositionOfBarBottom = noteSheetCanvas.getHeightHalf() + NUMBER_OF_LINES_FROM_CENTER_LINE_IN_BOTH_DIRECTIONS * distanceBetweenLines;
 
         symbolsDrawer = new SymbolsDrawer(noteSheetCanvas, paint, resources, symbols, key, drawPosition, distanceBetweenLines);
+        boldBar = new Rect();
     }
 
-    private Paint createPaint() {
+    public static Paint createPaint() {
         Paint paint = new Paint();
 
         paint.setColor(COLOR_DEFAULT);
@@ -121,7 +123,7 @@ public class NoteSheetDrawer {
 
     private void drawBar(int startXPositionBar) {
         int endXPositionBar = startXPositionBar + BOLD_BAR_WIDTH;
-        Rect boldBar = new Rect(startXPositionBar, yPositionOfBarTop, endXPositionBar, yPositionOfBarBottom);
+        boldBar.set(startXPositionBar, yPositionOfBarTop, endXPositionBar, yPositionOfBarBottom);
 
         noteSheetCanvas.drawRect(boldBar, paint);
     }
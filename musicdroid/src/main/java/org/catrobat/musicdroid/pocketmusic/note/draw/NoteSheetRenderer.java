@@ -0,0 +1,215 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.res.Resources;
+import android.graphics.Rect;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.Symbol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class NoteSheetRenderer {
+
+    private Resources resources;
+    private Map<Symbol, SymbolDisplayList> symbolDisplayLists;
+
+    private MusicalKey key;
+    private RecordingNoteSheetCanvas recordingCanvas;
+    private NoteSheetDrawPosition symbolDrawPosition;
+    private SymbolsDrawer symbolsDrawer;
+    private SymbolDisplayList staffDisplayList;
+    private int startXPositionForSymbols;
+
+    private boolean layoutValid;
+    private List<Symbol> layoutSymbolList;
+    private Symbol[] layoutSymbols;
+    private int[] layoutXPositions;
+    private List<SymbolPosition> layoutSymbolPositions;
+    private SymbolPositionIndex layoutSymbolPositionIndex;
+    private Rect clipBounds;
+
+    public NoteSheetRenderer(Resources resources) {
+        this.resources = resources;
+
+        symbolDisplayLists = new IdentityHashMap<Symbol, SymbolDisplayList>();
+        key = null;
+        recordingCanvas = null;
+        startXPositionForSymbols = 0;
+
+        layoutValid = false;
+        layoutSymbolList = null;
+        layoutSymbols = new Symbol[0];
+        layoutXPositions = new int[] { 0 };
+        layoutSymbolPositions = new ArrayList<SymbolPosition>();
+        layoutSymbolPositionIndex = new SymbolPositionIndex(layoutSymbolPositions);
+        clipBounds = new Rect();
+    }
+
+    public void invalidateLayout() {
+        layoutValid = false;
+    }
+
+    public int getWidthForDrawingTrack() {
+        return layoutXPositions[layoutSymbols.length];
+    }
+
+    public SymbolPositionIndex getSymbolPositionIndex() {
+        return layoutSymbolPositionIndex;
+    }
+
+    public int getCachedSymbolCount() {
+        return symbolDisplayLists.size();
+    }
+
+    public List<SymbolPosition> drawNoteSheet(NoteSheetCanvas noteSheetCanvas, List<Symbol> symbols, MusicalKey key) {
+        prepareRecording(noteSheetCanvas.getWidth(), noteSheetCanvas.getHeight(), key);
+
+        if ((false == layoutValid) || (layoutSymbolList != symbols) || (layoutSymbols.length != symbols.size())) {
+            layoutSymbols(symbols);
+        }
+
+        staffDisplayList.draw(noteSheetCanvas);
+
+        noteSheetCanvas.getClipBounds(clipBounds);
+
+        for (int i = indexOfFirstVisibleSymbol(clipBounds.left); (i < layoutSymbols.length) && (layoutXPositions[i] < clipBounds.right); i++) {
+            getDisplayList(layoutSymbols[i]).draw(noteSheetCanvas, layoutXPositions[i]);
+        }
+
+        return layoutSymbolPositions;
+    }
+
+    public int indexOfFirstVisibleSymbol(int xPosition) {
+        int low = 0;
+        int high = layoutSymbols.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (layoutXPositions[middle + 1] <= xPosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void layoutSymbols(List<Symbol> symbols) {
+        int symbolCount = symbols.size();
+
+        layoutSymbolList = symbols;
+        layoutSymbols = symbols.toArray(new Symbol[symbolCount]);
+        layoutXPositions = new int[symbolCount + 1];
+        layoutSymbolPositions = new ArrayList<SymbolPosition>(symbolCount);
+        layoutXPositions[0] = startXPositionForSymbols;
+
+        for (int i = 0; i < symbolCount; i++) {
+            SymbolDisplayList displayList = getDisplayList(layoutSymbols[i]);
+
+            layoutSymbolPositions.add(displayList.getSymbolPosition(layoutXPositions[i]));
+            layoutXPositions[i + 1] = layoutXPositions[i] + displayList.getWidth();
+        }
+
+        layoutSymbolPositionIndex = new SymbolPositionIndex(layoutSymbolPositions);
+
+        if (symbolDisplayLists.size() > symbolCount) {
+            removeUnusedDisplayLists();
+        }
+
+        layoutValid = true;
+    }
+
+    private void prepareRecording(int width, int height, MusicalKey key) {
+        boolean heightOrKeyChanged = (null == recordingCanvas) || (recordingCanvas.getHeight() != height) || (this.key != key);
+
+        if ((false == heightOrKeyChanged) && (recordingCanvas.getWidth() == width)) {
+            return;
+        }
+
+        this.key = key;
+        recordingCanvas = new RecordingNoteSheetCanvas(width, height);
+
+        NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(recordingCanvas, resources, Collections.<Symbol>emptyList(), key);
+        recordingCanvas.startRecording(new SymbolDisplayList());
+        noteSheetDrawer.drawNoteSheet();
+        staffDisplayList = recordingCanvas.stopRecording();
+
+        symbolDrawPosition = new NoteSheetDrawPosition(0, width);
+        symbolsDrawer = new SymbolsDrawer(recordingCanvas, NoteSheetDrawer.createPaint(), resources, Collections.<Symbol>emptyList(),
+                key, symbolDrawPosition, noteSheetDrawer.distanceBetweenLines);
+
+        if (heightOrKeyChanged) {
+            symbolDisplayLists.clear();
+            layoutValid = false;
+        }
+
+        if (startXPositionForSymbols != noteSheetDrawer.getWidthForDrawingTrack()) {
+            startXPositionForSymbols = noteSheetDrawer.getWidthForDrawingTrack();
+            layoutValid = false;
+        }
+    }
+
+    private SymbolDisplayList getDisplayList(Symbol symbol) {
+        SymbolDisplayList displayList = symbolDisplayLists.get(symbol);
+
+        if ((null == displayList) || (displayList.getModificationCount() != symbol.getModificationCount())) {
+            displayList = recordDisplayList(symbol);
+            symbolDisplayLists.put(symbol, displayList);
+        }
+
+        return displayList;
+    }
+
+    private SymbolDisplayList recordDisplayList(Symbol symbol) {
+        symbolDrawPosition.setStartXPositionForNextElement(0);
+
+        recordingCanvas.startRecording(new SymbolDisplayList());
+        SymbolPosition symbolPosition = symbolsDrawer.drawSymbol(symbol);
+        SymbolDisplayList displayList = recordingCanvas.stopRecording();
+
+        displayList.setSymbolPosition(symbolPosition);
+        displayList.setWidth(symbolDrawPosition.getStartXPositionForNextElement());
+        displayList.setModificationCount(symbol.getModificationCount());
+
+        return displayList;
+    }
+
+    private void removeUnusedDisplayLists() {
+        Map<Symbol, SymbolDisplayList> usedDisplayLists = new IdentityHashMap<Symbol, SymbolDisplayList>();
+
+        for (Symbol symbol : layoutSymbols) {
+            usedDisplayLists.put(symbol, symbolDisplayLists.get(symbol));
+        }
+
+        symbolDisplayLists = usedDisplayLists;
+    }
+}
@@ -38,18 +38,19 @@ public class NoteStemDrawer {
     private NoteSheetCanvas noteSheetCanvas;
     private int distanceBetweenLinesHalf;
     private int stemLength;
+    private RectF stemRect;
+    private PointF endPointOfNoteStem;
 
 	public NoteStemDrawer(NoteSheetCanvas noteSheetCanvas, int distanceBetweenLines) {
         noteFlagDrawer = new NoteFlagDrawer(noteSheetCanvas, distanceBetweenLines);
         this.noteSheetCanvas = noteSheetCanvas;
         this.distanceBetweenLinesHalf = distanceBetweenLines / 2;
         this.stemLength = (int) (Math.round(LENGTH_OF_STEM_IN_NOTE_LINE_DISTANCES * distanceBetweenLines));
+        stemRect = new RectF();
+        endPointOfNoteStem = new PointF();
 	}
 
 	public RectF drawStem(SymbolPosition symbolPosition, NoteSymbol noteSymbol, MusicalKey key, Paint paint) {
-        RectF stemRect = new RectF();
-        PointF endPointOfNoteStem = new PointF();
-
         if(noteSymbol.isStemUp(key)) {
             stemRect.left = symbolPosition.getRight();
             stemRect.right = symbolPosition.getRight();
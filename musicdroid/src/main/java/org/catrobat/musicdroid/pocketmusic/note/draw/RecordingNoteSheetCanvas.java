@@ -0,0 +1,128 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+public class RecordingNoteSheetCanvas extends NoteSheetCanvas {
+
+    private int width;
+    private int height;
+    private SymbolDisplayList displayList;
+    private Rect bitmapRect;
+
+    public RecordingNoteSheetCanvas(int width, int height) {
+        super(null);
+
+        this.width = width;
+        this.height = height;
+        displayList = null;
+        bitmapRect = new Rect();
+    }
+
+    public void startRecording(SymbolDisplayList displayList) {
+        this.displayList = displayList;
+    }
+
+    public SymbolDisplayList stopRecording() {
+        SymbolDisplayList recordedDisplayList = displayList;
+        displayList = null;
+
+        return recordedDisplayList;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        displayList.addLine(startX, startY, stopX, stopY, paint);
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        displayList.addRect(rect, paint);
+    }
+
+    @Override
+    public void drawOval(RectF rect, Paint paint) {
+        displayList.addOval(rect, paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        displayList.addPath(path, paint);
+    }
+
+    @Override
+    public Rect drawBitmap(Resources resources, int bitmapId, int bitmapHeight, int xPosition, int yPosition) {
+        Bitmap bitmap = GlyphBitmapCache.getInstance().getBitmap(resources, bitmapId, bitmapHeight);
+        calculateProportionalRect(bitmap, bitmapHeight, xPosition, yPosition, bitmapRect);
+        displayList.addBitmap(resources, bitmapId, bitmapHeight, bitmapRect);
+
+        return bitmapRect;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect rect) {
+        displayList.addBitmap(bitmap, rect);
+    }
+
+    @Override
+    public void save() {
+        displayList.addSave();
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        displayList.addTranslate(dx, dy);
+    }
+
+    @Override
+    public void restore() {
+        displayList.addRestore();
+    }
+
+    @Override
+    public Rect getClipBounds() {
+        return new Rect(0, 0, width, height);
+    }
+
+    @Override
+    public void getClipBounds(Rect clipBounds) {
+        clipBounds.set(0, 0, width, height);
+    }
+}
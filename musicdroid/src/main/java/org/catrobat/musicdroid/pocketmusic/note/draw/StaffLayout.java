@@ -0,0 +1,109 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.res.Resources;
+import android.graphics.Rect;
+
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.Symbol;
+import org.catrobat.musicdroid.pocketmusic.note.symbol.TrackToSymbolsConverter;
+
+import java.util.Collections;
+import java.util.List;
+
+class StaffLayout {
+
+    private final SymbolDisplayList staffDisplayList;
+    private final SymbolDisplayList[] symbolDisplayLists;
+    private final int[] xPositions;
+
+    private StaffLayout(SymbolDisplayList staffDisplayList, SymbolDisplayList[] symbolDisplayLists, int[] xPositions) {
+        this.staffDisplayList = staffDisplayList;
+        this.symbolDisplayLists = symbolDisplayLists;
+        this.xPositions = xPositions;
+    }
+
+    public static StaffLayout layoutTrack(Resources resources, Track track, int width, int height) {
+        List<Symbol> symbols = new TrackToSymbolsConverter().convertTrack(track);
+        RecordingNoteSheetCanvas recordingCanvas = new RecordingNoteSheetCanvas(width, height);
+
+        NoteSheetDrawer noteSheetDrawer = new NoteSheetDrawer(recordingCanvas, resources, Collections.<Symbol>emptyList(), track.getKey());
+        recordingCanvas.startRecording(new SymbolDisplayList());
+        noteSheetDrawer.drawNoteSheet();
+        SymbolDisplayList staffDisplayList = recordingCanvas.stopRecording();
+
+        NoteSheetDrawPosition symbolDrawPosition = new NoteSheetDrawPosition(0, width);
+        SymbolsDrawer symbolsDrawer = new SymbolsDrawer(recordingCanvas, NoteSheetDrawer.createPaint(), resources, Collections.<Symbol>emptyList(),
+                track.getKey(), symbolDrawPosition, noteSheetDrawer.distanceBetweenLines);
+
+        SymbolDisplayList[] symbolDisplayLists = new SymbolDisplayList[symbols.size()];
+        int[] xPositions = new int[symbols.size() + 1];
+        xPositions[0] = noteSheetDrawer.getWidthForDrawingTrack();
+
+        for (int i = 0; i < symbolDisplayLists.length; i++) {
+            symbolDrawPosition.setStartXPositionForNextElement(0);
+            recordingCanvas.startRecording(new SymbolDisplayList());
+            symbolsDrawer.drawSymbol(symbols.get(i));
+
+            symbolDisplayLists[i] = recordingCanvas.stopRecording();
+            xPositions[i + 1] = xPositions[i] + symbolDrawPosition.getStartXPositionForNextElement();
+        }
+
+        return new StaffLayout(staffDisplayList, symbolDisplayLists, xPositions);
+    }
+
+    public int getWidth() {
+        return xPositions[symbolDisplayLists.length];
+    }
+
+    public int getSymbolCount() {
+        return symbolDisplayLists.length;
+    }
+
+    public void draw(NoteSheetCanvas noteSheetCanvas, Rect clipBounds) {
+        staffDisplayList.draw(noteSheetCanvas);
+
+        for (int i = indexOfFirstVisibleSymbol(clipBounds.left); (i < symbolDisplayLists.length) && (xPositions[i] < clipBounds.right); i++) {
+            symbolDisplayLists[i].draw(noteSheetCanvas, xPositions[i]);
+        }
+    }
+
+    private int indexOfFirstVisibleSymbol(int xPosition) {
+        int low = 0;
+        int high = symbolDisplayLists.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (xPositions[middle + 1] <= xPosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
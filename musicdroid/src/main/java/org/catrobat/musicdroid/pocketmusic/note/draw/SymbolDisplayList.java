@@ -0,0 +1,296 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SymbolDisplayList {
+
+    private List<DrawOperation> drawOperations;
+    private int width;
+    private SymbolPosition symbolPosition;
+    private int modificationCount;
+
+    private SymbolPosition translatedSymbolPosition;
+    private int translatedXPosition;
+
+    public SymbolDisplayList() {
+        drawOperations = new ArrayList<DrawOperation>();
+        width = 0;
+        symbolPosition = null;
+        modificationCount = 0;
+        translatedSymbolPosition = null;
+        translatedXPosition = 0;
+    }
+
+    public void addLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        drawOperations.add(new LineOperation(startX, startY, stopX, stopY, new Paint(paint)));
+    }
+
+    public void addRect(Rect rect, Paint paint) {
+        drawOperations.add(new RectOperation(new Rect(rect), new Paint(paint)));
+    }
+
+    public void addOval(RectF rect, Paint paint) {
+        drawOperations.add(new OvalOperation(new RectF(rect), new Paint(paint)));
+    }
+
+    public void addPath(Path path, Paint paint) {
+        drawOperations.add(new PathOperation(new Path(path), new Paint(paint)));
+    }
+
+    public void addBitmap(Resources resources, int bitmapId, int bitmapHeight, Rect rect) {
+        drawOperations.add(new BitmapOperation(resources, bitmapId, bitmapHeight, new Rect(rect)));
+    }
+
+    public void addBitmap(Bitmap bitmap, Rect rect) {
+        drawOperations.add(new ResolvedBitmapOperation(bitmap, new Rect(rect)));
+    }
+
+    public void addSave() {
+        drawOperations.add(new SaveOperation());
+    }
+
+    public void addTranslate(float dx, float dy) {
+        drawOperations.add(new TranslateOperation(dx, dy));
+    }
+
+    public void addRestore() {
+        drawOperations.add(new RestoreOperation());
+    }
+
+    public int size() {
+        return drawOperations.size();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    public void setModificationCount(int modificationCount) {
+        this.modificationCount = modificationCount;
+    }
+
+    public void setSymbolPosition(SymbolPosition symbolPosition) {
+        this.symbolPosition = symbolPosition;
+        translatedSymbolPosition = null;
+    }
+
+    public SymbolPosition getSymbolPosition(int xPosition) {
+        if ((null == translatedSymbolPosition) || (translatedXPosition != xPosition)) {
+            translatedSymbolPosition = new SymbolPosition(symbolPosition.getLeft() + xPosition, symbolPosition.getTop(),
+                    symbolPosition.getRight() + xPosition, symbolPosition.getBottom());
+            translatedXPosition = xPosition;
+        }
+
+        return translatedSymbolPosition;
+    }
+
+    public void draw(NoteSheetCanvas noteSheetCanvas) {
+        for (int i = 0; i < drawOperations.size(); i++) {
+            drawOperations.get(i).draw(noteSheetCanvas);
+        }
+    }
+
+    public void draw(NoteSheetCanvas noteSheetCanvas, int xPosition) {
+        noteSheetCanvas.save();
+        noteSheetCanvas.translate(xPosition, 0);
+        draw(noteSheetCanvas);
+        noteSheetCanvas.restore();
+    }
+
+    private abstract static class DrawOperation {
+
+        protected final Paint paint;
+
+        public DrawOperation(Paint paint) {
+            this.paint = paint;
+        }
+
+        public abstract void draw(NoteSheetCanvas noteSheetCanvas);
+    }
+
+    private static class LineOperation extends DrawOperation {
+
+        private final float startX;
+        private final float startY;
+        private final float stopX;
+        private final float stopY;
+
+        public LineOperation(float startX, float startY, float stopX, float stopY, Paint paint) {
+            super(paint);
+            this.startX = startX;
+            this.startY = startY;
+            this.stopX = stopX;
+            this.stopY = stopY;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawLine(startX, startY, stopX, stopY, paint);
+        }
+    }
+
+    private static class RectOperation extends DrawOperation {
+
+        private final Rect rect;
+
+        public RectOperation(Rect rect, Paint paint) {
+            super(paint);
+            this.rect = rect;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawRect(rect, paint);
+        }
+    }
+
+    private static class OvalOperation extends DrawOperation {
+
+        private final RectF rect;
+
+        public OvalOperation(RectF rect, Paint paint) {
+            super(paint);
+            this.rect = rect;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawOval(rect, paint);
+        }
+    }
+
+    private static class PathOperation extends DrawOperation {
+
+        private final Path path;
+
+        public PathOperation(Path path, Paint paint) {
+            super(paint);
+            this.path = path;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawPath(path, paint);
+        }
+    }
+
+    private static class SaveOperation extends DrawOperation {
+
+        public SaveOperation() {
+            super(null);
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.save();
+        }
+    }
+
+    private static class TranslateOperation extends DrawOperation {
+
+        private final float dx;
+        private final float dy;
+
+        public TranslateOperation(float dx, float dy) {
+            super(null);
+            this.dx = dx;
+            this.dy = dy;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.translate(dx, dy);
+        }
+    }
+
+    private static class RestoreOperation extends DrawOperation {
+
+        public RestoreOperation() {
+            super(null);
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.restore();
+        }
+    }
+
+    private static class BitmapOperation extends DrawOperation {
+
+        private final Resources resources;
+        private final int bitmapId;
+        private final int bitmapHeight;
+        private final Long bitmapKey;
+        private final Rect rect;
+
+        public BitmapOperation(Resources resources, int bitmapId, int bitmapHeight, Rect rect) {
+            super(null);
+            this.resources = resources;
+            this.bitmapId = bitmapId;
+            this.bitmapHeight = bitmapHeight;
+            this.bitmapKey = GlyphBitmapCache.createKey(bitmapId, bitmapHeight);
+            this.rect = rect;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawBitmap(GlyphBitmapCache.getInstance().getBitmap(resources, bitmapId, bitmapHeight, bitmapKey), rect);
+        }
+    }
+
+    private static class ResolvedBitmapOperation extends DrawOperation {
+
+        private final Bitmap bitmap;
+        private final Rect rect;
+
+        public ResolvedBitmapOperation(Bitmap bitmap, Rect rect) {
+            super(null);
+            this.bitmap = bitmap;
+            this.rect = rect;
+        }
+
+        @Override
+        public void draw(NoteSheetCanvas noteSheetCanvas) {
+            noteSheetCanvas.drawBitmap(bitmap, rect);
+        }
+    }
+}
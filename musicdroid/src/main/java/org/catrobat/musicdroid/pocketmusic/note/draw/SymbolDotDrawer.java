@@ -34,18 +34,18 @@ public class SymbolDotDrawer {
 
     private NoteSheetCanvas noteSheetCanvas;
     private int distanceBetweenLines;
+    private RectF dotRect;
 
     public SymbolDotDrawer(NoteSheetCanvas noteSheetCanvas, int distanceBetweenLines) {
         this.noteSheetCanvas = noteSheetCanvas;
         this.distanceBetweenLines = distanceBetweenLines;
+        dotRect = new RectF();
     }
 
     public void drawDot(Rect symbolRect, Paint paint) {
         float x = symbolRect.right + DISTANCE_BETWEEN_SYMBOL_AND_DOT;
         float y = symbolRect.top + distanceBetweenLines / 4;
 
-        RectF dotRect = new RectF();
-
         dotRect.left = x;
         dotRect.top = y - DOT_RADIUS;
         dotRect.right = x + 2 * DOT_RADIUS;
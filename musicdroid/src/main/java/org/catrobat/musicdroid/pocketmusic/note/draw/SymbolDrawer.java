@@ -36,6 +36,7 @@ public abstract class SymbolDrawer {
 
     private Paint paintDefault;
     private Paint paintMarked;
+    private Point centerPoint;
 
     protected NoteSheetCanvas noteSheetCanvas;
     protected Resources resources;
@@ -58,10 +59,11 @@ public abstract class SymbolDrawer {
 
         widthForOneSymbol = distanceBetweenLines * SYMBOL_WIDTH_MULTIPLIER;
         widthForOneSmallSymbol = widthForOneSymbol / SMALL_SYMBOL_WIDTH_DIVIDOR;
+        centerPoint = new Point();
 	}
 
     private Point getCenterPointForNextSymbol(int symbolWidth) {
-        Point centerPoint = new Point(drawPosition.getStartXPositionForNextElement() + (symbolWidth / 2), noteSheetCanvas.getHeightHalf());
+        centerPoint.set(drawPosition.getStartXPositionForNextElement() + (symbolWidth / 2), noteSheetCanvas.getHeightHalf());
 
         drawPosition.increasesStartXPositionForNextElement(symbolWidth);
 
@@ -27,52 +27,54 @@ import android.graphics.RectF;
 
 public class SymbolPosition {
 
-    private RectF boundaryRect;
+    private float left;
+    private float top;
+    private float right;
+    private float bottom;
+
+    public SymbolPosition(float left, float top, float right, float bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
 
     public SymbolPosition(RectF... rects) {
         calculatePosition(rects);
     }
 
     private void calculatePosition(RectF... rects) {
-        boundaryRect = null;
-
-        for(RectF rect : rects) {
-            if (null == boundaryRect) {
-                boundaryRect = new RectF(rect);
-            }
-
-            if (boundaryRect.left > rect.left) {
-                boundaryRect.left = rect.left;
-            }
-
-            if (boundaryRect.top > rect.top) {
-                boundaryRect.top = rect.top;
-            }
+        left = rects[0].left;
+        top = rects[0].top;
+        right = rects[0].right;
+        bottom = rects[0].bottom;
 
-            if (boundaryRect.right < rect.right) {
-                boundaryRect.right = rect.right;
-            }
-
-            if (boundaryRect.bottom < rect.bottom) {
-                boundaryRect.bottom = rect.bottom;
-            }
+        for (int i = 1; i < rects.length; i++) {
+            union(rects[i].left, rects[i].top, rects[i].right, rects[i].bottom);
         }
     }
 
+    public void union(float left, float top, float right, float bottom) {
+        this.left = Math.min(this.left, left);
+        this.top = Math.min(this.top, top);
+        this.right = Math.max(this.right, right);
+        this.bottom = Math.max(this.bottom, bottom);
+    }
+
     public float getLeft() {
-        return boundaryRect.left;
+        return left;
     }
 
     public float getTop() {
-        return boundaryRect.top;
+        return top;
     }
 
     public float getRight() {
-        return boundaryRect.right;
+        return right;
     }
 
     public float getBottom() {
-        return  boundaryRect.bottom;
+        return bottom;
     }
 
     public RectF toRectF() {
@@ -0,0 +1,130 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.draw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class SymbolPositionIndex {
+
+    private final int[] sortedIndices;
+    private final float[] lefts;
+    private final float[] tops;
+    private final float[] rights;
+    private final float[] bottoms;
+    private final float[] maxRights;
+
+    public SymbolPositionIndex(List<SymbolPosition> symbolPositions) {
+        int size = symbolPositions.size();
+        SymbolPosition[] positions = symbolPositions.toArray(new SymbolPosition[size]);
+        final float[] unsortedLefts = new float[size];
+        Integer[] indices = new Integer[size];
+        boolean sorted = true;
+
+        for (int i = 0; i < size; i++) {
+            unsortedLefts[i] = positions[i].getLeft();
+            indices[i] = i;
+            sorted = sorted && ((0 == i) || (unsortedLefts[i - 1] <= unsortedLefts[i]));
+        }
+
+        if (false == sorted) {
+            Arrays.sort(indices, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer lhs, Integer rhs) {
+                    return Float.compare(unsortedLefts[lhs], unsortedLefts[rhs]);
+                }
+            });
+        }
+
+        sortedIndices = new int[size];
+        lefts = new float[size];
+        tops = new float[size];
+        rights = new float[size];
+        bottoms = new float[size];
+        maxRights = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            SymbolPosition symbolPosition = positions[indices[i]];
+
+            sortedIndices[i] = indices[i];
+            lefts[i] = symbolPosition.getLeft();
+            tops[i] = symbolPosition.getTop();
+            rights[i] = symbolPosition.getRight();
+            bottoms[i] = symbolPosition.getBottom();
+            maxRights[i] = (0 == i) ? rights[i] : Math.max(maxRights[i - 1], rights[i]);
+        }
+    }
+
+    public int size() {
+        return sortedIndices.length;
+    }
+
+    public int getIndexAt(float x, float y) {
+        int index = DrawElementsTouchDetector.INVALID_INDEX;
+
+        for (int i = lastIndexWithLeftAtMost(x); (i >= 0) && (maxRights[i] >= x); i--) {
+            if ((rights[i] >= x) && (tops[i] <= y) && (bottoms[i] >= y)) {
+                if ((DrawElementsTouchDetector.INVALID_INDEX == index) || (sortedIndices[i] < index)) {
+                    index = sortedIndices[i];
+                }
+            }
+        }
+
+        return index;
+    }
+
+    public List<Integer> getIndicesInRect(float left, float top, float right, float bottom) {
+        List<Integer> indices = new ArrayList<Integer>();
+
+        for (int i = lastIndexWithLeftAtMost(right); (i >= 0) && (maxRights[i] >= left); i--) {
+            if ((rights[i] >= left) && (tops[i] <= bottom) && (bottoms[i] >= top)) {
+                indices.add(sortedIndices[i]);
+            }
+        }
+
+        Collections.sort(indices);
+
+        return indices;
+    }
+
+    private int lastIndexWithLeftAtMost(float x) {
+        int low = 0;
+        int high = lefts.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (lefts[middle] <= x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low - 1;
+    }
+}
@@ -51,15 +51,19 @@ public class SymbolsDrawer {
         List<SymbolPosition> drawSymbols = new LinkedList<SymbolPosition>();
 
 		for (Symbol symbol : symbols) {
-            if (symbol instanceof NoteSymbol) {
-                drawSymbols.add(noteDrawer.drawSymbol(symbol));
-            } else if (symbol instanceof BreakSymbol) {
-                drawSymbols.add(breakDrawer.drawSymbol(symbol));
-            } else {
-                throw new IllegalArgumentException("Not supported symbol: " + symbol);
-            }
+            drawSymbols.add(drawSymbol(symbol));
 		}
 
         return drawSymbols;
 	}
+
+    public SymbolPosition drawSymbol(Symbol symbol) {
+        if (symbol instanceof NoteSymbol) {
+            return noteDrawer.drawSymbol(symbol);
+        } else if (symbol instanceof BreakSymbol) {
+            return breakDrawer.drawSymbol(symbol);
+        } else {
+            throw new IllegalArgumentException("Not supported symbol: " + symbol);
+        }
+    }
 }
@@ -0,0 +1,360 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MidiCatalog {
+
+    private static final int INDEX_MAGIC = 0x4D434958;
+    private static final int INDEX_VERSION = 1;
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    private static final int HEADER_CHUNK_ID = 0x4D546864;
+    private static final int TRACK_CHUNK_ID = 0x4D54726B;
+    private static final int HEADER_CHUNK_MIN_SIZE = 6;
+    private static final int NOTE_ON = 0x9;
+    private static final int PROGRAM_CHANGE = 0xC;
+    private static final int CHANNEL_AFTERTOUCH = 0xD;
+    private static final int SYSTEM_EXCLUSIVE = 0xF0;
+    private static final int SYSTEM_EXCLUSIVE_ESCAPE = 0xF7;
+    private static final int META_EVENT = 0xFF;
+    private static final int META_TEXT = 0x01;
+    private static final int META_END_OF_TRACK = 0x2F;
+    private static final int META_TEMPO = 0x51;
+    private static final int META_TEMPO_SIZE = 3;
+    private static final float MICROSECONDS_PER_MINUTE = 60000000f;
+
+    private final File folder;
+    private final File indexFile;
+    private final Map<String, MidiCatalogEntry> entries;
+    private boolean indexLoaded;
+
+    public MidiCatalog(File folder, File indexFile) {
+        this.folder = folder;
+        this.indexFile = indexFile;
+
+        entries = new HashMap<String, MidiCatalogEntry>();
+        indexLoaded = false;
+    }
+
+    public synchronized List<MidiCatalogEntry> refresh() {
+        if (false == indexLoaded) {
+            loadIndex();
+            indexLoaded = true;
+        }
+
+        File[] files = folder.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String filename) {
+                return filename.endsWith(ProjectToMidiConverter.MIDI_FILE_EXTENSION);
+            }
+        });
+
+        if (null == files) {
+            files = new File[0];
+        }
+
+        boolean changed = false;
+        Map<String, MidiCatalogEntry> currentEntries = new HashMap<String, MidiCatalogEntry>();
+
+        for (File file : files) {
+            String path = file.getAbsolutePath();
+            MidiCatalogEntry entry = entries.get(path);
+
+            if ((null == entry) || (false == entry.isUpToDate(file))) {
+                entry = scanFile(file);
+                changed = true;
+            }
+
+            currentEntries.put(path, entry);
+        }
+
+        if (currentEntries.size() != entries.size()) {
+            changed = true;
+        }
+
+        entries.clear();
+        entries.putAll(currentEntries);
+
+        if (changed) {
+            saveIndex();
+        }
+
+        return getCompatibleEntries();
+    }
+
+    public synchronized List<MidiCatalogEntry> getCompatibleEntries() {
+        List<MidiCatalogEntry> compatibleEntries = new ArrayList<MidiCatalogEntry>();
+
+        for (MidiCatalogEntry entry : entries.values()) {
+            if (entry.isCompatible()) {
+                compatibleEntries.add(entry);
+            }
+        }
+
+        Collections.sort(compatibleEntries, new Comparator<MidiCatalogEntry>() {
+            @Override
+            public int compare(MidiCatalogEntry lhs, MidiCatalogEntry rhs) {
+                return lhs.getName().compareToIgnoreCase(rhs.getName());
+            }
+        });
+
+        return compatibleEntries;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public static MidiCatalogEntry scanFile(File file) {
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+                return scanMidi(file, lastModified, length, buffer);
+            } finally {
+                randomAccessFile.close();
+            }
+        } catch (IOException e) {
+            return createIncompatibleEntry(file, lastModified, length);
+        } catch (MidiException e) {
+            return createIncompatibleEntry(file, lastModified, length);
+        } catch (BufferUnderflowException e) {
+            return createIncompatibleEntry(file, lastModified, length);
+        } catch (IndexOutOfBoundsException e) {
+            return createIncompatibleEntry(file, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            return createIncompatibleEntry(file, lastModified, length);
+        }
+    }
+
+    private static MidiCatalogEntry createIncompatibleEntry(File file, long lastModified, long length) {
+        return new MidiCatalogEntry(file, lastModified, length, false, 0, 0, 0);
+    }
+
+    private static MidiCatalogEntry scanMidi(File file, long lastModified, long length, ByteBuffer buffer) throws MidiException {
+        if ((buffer.getInt() != HEADER_CHUNK_ID)) {
+            return createIncompatibleEntry(file, lastModified, length);
+        }
+
+        int headerSize = buffer.getInt();
+
+        if (headerSize < HEADER_CHUNK_MIN_SIZE) {
+            return createIncompatibleEntry(file, lastModified, length);
+        }
+
+        buffer.getShort();
+        int chunkCount = buffer.getShort() & 0xFFFF;
+        buffer.position(buffer.position() + headerSize - 4);
+
+        int beatsPerMinute = Project.DEFAULT_BEATS_PER_MINUTE;
+        int trackCount = 0;
+        long lastTick = 0;
+
+        for (int i = 0; (i < chunkCount) && (buffer.remaining() >= 8); i++) {
+            int chunkId = buffer.getInt();
+            int chunkSize = buffer.getInt();
+            int chunkEnd = buffer.position() + chunkSize;
+
+            if (TRACK_CHUNK_ID != chunkId) {
+                if (0 == i) {
+                    return createIncompatibleEntry(file, lastModified, length);
+                }
+
+                buffer.position(chunkEnd);
+                continue;
+            }
+
+            if ((0 == i) && (false == startsWithFileIdentifier(buffer))) {
+                return createIncompatibleEntry(file, lastModified, length);
+            }
+
+            long tick = 0;
+            int runningStatus = 0;
+            boolean hasNotes = false;
+
+            while (buffer.position() < chunkEnd) {
+                tick += MidiToProjectConverter.readVariableLengthInt(buffer);
+
+                int status = buffer.get(buffer.position()) & 0xFF;
+
+                if (status >= 0x80) {
+                    buffer.get();
+                } else if (0 == runningStatus) {
+                    return createIncompatibleEntry(file, lastModified, length);
+                } else {
+                    status = runningStatus;
+                }
+
+                if (META_EVENT == status) {
+                    int type = buffer.get() & 0xFF;
+                    int dataLength = MidiToProjectConverter.readVariableLengthInt(buffer);
+                    int dataEnd = buffer.position() + dataLength;
+
+                    if ((META_TEMPO == type) && (META_TEMPO_SIZE == dataLength)) {
+                        int microsecondsPerQuarterNote = ((buffer.get() & 0xFF) << 16) | ((buffer.get() & 0xFF) << 8) | (buffer.get() & 0xFF);
+                        beatsPerMinute = (int) (MICROSECONDS_PER_MINUTE / microsecondsPerQuarterNote);
+                    }
+
+                    if (META_END_OF_TRACK != type) {
+                        lastTick = Math.max(lastTick, tick);
+                    }
+
+                    buffer.position(dataEnd);
+                    runningStatus = 0;
+                } else if ((SYSTEM_EXCLUSIVE == status) || (SYSTEM_EXCLUSIVE_ESCAPE == status)) {
+                    buffer.position(buffer.position() + MidiToProjectConverter.readVariableLengthInt(buffer));
+                    runningStatus = 0;
+                } else {
+                    int type = status >> 4;
+                    int skip = ((PROGRAM_CHANGE == type) || (CHANNEL_AFTERTOUCH == type)) ? 1 : 2;
+
+                    buffer.position(buffer.position() + skip);
+                    hasNotes |= (NOTE_ON == type);
+                    lastTick = Math.max(lastTick, tick);
+                    runningStatus = status;
+                }
+            }
+
+            if (hasNotes) {
+                trackCount++;
+            }
+
+            buffer.position(chunkEnd);
+        }
+
+        return new MidiCatalogEntry(file, lastModified, length, true, trackCount, beatsPerMinute,
+                NoteLength.tickToMilliseconds(lastTick));
+    }
+
+    private static boolean startsWithFileIdentifier(ByteBuffer buffer) {
+        int position = buffer.position();
+        String identifier = ProjectToMidiConverter.MIDI_FILE_IDENTIFIER;
+
+        if ((buffer.get(position) != 0) || ((buffer.get(position + 1) & 0xFF) != META_EVENT)
+                || (buffer.get(position + 2) != META_TEXT) || (buffer.get(position + 3) != identifier.length())) {
+            return false;
+        }
+
+        for (int i = 0; i < identifier.length(); i++) {
+            if (buffer.get(position + 4 + i) != identifier.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void loadIndex() {
+        if (false == indexFile.exists()) {
+            return;
+        }
+
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+
+            try {
+                if ((inputStream.readInt() != INDEX_MAGIC) || (inputStream.readInt() != INDEX_VERSION)) {
+                    return;
+                }
+
+                int count = inputStream.readInt();
+
+                for (int i = 0; i < count; i++) {
+                    File file = new File(inputStream.readUTF());
+                    MidiCatalogEntry entry = new MidiCatalogEntry(file, inputStream.readLong(), inputStream.readLong(),
+                            inputStream.readBoolean(), inputStream.readInt(), inputStream.readInt(), inputStream.readLong());
+
+                    entries.put(file.getAbsolutePath(), entry);
+                }
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            entries.clear();
+        }
+    }
+
+    private void saveIndex() {
+        File tempFile = new File(indexFile.getPath() + TEMP_FILE_EXTENSION);
+
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+
+            try {
+                outputStream.writeInt(INDEX_MAGIC);
+                outputStream.writeInt(INDEX_VERSION);
+                outputStream.writeInt(entries.size());
+
+                for (Map.Entry<String, MidiCatalogEntry> mapEntry : entries.entrySet()) {
+                    MidiCatalogEntry entry = mapEntry.getValue();
+
+                    outputStream.writeUTF(mapEntry.getKey());
+                    outputStream.writeLong(entry.getLastModified());
+                    outputStream.writeLong(entry.getLength());
+                    outputStream.writeBoolean(entry.isCompatible());
+                    outputStream.writeInt(entry.getTrackCount());
+                    outputStream.writeInt(entry.getBeatsPerMinute());
+                    outputStream.writeLong(entry.getDurationInMilliseconds());
+                }
+            } finally {
+                outputStream.close();
+            }
+
+            if (false == tempFile.renameTo(indexFile)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            tempFile.delete();
+        }
+    }
+}
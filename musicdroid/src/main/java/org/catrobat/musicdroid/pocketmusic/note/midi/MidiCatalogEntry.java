@@ -0,0 +1,90 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import java.io.File;
+
+public class MidiCatalogEntry {
+
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final boolean compatible;
+    private final int trackCount;
+    private final int beatsPerMinute;
+    private final long durationInMilliseconds;
+
+    public MidiCatalogEntry(File file, long lastModified, long length, boolean compatible, int trackCount,
+                            int beatsPerMinute, long durationInMilliseconds) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.compatible = compatible;
+        this.trackCount = trackCount;
+        this.beatsPerMinute = beatsPerMinute;
+        this.durationInMilliseconds = durationInMilliseconds;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getName() {
+        return file.getName().replaceFirst("[.][^.]+$", "");
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isCompatible() {
+        return compatible;
+    }
+
+    public int getTrackCount() {
+        return trackCount;
+    }
+
+    public int getBeatsPerMinute() {
+        return beatsPerMinute;
+    }
+
+    public long getDurationInMilliseconds() {
+        return durationInMilliseconds;
+    }
+
+    public boolean isUpToDate(File file) {
+        return (file.lastModified() == lastModified) && (file.length() == length);
+    }
+
+    @Override
+    public String toString() {
+        return "[MidiCatalogEntry] file=" + file + " compatible=" + compatible + " trackCount=" + trackCount
+                + " beatsPerMinute=" + beatsPerMinute + " durationInMilliseconds=" + durationInMilliseconds;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+
+import java.util.EnumMap;
+
+public class MidiChannelAllocator {
+
+    public static final int MAX_CHANNEL = 16;
+
+    private static final int FIRST_CHANNEL = 1;
+
+    private final EnumMap<MusicalInstrument, Integer> channels;
+
+    public MidiChannelAllocator() {
+        channels = new EnumMap<MusicalInstrument, Integer>(MusicalInstrument.class);
+    }
+
+    public int getChannel(MusicalInstrument instrument) throws MidiException {
+        Integer channel = channels.get(instrument);
+
+        if (null != channel) {
+            return channel;
+        }
+
+        if (channels.size() == MAX_CHANNEL) {
+            throw new MidiException("You cannot have more than " + MAX_CHANNEL + " channels!");
+        }
+
+        channel = (FIRST_CHANNEL + channels.size()) % MAX_CHANNEL;
+        channels.put(instrument, channel);
+
+        return channel;
+    }
+
+    public int[] allocateChannels(Project project) throws MidiException {
+        int[] trackChannels = new int[project.size()];
+
+        for (int i = 0; i < project.size(); i++) {
+            trackChannels[i] = getChannel(project.getTrack(i).getInstrument());
+        }
+
+        return trackChannels;
+    }
+
+    public int size() {
+        return channels.size();
+    }
+}
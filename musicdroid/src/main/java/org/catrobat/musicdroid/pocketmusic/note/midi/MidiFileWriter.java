@@ -0,0 +1,174 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.WorkerPool;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class MidiFileWriter {
+
+    public static final int RESOLUTION = 480;
+
+    private final ExecutorService encoderPool;
+    private final MidiTrackEncoder encoder;
+
+    public MidiFileWriter() {
+        this(WorkerPool.getInstance());
+    }
+
+    public MidiFileWriter(ExecutorService encoderPool) {
+        this.encoderPool = encoderPool;
+        encoder = new MidiTrackEncoder();
+    }
+
+    public void writeProject(Project project, int[] channels, File file) throws IOException {
+        writeProject(project, channels, file, null);
+    }
+
+    public void writeProject(Project project, int[] channels, File file, MidiProgressMonitor monitor) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        long progressTotal = 0;
+
+        for (int i = 0; i < project.size(); i++) {
+            progressTotal += project.getTrack(i).size();
+        }
+
+        try {
+            FileChannel channel = outputStream.getChannel();
+
+            encoder.clear();
+            encoder.encodeHeaderChunk(project.size() + 1);
+            encoder.encodeTempoTrack(project.getBeatsPerMinute());
+            encoder.writeTo(channel);
+
+            if ((null == encoderPool) || (project.size() < 2)) {
+                writeNoteTracks(project, channels, channel, monitor, progressTotal);
+            } else {
+                writeNoteTracksInParallel(project, channels, channel, monitor, progressTotal);
+            }
+
+            if (null != monitor) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException();
+                }
+
+                monitor.onProgress(progressTotal, progressTotal);
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private void writeNoteTracks(Project project, int[] channels, FileChannel channel, MidiProgressMonitor monitor,
+                                 long progressTotal) throws IOException {
+        long progress = 0;
+
+        for (int i = 0; i < project.size(); i++) {
+            Track track = project.getTrack(i);
+
+            encoder.encodeNoteTrack(track, channels[i], monitor, progress, progressTotal);
+            encoder.writeTo(channel);
+            progress += track.size();
+        }
+    }
+
+    private void writeNoteTracksInParallel(Project project, int[] channels, FileChannel channel,
+                                           final MidiProgressMonitor monitor, long progressTotal) throws IOException {
+        final MidiProgressMonitor cancellationMonitor = (null == monitor) ? null : new MidiProgressMonitor() {
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled();
+            }
+
+            @Override
+            public void onProgress(long current, long total) {
+            }
+        };
+
+        List<Future<MidiTrackEncoder>> futures = new ArrayList<Future<MidiTrackEncoder>>(project.size());
+
+        try {
+            for (int i = 0; i < project.size(); i++) {
+                final Track track = project.getTrack(i);
+                final int trackChannel = channels[i];
+
+                futures.add(encoderPool.submit(new Callable<MidiTrackEncoder>() {
+                    @Override
+                    public MidiTrackEncoder call() {
+                        MidiTrackEncoder trackEncoder = new MidiTrackEncoder();
+                        trackEncoder.encodeNoteTrack(track, trackChannel, cancellationMonitor, 0, 0);
+
+                        return trackEncoder;
+                    }
+                }));
+            }
+
+            long progress = 0;
+
+            for (int i = 0; i < futures.size(); i++) {
+                getEncodedTrack(futures.get(i)).writeTo(channel);
+                progress += project.getTrack(i).size();
+
+                if (null != monitor) {
+                    monitor.onProgress(progress, progressTotal);
+                }
+            }
+        } finally {
+            for (Future<MidiTrackEncoder> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private MidiTrackEncoder getEncodedTrack(Future<MidiTrackEncoder> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding MIDI tracks");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException("Could not encode MIDI track", cause);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.Project;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class MidiIoExecutor {
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private final Executor ioExecutor;
+    private final Executor callbackExecutor;
+
+    public MidiIoExecutor(Executor callbackExecutor) {
+        this(createIoExecutor(), callbackExecutor);
+    }
+
+    public MidiIoExecutor(Executor ioExecutor, Executor callbackExecutor) {
+        this.ioExecutor = ioExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    private static Executor createIoExecutor() {
+        return new ThreadPoolExecutor(0, 1, IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+    }
+
+    public MidiTask<File> exportProject(Project project, final File file, MidiTask.Listener<File> listener) {
+        final Project snapshot = project.createDetachedCopy();
+        MidiTask<File> task = new MidiTask<File>(callbackExecutor, listener) {
+            @Override
+            protected File execute() throws IOException, MidiException {
+                new ProjectToMidiConverter().writeProjectAsMidi(snapshot, file, this);
+
+                return file;
+            }
+        };
+
+        ioExecutor.execute(task);
+
+        return task;
+    }
+
+    public MidiTask<Project> importProject(final File file, MidiTask.Listener<Project> listener) {
+        MidiTask<Project> task = new MidiTask<Project>(callbackExecutor, listener) {
+            @Override
+            protected Project execute() throws IOException, MidiException {
+                return new MidiToProjectConverter().convertMidiFileToProject(file, this);
+            }
+        };
+
+        ioExecutor.execute(task);
+
+        return task;
+    }
+
+    public MidiTask<List<MidiCatalogEntry>> refreshCatalog(final MidiCatalog catalog, MidiTask.Listener<List<MidiCatalogEntry>> listener) {
+        MidiTask<List<MidiCatalogEntry>> task = new MidiTask<List<MidiCatalogEntry>>(callbackExecutor, listener) {
+            @Override
+            protected List<MidiCatalogEntry> execute() {
+                return catalog.refresh();
+            }
+        };
+
+        ioExecutor.execute(task);
+
+        return task;
+    }
+}
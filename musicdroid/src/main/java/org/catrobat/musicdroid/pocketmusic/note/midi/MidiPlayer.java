@@ -23,29 +23,46 @@
 
 package org.catrobat.musicdroid.pocketmusic.note.midi;
 
-import android.media.MediaPlayer;
-import android.net.Uri;
+import android.content.Context;
+import android.content.res.Resources;
 
 import org.catrobat.musicdroid.pocketmusic.instrument.InstrumentActivity;
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
+import org.catrobat.musicdroid.pocketmusic.note.synth.AudioTrackSink;
+import org.catrobat.musicdroid.pocketmusic.note.synth.NotePreviewPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.SampleBank;
+import org.catrobat.musicdroid.pocketmusic.note.synth.StreamingTrackPlayer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.Synthesizer;
+import org.catrobat.musicdroid.pocketmusic.note.synth.TrackRenderer;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MidiPlayer {
 
-    private static final String TEMP_PLAY_FILE_NAME = "tmp_play.midi";
+    private static final String R_RAW = "raw";
 
     private static MidiPlayer instance;
 
-    protected MediaPlayer player;
-    protected Queue<Integer> playQueue;
+    protected NotePreviewPlayer notePreviewPlayer;
+    protected StreamingTrackPlayer trackPlayer;
+    protected Future<?> sampleBankLoad;
+    private SampleBank releasedSampleBank;
+    private final ExecutorService sampleBankExecutor;
+    private MusicalInstrument loadingInstrument;
+    private Octave loadingOctave;
 
     protected MidiPlayer() {
-        playQueue = new LinkedList<Integer>();
+        sampleBankExecutor = Executors.newSingleThreadExecutor();
     }
 
     public static MidiPlayer getInstance() {
@@ -57,112 +74,211 @@ public class MidiPlayer {
     }
 
     public boolean isPlaying() {
-        if (player != null) {
-            return player.isPlaying();
+        if ((null != trackPlayer) && trackPlayer.isPlaying()) {
+            return true;
+        }
+
+        if (null != notePreviewPlayer) {
+            return notePreviewPlayer.isPlaying();
         }
 
         return false;
     }
 
     public void stop() {
-        if ((null != player) && player.isPlaying()) {
-            player.stop();
+        if (null != notePreviewPlayer) {
+            notePreviewPlayer.stop();
         }
 
-        synchronized (playQueue) {
-            playQueue.clear();
+        if (null != trackPlayer) {
+            trackPlayer.stop();
         }
     }
 
-    public void clearPlayQueue() {
-        synchronized (playQueue) {
-            playQueue.clear();
+    public synchronized void release() {
+        stop();
+
+        if (null != notePreviewPlayer) {
+            releasedSampleBank = notePreviewPlayer.getSampleBank();
+            notePreviewPlayer.release();
+            notePreviewPlayer = null;
         }
     }
 
-    public void playNote(InstrumentActivity activity, int midiResourceId) {
-        synchronized (playQueue) {
-            if ((null == player) || (false == player.isPlaying() && playQueue.isEmpty())) {
-                createAndStartPlayer(activity, midiResourceId);
-            } else {
-                playQueue.add(midiResourceId);
-            }
+    public synchronized void prepareNotePreview() {
+        if (null == notePreviewPlayer) {
+            notePreviewPlayer = createNotePreviewPlayer();
+            notePreviewPlayer.setSampleBank(releasedSampleBank);
+            releasedSampleBank = null;
         }
-
     }
 
-    public void playTrack(InstrumentActivity activity, File cacheDirectory, Track track, int beatsPerMinute) throws IOException, MidiException {
-        synchronized (playQueue) {
-            playQueue.clear();
-        }
+    public synchronized void prepareNotePreview(Context context, MusicalInstrument instrument, Octave octave) {
+        prepareNotePreview();
 
-        File tempPlayFile = new File(cacheDirectory, TEMP_PLAY_FILE_NAME);
-        writeTempPlayFile(tempPlayFile, track, beatsPerMinute);
+        if (null != loadingInstrument) {
+            if ((loadingInstrument == instrument) && isSameOctave(loadingOctave, octave)) {
+                return;
+            }
+        } else if (isSampleBankLoaded(notePreviewPlayer.getSampleBank(), instrument, octave)) {
+            return;
+        }
 
-        player = createTrackPlayerWithOnCompletionListener(activity, tempPlayFile);
-        player.start();
+        loadingInstrument = instrument;
+        loadingOctave = octave;
+        sampleBankLoad = loadSampleBankInBackground(context.getApplicationContext(), instrument, octave);
     }
 
-    protected void writeTempPlayFile(File tempPlayFile, Track track, int beatsPerMinute) throws IOException, MidiException {
-        Project project = new Project(beatsPerMinute);
-        project.addTrack(track);
-        ProjectToMidiConverter converter = new ProjectToMidiConverter();
-        converter.writeProjectAsMidi(project, tempPlayFile);
+    private static boolean isSampleBankLoaded(SampleBank sampleBank, MusicalInstrument instrument, Octave octave) {
+        return (null != sampleBank) && (sampleBank.getInstrument() == instrument) && sampleBank.containsOctave(octave);
     }
 
-    private void createAndStartPlayer(final InstrumentActivity activity, final int midiResourceId) {
-        player = createNotePlayerWithOnCompletionListener(activity, midiResourceId);
-        player.start();
+    private static boolean isSameOctave(Octave octave, Octave otherOctave) {
+        return (null != octave) && Arrays.equals(octave.getNoteNames(), otherOctave.getNoteNames());
     }
 
-    private MediaPlayer createNotePlayerWithOnCompletionListener(final InstrumentActivity activity, final int midiResourceId) {
-        MediaPlayer player = createNotePlayer(activity, midiResourceId);
-
-        player.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+    protected Future<?> loadSampleBankInBackground(final Context context, final MusicalInstrument instrument, final Octave octave) {
+        return sampleBankExecutor.submit(new Runnable() {
             @Override
-            public void onCompletion(MediaPlayer mp) {
-                onPlayNoteComplete(activity);
+            public void run() {
+                SampleBank sampleBank = null;
+
+                try {
+                    sampleBank = loadSampleBank(context, instrument, octave);
+                } finally {
+                    onSampleBankLoaded(sampleBank, instrument, octave);
+                }
             }
         });
+    }
 
-        return player;
+    protected SampleBank loadSampleBank(Context context, MusicalInstrument instrument, Octave octave) {
+        try {
+            return SampleBank.loadOrCreate(context.getCacheDir(), instrument, octave, Synthesizer.DEFAULT_SAMPLE_RATE,
+                    readNoteDurations(context, octave));
+        } catch (IOException e) {
+            return null;
+        }
     }
 
-    protected MediaPlayer createNotePlayer(final InstrumentActivity activity, final int midiResourceId) {
-        return MediaPlayer.create(activity, midiResourceId);
+    private int[] readNoteDurations(Context context, Octave octave) {
+        Resources resources = context.getResources();
+        NoteName[] noteNames = octave.getNoteNames();
+        int[] noteDurations = SampleBank.createDefaultNoteDurations(octave);
+
+        for (int i = 0; i < noteNames.length; i++) {
+            int midiResourceId = resources.getIdentifier(noteNames[i].toString().toLowerCase(Locale.US), R_RAW, context.getPackageName());
+
+            if (0 != midiResourceId) {
+                noteDurations[i] = readNoteDuration(resources, midiResourceId, noteDurations[i]);
+            }
+        }
+
+        return noteDurations;
     }
 
-    protected void onPlayNoteComplete(final InstrumentActivity activity) {
-        synchronized (playQueue) {
-            if (false == playQueue.isEmpty()) {
-                createAndStartPlayer(activity, playQueue.poll());
+    private int readNoteDuration(Resources resources, int midiResourceId, int defaultDuration) {
+        try {
+            InputStream inputStream = resources.openRawResource(midiResourceId);
+
+            try {
+                return ReferenceNoteReader.readDurationInMilliseconds(inputStream);
+            } finally {
+                inputStream.close();
             }
+        } catch (IOException e) {
+            return defaultDuration;
+        } catch (MidiException e) {
+            return defaultDuration;
         }
     }
 
-    private MediaPlayer createTrackPlayerWithOnCompletionListener(final InstrumentActivity activity, final File tempPlayFile) {
-        MediaPlayer player = createTrackPlayer(activity, Uri.parse(tempPlayFile.getAbsolutePath()));
+    private synchronized void onSampleBankLoaded(SampleBank sampleBank, MusicalInstrument instrument, Octave octave) {
+        if ((loadingInstrument == instrument) && isSameOctave(loadingOctave, octave)) {
+            loadingInstrument = null;
+            loadingOctave = null;
+        }
+
+        if (null == sampleBank) {
+            return;
+        }
+
+        if (null != notePreviewPlayer) {
+            notePreviewPlayer.setSampleBank(sampleBank);
+        } else {
+            releasedSampleBank = sampleBank;
+        }
+    }
 
-        player.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+    public synchronized void playNote(NoteName noteName) {
+        prepareNotePreview();
+        notePreviewPlayer.playNote(noteName.getMidi());
+    }
+
+    public NotePreviewPlayer getNotePreviewPlayer() {
+        return notePreviewPlayer;
+    }
+
+    protected NotePreviewPlayer createNotePreviewPlayer() {
+        Synthesizer synthesizer = new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE);
+
+        return new NotePreviewPlayer(synthesizer, new AudioTrackSink(synthesizer.getSampleRate()));
+    }
+
+    public void playProject(InstrumentActivity activity, Project project) {
+        playProject(activity, project, 0);
+    }
+
+    public void playProject(InstrumentActivity activity, Project project, long startTick) {
+        if (null != notePreviewPlayer) {
+            notePreviewPlayer.stop();
+        }
+
+        if (null != trackPlayer) {
+            trackPlayer.stop();
+        }
+
+        trackPlayer = createTrackPlayerWithOnCompletionListener(activity, project);
+        trackPlayer.start(startTick);
+    }
+
+    public void seekTrack(long tick) {
+        if (null != trackPlayer) {
+            trackPlayer.seek(tick);
+        }
+    }
+
+    private StreamingTrackPlayer createTrackPlayerWithOnCompletionListener(final InstrumentActivity activity, final Project project) {
+        StreamingTrackPlayer trackPlayer = createTrackPlayer(project);
+
+        trackPlayer.setOnCompletionListener(new StreamingTrackPlayer.OnCompletionListener() {
             @Override
-            public void onCompletion(MediaPlayer mp) {
-                onPlayTrackComplete(activity, tempPlayFile);
+            public void onCompletion(StreamingTrackPlayer player) {
+                activity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPlayTrackComplete(activity);
+                    }
+                });
             }
         });
 
-        return player;
+        return trackPlayer;
     }
 
-    protected void onPlayTrackComplete(final InstrumentActivity activity, final File tempPlayFile) {
-        tempPlayFile.delete();
+    protected void onPlayTrackComplete(final InstrumentActivity activity) {
         activity.dismissPlayAllDialog();
     }
 
-    protected MediaPlayer createTrackPlayer(final InstrumentActivity activity, final Uri uri) {
-        return MediaPlayer.create(activity, uri);
-    }
+    protected StreamingTrackPlayer createTrackPlayer(final Project project) {
+        Track[] tracks = new Track[project.size()];
+        Synthesizer[] synthesizers = new Synthesizer[tracks.length];
+
+        for (int i = 0; i < tracks.length; i++) {
+            tracks[i] = project.getTrack(i);
+            synthesizers[i] = new Synthesizer(Synthesizer.DEFAULT_SAMPLE_RATE, tracks[i].getInstrument());
+        }
 
-    public int getPlayQueueSize(){
-        return playQueue.size();
+        return new StreamingTrackPlayer(new TrackRenderer(tracks, synthesizers), new AudioTrackSink(Synthesizer.DEFAULT_SAMPLE_RATE));
     }
 }
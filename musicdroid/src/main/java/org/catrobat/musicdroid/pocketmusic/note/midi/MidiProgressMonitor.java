@@ -1,6 +1,6 @@
 /*
  * Musicdroid: An on-device music generator for Android
- * Copyright (C) 2010-2014 The Catrobat Team
+ * Copyright (C) 2010-2015 The Catrobat Team
  * (<http://developer.catrobat.org/credits>)
  *
  * This program is free software: you can redistribute it and/or modify
@@ -20,25 +20,12 @@
  * You should have received a copy of the GNU Affero General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.catrobat.musicdroid.pocketmusic.note.midi;
-
 
-import com.leff.midi.event.ChannelEvent;
-import com.leff.midi.event.NoteOff;
-import com.leff.midi.event.NoteOn;
-
-import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+package org.catrobat.musicdroid.pocketmusic.note.midi;
 
-public class NoteEventToMidiEventConverter {
+public interface MidiProgressMonitor {
 
-	private static final int DEFAULT_NOISE = 64;
-	private static final int DEFAULT_SILENT = 0;
+    boolean isCancelled();
 
-	public ChannelEvent convertNoteEvent(long tick, NoteEvent noteEvent, int channel) {
-		if (noteEvent.isNoteOn()) {
-			return new NoteOn(tick, channel, noteEvent.getNoteName().getMidi(), DEFAULT_NOISE);
-		} else {
-			return new NoteOff(tick, channel, noteEvent.getNoteName().getMidi(), DEFAULT_SILENT);
-		}
-	}
+    void onProgress(long current, long total);
 }
@@ -0,0 +1,177 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+public abstract class MidiTask<T> implements Runnable, MidiProgressMonitor {
+
+    public interface Listener<T> {
+
+        void onProgress(int percent);
+
+        void onSuccess(T result);
+
+        void onError(Exception e);
+
+        void onCancelled();
+    }
+
+    private static final int MAX_PERCENT = 100;
+
+    private static final int STATE_RUNNING = 0;
+    private static final int STATE_SUCCEEDED = 1;
+    private static final int STATE_FAILED = 2;
+    private static final int STATE_CANCELLED = 3;
+    private static final int STATE_DELIVERED = 4;
+
+    private final Executor callbackExecutor;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private int lastPercent;
+
+    // Only touched on the callback executor.
+    private Listener<T> listener;
+    private int postedPercent;
+    private int state;
+    private T result;
+    private Exception error;
+
+    protected MidiTask(Executor callbackExecutor, Listener<T> listener) {
+        this.callbackExecutor = callbackExecutor;
+        this.listener = listener;
+        cancelled = false;
+        done = false;
+        lastPercent = -1;
+        postedPercent = -1;
+        state = STATE_RUNNING;
+    }
+
+    protected abstract T execute() throws IOException, MidiException;
+
+    @Override
+    public void run() {
+        try {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+
+            postResult(STATE_SUCCEEDED, execute(), null);
+        } catch (CancellationException e) {
+            postResult(STATE_CANCELLED, null, null);
+        } catch (Exception e) {
+            postResult(STATE_FAILED, null, e);
+        } finally {
+            done = true;
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setListener(Listener<T> listener) {
+        this.listener = listener;
+
+        if ((null == listener) || (STATE_DELIVERED == state)) {
+            return;
+        }
+
+        if (postedPercent >= 0) {
+            listener.onProgress(postedPercent);
+        }
+
+        deliverResult();
+    }
+
+    public void detachListener() {
+        listener = null;
+    }
+
+    @Override
+    public void onProgress(long current, long total) {
+        final int percent = (total > 0) ? (int) Math.min(MAX_PERCENT, current * MAX_PERCENT / total) : MAX_PERCENT;
+
+        if (percent == lastPercent) {
+            return;
+        }
+
+        lastPercent = percent;
+
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                postedPercent = percent;
+
+                if ((null != listener) && (STATE_RUNNING == state)) {
+                    listener.onProgress(percent);
+                }
+            }
+        });
+    }
+
+    private void postResult(final int resultState, final T result, final Exception error) {
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                state = resultState;
+                MidiTask.this.result = result;
+                MidiTask.this.error = error;
+
+                deliverResult();
+            }
+        });
+    }
+
+    private void deliverResult() {
+        if ((null == listener) || (STATE_RUNNING == state) || (STATE_DELIVERED == state)) {
+            return;
+        }
+
+        int deliveredState = state;
+        state = STATE_DELIVERED;
+
+        if ((STATE_CANCELLED == deliveredState) || cancelled) {
+            listener.onCancelled();
+        } else if (STATE_SUCCEEDED == deliveredState) {
+            listener.onSuccess(result);
+        } else {
+            listener.onError(error);
+        }
+
+        result = null;
+        error = null;
+    }
+}
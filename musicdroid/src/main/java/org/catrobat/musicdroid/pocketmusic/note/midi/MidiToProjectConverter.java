@@ -22,15 +22,6 @@
  */
 package org.catrobat.musicdroid.pocketmusic.note.midi;
 
-import com.leff.midi.MidiFile;
-import com.leff.midi.MidiTrack;
-import com.leff.midi.event.MidiEvent;
-import com.leff.midi.event.NoteOff;
-import com.leff.midi.event.NoteOn;
-import com.leff.midi.event.ProgramChange;
-import com.leff.midi.event.meta.Tempo;
-import com.leff.midi.event.meta.Text;
-
 import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
 import org.catrobat.musicdroid.pocketmusic.note.MusicalKey;
 import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
@@ -40,55 +31,112 @@ import org.catrobat.musicdroid.pocketmusic.note.Track;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 public class MidiToProjectConverter {
 
 	private static final MusicalInstrument DEFAULT_INSTRUMENT = MusicalInstrument.ACOUSTIC_GRAND_PIANO;
 
+	private static final int HEADER_CHUNK_ID = 0x4D546864;
+	private static final int TRACK_CHUNK_ID = 0x4D54726B;
+	private static final int HEADER_CHUNK_MIN_SIZE = 6;
+
+	private static final int NOTE_OFF = 0x8;
+	private static final int NOTE_ON = 0x9;
+	private static final int PROGRAM_CHANGE = 0xC;
+	private static final int CHANNEL_AFTERTOUCH = 0xD;
+	private static final int SYSTEM_EXCLUSIVE = 0xF0;
+	private static final int SYSTEM_EXCLUSIVE_ESCAPE = 0xF7;
+	private static final int META_EVENT = 0xFF;
+	private static final int META_TEXT = 0x01;
+	private static final int META_TEMPO = 0x51;
+	private static final int META_TEMPO_SIZE = 3;
+	private static final float MICROSECONDS_PER_MINUTE = 60000000f;
+
+	private static final int INITIAL_EVENT_CAPACITY = 256;
+	private static final int PROGRESS_INTERVAL_IN_EVENTS = 1024;
+
 	private int beatsPerMinute;
+	private long[] eventTicks;
+	private int[] eventCodes;
+	private int eventCount;
+	private MidiProgressMonitor monitor;
 
 	public MidiToProjectConverter() {
 		beatsPerMinute = Project.DEFAULT_BEATS_PER_MINUTE;
+		eventTicks = new long[INITIAL_EVENT_CAPACITY];
+		eventCodes = new int[INITIAL_EVENT_CAPACITY];
 	}
 
 	public Project convertMidiFileToProject(File file) throws MidiException, IOException {
-		MidiFile midi = new MidiFile(file);
+		return convertMidiFileToProject(file, null);
+	}
 
-		validateMidiFile(midi);
+	public Project convertMidiFileToProject(File file, MidiProgressMonitor monitor) throws MidiException, IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
 
-		return convertMidi(midi);
-	}
+		this.monitor = monitor;
 
-	private void validateMidiFile(MidiFile midiFile) throws MidiException {
-		if (midiFile.getTrackCount() > 0) {
-			MidiTrack tempoTrack = midiFile.getTracks().get(0);
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
 
-			Iterator<MidiEvent> it = tempoTrack.getEvents().iterator();
+			return convertMidi(buffer);
+		} catch (BufferUnderflowException e) {
+			throw new MidiException("Unsupported MIDI!");
+		} catch (IndexOutOfBoundsException e) {
+			throw new MidiException("Unsupported MIDI!");
+		} finally {
+			this.monitor = null;
+			randomAccessFile.close();
+		}
+	}
 
-			if (it.hasNext()) {
-				MidiEvent event = it.next();
+	private Project convertMidi(ByteBuffer buffer) throws MidiException {
+		if ((buffer.remaining() < 8) || (buffer.getInt() != HEADER_CHUNK_ID)) {
+			throw new MidiException("Unsupported MIDI!");
+		}
 
-				if (event instanceof Text) {
-					Text text = (Text) event;
+		int headerSize = buffer.getInt();
 
-					if (text.getText().equals(ProjectToMidiConverter.MIDI_FILE_IDENTIFIER)) {
-						return;
-					}
-				}
-			}
+		if (headerSize < HEADER_CHUNK_MIN_SIZE) {
+			throw new MidiException("Unsupported MIDI!");
 		}
 
-		throw new MidiException("Unsupported MIDI!");
-	}
+		buffer.getShort();
+		int trackCount = buffer.getShort() & 0xFFFF;
+		buffer.position(buffer.position() + headerSize - 4);
 
-	private Project convertMidi(MidiFile midi) {
 		List<Track> tracks = new ArrayList<Track>();
 
-		for (MidiTrack midiTrack : midi.getTracks()) {
-			tracks.add(createTrack(midiTrack));
+		for (int i = 0; (i < trackCount) && (buffer.remaining() >= 8); i++) {
+			int chunkId = buffer.getInt();
+			int chunkSize = buffer.getInt();
+			int chunkEnd = buffer.position() + chunkSize;
+
+			if ((chunkSize < 0) || (chunkEnd > buffer.limit())) {
+				throw new MidiException("Unsupported MIDI!");
+			}
+
+			if (TRACK_CHUNK_ID == chunkId) {
+				tracks.add(convertTrackChunk(buffer, chunkEnd, 0 == i));
+			} else if (0 == i) {
+				throw new MidiException("Unsupported MIDI!");
+			}
+
+			buffer.position(chunkEnd);
+			reportProgress(buffer);
+		}
+
+		if (tracks.isEmpty()) {
+			throw new MidiException("Unsupported MIDI!");
 		}
 
 		Project project = new Project(beatsPerMinute);
@@ -102,53 +150,149 @@ public class MidiToProjectConverter {
 		return project;
 	}
 
-	private Track createTrack(MidiTrack midiTrack) {
-		MusicalInstrument instrument = getInstrumentFromMidiTrack(midiTrack);
-		Track track = new Track(MusicalKey.VIOLIN, instrument, beatsPerMinute);
-		Iterator<MidiEvent> it = midiTrack.getEvents().iterator();
+	private Track convertTrackChunk(ByteBuffer buffer, int chunkEnd, boolean validate) throws MidiException {
+		int trackBeatsPerMinute = beatsPerMinute;
+		MusicalInstrument instrument = null;
+		long tick = 0;
+		int runningStatus = 0;
+		boolean firstEvent = true;
+		int eventIndex = 0;
+
+		eventCount = 0;
+
+		while (buffer.position() < chunkEnd) {
+			if (0 == (++eventIndex % PROGRESS_INTERVAL_IN_EVENTS)) {
+				reportProgress(buffer);
+			}
+
+			tick += readVariableLengthInt(buffer);
+
+			int status = buffer.get(buffer.position()) & 0xFF;
+
+			if (status >= 0x80) {
+				buffer.get();
+			} else if (0 == runningStatus) {
+				throw new MidiException("Unsupported MIDI!");
+			} else {
+				status = runningStatus;
+			}
+
+			if (META_EVENT == status) {
+				int type = buffer.get() & 0xFF;
+				int length = readVariableLengthInt(buffer);
+				int dataEnd = buffer.position() + length;
+
+				if (validate && firstEvent && ((META_TEXT != type) || (false == isFileIdentifier(buffer, length)))) {
+					throw new MidiException("Unsupported MIDI!");
+				}
+
+				if ((META_TEMPO == type) && (META_TEMPO_SIZE == length)) {
+					int microsecondsPerQuarterNote = ((buffer.get() & 0xFF) << 16) | ((buffer.get() & 0xFF) << 8) | (buffer.get() & 0xFF);
+					beatsPerMinute = (int) (MICROSECONDS_PER_MINUTE / microsecondsPerQuarterNote);
+				}
+
+				buffer.position(dataEnd);
+				runningStatus = 0;
+			} else if ((SYSTEM_EXCLUSIVE == status) || (SYSTEM_EXCLUSIVE_ESCAPE == status)) {
+				if (validate && firstEvent) {
+					throw new MidiException("Unsupported MIDI!");
+				}
 
-		while (it.hasNext()) {
-			MidiEvent midiEvent = it.next();
+				int length = readVariableLengthInt(buffer);
+				buffer.position(buffer.position() + length);
+				runningStatus = 0;
+			} else {
+				if (validate && firstEvent) {
+					throw new MidiException("Unsupported MIDI!");
+				}
 
-			if (midiEvent instanceof NoteOn) {
-				NoteOn noteOn = (NoteOn) midiEvent;
-				long tick = noteOn.getTick();
-				NoteName noteName = NoteName.getNoteNameFromMidiValue(noteOn.getNoteValue());
-				NoteEvent noteEvent = new NoteEvent(noteName, true);
+				int type = status >> 4;
+				int data1 = buffer.get() & 0xFF;
 
-				track.addNoteEvent(tick, noteEvent);
-			} else if (midiEvent instanceof NoteOff) {
-				NoteOff noteOff = (NoteOff) midiEvent;
-				long tick = noteOff.getTick();
-				NoteName noteName = NoteName.getNoteNameFromMidiValue(noteOff.getNoteValue());
-				NoteEvent noteEvent = new NoteEvent(noteName, false);
+				if ((PROGRAM_CHANGE != type) && (CHANNEL_AFTERTOUCH != type)) {
+					buffer.get();
+				}
 
-				track.addNoteEvent(tick, noteEvent);
-			} else if (midiEvent instanceof Tempo) {
-				Tempo tempo = (Tempo) midiEvent;
+				if (NOTE_ON == type) {
+					addEvent(tick, data1, true);
+				} else if (NOTE_OFF == type) {
+					addEvent(tick, data1, false);
+				} else if ((PROGRAM_CHANGE == type) && (null == instrument)) {
+					instrument = MusicalInstrument.getInstrumentFromProgram(data1);
+				}
 
-				beatsPerMinute = (int) tempo.getBpm();
+				runningStatus = status;
 			}
+
+			firstEvent = false;
+		}
+
+		if (validate && firstEvent) {
+			throw new MidiException("Unsupported MIDI!");
+		}
+
+		Track track = new Track(MusicalKey.VIOLIN, (null == instrument) ? DEFAULT_INSTRUMENT : instrument, trackBeatsPerMinute);
+
+		for (int i = 0; i < eventCount; i++) {
+			track.addNoteEvent(eventTicks[i], NoteEvent.fromCode(eventCodes[i]));
 		}
 
 		return track;
 	}
 
-	private MusicalInstrument getInstrumentFromMidiTrack(MidiTrack midiTrack) {
-		Iterator<MidiEvent> it = midiTrack.getEvents().iterator();
-        MusicalInstrument instrument = DEFAULT_INSTRUMENT;
+	private void reportProgress(ByteBuffer buffer) {
+		if (null == monitor) {
+			return;
+		}
+
+		if (monitor.isCancelled()) {
+			throw new CancellationException();
+		}
+
+		monitor.onProgress(buffer.position(), buffer.limit());
+	}
+
+	private boolean isFileIdentifier(ByteBuffer buffer, int length) {
+		String identifier = ProjectToMidiConverter.MIDI_FILE_IDENTIFIER;
 
-		while (it.hasNext()) {
-			MidiEvent midiEvent = it.next();
+		if (identifier.length() != length) {
+			return false;
+		}
 
-			if (midiEvent instanceof ProgramChange) {
-				ProgramChange program = (ProgramChange) midiEvent;
+		int position = buffer.position();
 
-				instrument = MusicalInstrument.getInstrumentFromProgram(program.getProgramNumber());
-				break;
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(position + i) != identifier.charAt(i)) {
+				return false;
 			}
 		}
 
-		return instrument;
+		return true;
+	}
+
+	private void addEvent(long tick, int midi, boolean noteOn) {
+		if (eventCount == eventTicks.length) {
+			eventTicks = Arrays.copyOf(eventTicks, eventCount * 2);
+			eventCodes = Arrays.copyOf(eventCodes, eventCount * 2);
+		}
+
+		eventTicks[eventCount] = tick;
+		eventCodes[eventCount] = NoteEvent.encode(NoteName.getNoteNameFromMidiValue(midi), noteOn);
+		eventCount++;
+	}
+
+	static int readVariableLengthInt(ByteBuffer buffer) throws MidiException {
+		int value = 0;
+
+		for (int i = 0; i < 4; i++) {
+			int b = buffer.get() & 0xFF;
+			value = (value << 7) | (b & 0x7F);
+
+			if (0 == (b & 0x80)) {
+				return value;
+			}
+		}
+
+		throw new MidiException("Unsupported MIDI!");
 	}
 }
@@ -0,0 +1,279 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CancellationException;
+
+class MidiTrackEncoder {
+
+    private static final byte[] HEADER_CHUNK_ID = { 'M', 'T', 'h', 'd' };
+    private static final byte[] TRACK_CHUNK_ID = { 'M', 'T', 'r', 'k' };
+    private static final int HEADER_CHUNK_SIZE = 6;
+    private static final int SINGLE_TRACK_FORMAT = 0;
+    private static final int MULTI_TRACK_FORMAT = 1;
+
+    private static final int NOTE_OFF_STATUS = 0x80;
+    private static final int NOTE_ON_STATUS = 0x90;
+    private static final int PROGRAM_CHANGE_STATUS = 0xC0;
+    private static final int NOTE_ON_VELOCITY = 64;
+    private static final int NOTE_OFF_VELOCITY = 0;
+
+    private static final int META_EVENT = 0xFF;
+    private static final int META_TEXT = 0x01;
+    private static final int META_END_OF_TRACK = 0x2F;
+    private static final int META_TEMPO = 0x51;
+    private static final int META_TIME_SIGNATURE = 0x58;
+    private static final int TEMPO_SIZE = 3;
+    private static final int TIME_SIGNATURE_SIZE = 4;
+    private static final int TIME_SIGNATURE_NUMERATOR = 4;
+    private static final int TIME_SIGNATURE_DENOMINATOR_POWER = 2;
+    private static final int TIME_SIGNATURE_METER = 24;
+    private static final int TIME_SIGNATURE_DIVISION = 8;
+    private static final float MICROSECONDS_PER_MINUTE = 60000000f;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int NOTE_OFF_SORT_FLAG = 1 << 8;
+    private static final int MIDI_MASK = 0xFF;
+    private static final int NO_STATUS = -1;
+    private static final int PROGRESS_INTERVAL_IN_NOTE_EVENTS = 1024;
+
+    private ByteBuffer buffer;
+    private int[] sortKeys;
+    private int runningStatus;
+    private long lastTick;
+
+    public MidiTrackEncoder() {
+        buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        sortKeys = new int[0];
+    }
+
+    public void clear() {
+        buffer.clear();
+    }
+
+    public void writeTo(FileChannel channel) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    public void encodeHeaderChunk(int trackCount) {
+        ensureCapacity(HEADER_CHUNK_ID.length + 4 + HEADER_CHUNK_SIZE);
+
+        buffer.put(HEADER_CHUNK_ID);
+        buffer.putInt(HEADER_CHUNK_SIZE);
+        buffer.putShort((short) ((trackCount > 1) ? MULTI_TRACK_FORMAT : SINGLE_TRACK_FORMAT));
+        buffer.putShort((short) trackCount);
+        buffer.putShort((short) MidiFileWriter.RESOLUTION);
+    }
+
+    public void encodeTempoTrack(int beatsPerMinute) {
+        int sizePosition = beginTrackChunk();
+        byte[] text = ProjectToMidiConverter.MIDI_FILE_IDENTIFIER.getBytes();
+        int microsecondsPerQuarterNote = (int) (MICROSECONDS_PER_MINUTE / beatsPerMinute);
+
+        ensureCapacity(text.length + 32);
+
+        writeMetaEventStart(0, META_TEXT, text.length);
+        buffer.put(text);
+
+        writeMetaEventStart(0, META_TEMPO, TEMPO_SIZE);
+        buffer.put((byte) (microsecondsPerQuarterNote >> 16));
+        buffer.put((byte) (microsecondsPerQuarterNote >> 8));
+        buffer.put((byte) microsecondsPerQuarterNote);
+
+        writeMetaEventStart(0, META_TIME_SIGNATURE, TIME_SIGNATURE_SIZE);
+        buffer.put((byte) TIME_SIGNATURE_NUMERATOR);
+        buffer.put((byte) TIME_SIGNATURE_DENOMINATOR_POWER);
+        buffer.put((byte) TIME_SIGNATURE_METER);
+        buffer.put((byte) TIME_SIGNATURE_DIVISION);
+
+        endTrackChunk(sizePosition);
+    }
+
+    public void encodeNoteTrack(Track track, int channel, MidiProgressMonitor monitor, long progressOffset, long progressTotal) {
+        int sizePosition = beginTrackChunk();
+        int progress = 0;
+        int nextProgressReport = 0;
+
+        writeChannelEvent(0, PROGRAM_CHANGE_STATUS + channel, track.getInstrument().getProgram(), NO_STATUS);
+
+        Track.TickIterator it = track.tickIterator();
+
+        while (it.hasNext()) {
+            long tick = it.next();
+            int noteEventCount = it.getNoteEventCount();
+            int first = 0;
+
+            if (tick > 0) {
+                writeNoteEvent(tick, it.getNoteEventCode(0), channel);
+                first = 1;
+            }
+
+            writeSortedNoteEvents(it, tick, first, noteEventCount, channel);
+            progress += noteEventCount;
+
+            if ((null != monitor) && (progress >= nextProgressReport)) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException();
+                }
+
+                monitor.onProgress(progressOffset + progress, progressTotal);
+                nextProgressReport = progress + PROGRESS_INTERVAL_IN_NOTE_EVENTS;
+            }
+        }
+
+        endTrackChunk(sizePosition);
+    }
+
+    private void writeSortedNoteEvents(Track.TickIterator it, long tick, int first, int last, int channel) {
+        int count = last - first;
+
+        if (sortKeys.length < count) {
+            sortKeys = new int[Math.max(count, sortKeys.length * 2)];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int code = it.getNoteEventCode(first + i);
+            int key = NoteEvent.getMidiFromCode(code) | (NoteEvent.isNoteOnCode(code) ? 0 : NOTE_OFF_SORT_FLAG);
+            int j = i;
+
+            while ((j > 0) && (sortKeys[j - 1] > key)) {
+                sortKeys[j] = sortKeys[j - 1];
+                j--;
+            }
+
+            sortKeys[j] = key;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if ((i > 0) && (sortKeys[i] == sortKeys[i - 1])) {
+                continue;
+            }
+
+            int midi = sortKeys[i] & MIDI_MASK;
+
+            if (0 == (sortKeys[i] & NOTE_OFF_SORT_FLAG)) {
+                writeChannelEvent(tick, NOTE_ON_STATUS + channel, midi, NOTE_ON_VELOCITY);
+            } else {
+                writeChannelEvent(tick, NOTE_OFF_STATUS + channel, midi, NOTE_OFF_VELOCITY);
+            }
+        }
+    }
+
+    private void writeNoteEvent(long tick, int code, int channel) {
+        int midi = NoteEvent.getMidiFromCode(code);
+
+        if (NoteEvent.isNoteOnCode(code)) {
+            writeChannelEvent(tick, NOTE_ON_STATUS + channel, midi, NOTE_ON_VELOCITY);
+        } else {
+            writeChannelEvent(tick, NOTE_OFF_STATUS + channel, midi, NOTE_OFF_VELOCITY);
+        }
+    }
+
+    private void writeChannelEvent(long tick, int status, int data1, int data2) {
+        ensureCapacity(8);
+        writeDeltaTime(tick);
+
+        if (status != runningStatus) {
+            buffer.put((byte) status);
+            runningStatus = status;
+        }
+
+        buffer.put((byte) data1);
+
+        if (NO_STATUS != data2) {
+            buffer.put((byte) data2);
+        }
+    }
+
+    private void writeMetaEventStart(long tick, int type, int length) {
+        writeDeltaTime(tick);
+        buffer.put((byte) META_EVENT);
+        buffer.put((byte) type);
+        writeVariableLengthInt(length);
+        runningStatus = NO_STATUS;
+    }
+
+    private int beginTrackChunk() {
+        ensureCapacity(TRACK_CHUNK_ID.length + 4);
+
+        buffer.put(TRACK_CHUNK_ID);
+        int sizePosition = buffer.position();
+        buffer.putInt(0);
+
+        runningStatus = NO_STATUS;
+        lastTick = 0;
+
+        return sizePosition;
+    }
+
+    private void endTrackChunk(int sizePosition) {
+        ensureCapacity(8);
+        writeMetaEventStart(lastTick + 1, META_END_OF_TRACK, 0);
+
+        buffer.putInt(sizePosition, buffer.position() - sizePosition - 4);
+    }
+
+    private void writeDeltaTime(long tick) {
+        writeVariableLengthInt((int) (tick - lastTick));
+        lastTick = tick;
+    }
+
+    private void writeVariableLengthInt(int value) {
+        int shift = 28;
+
+        while ((shift > 0) && (0 == (value >>> shift))) {
+            shift -= 7;
+        }
+
+        while (shift > 0) {
+            buffer.put((byte) (0x80 | ((value >>> shift) & 0x7F)));
+            shift -= 7;
+        }
+
+        buffer.put((byte) (value & 0x7F));
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (buffer.remaining() >= additionalBytes) {
+            return;
+        }
+
+        ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + additionalBytes));
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+}
@@ -24,23 +24,11 @@ package org.catrobat.musicdroid.pocketmusic.note.midi;
 
 import android.os.Environment;
 
-import com.leff.midi.MidiFile;
-import com.leff.midi.MidiTrack;
-import com.leff.midi.event.ChannelEvent;
-import com.leff.midi.event.ProgramChange;
-import com.leff.midi.event.meta.Tempo;
-import com.leff.midi.event.meta.Text;
-import com.leff.midi.event.meta.TimeSignature;
-
-import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
-import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
 import org.catrobat.musicdroid.pocketmusic.note.Project;
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 public class ProjectToMidiConverter {
 
@@ -48,39 +36,55 @@ public class ProjectToMidiConverter {
 	public static final String MIDI_FILE_IDENTIFIER = "Musicdroid Midi File";
     public static final File MIDI_FOLDER = new File(Environment.getExternalStorageDirectory().toString() + File.separator + "musicdroid");
 
-	private static final int MAX_CHANNEL = 16;
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
 
-	private NoteEventToMidiEventConverter eventConverter;
-	private ArrayList<MusicalInstrument> usedChannels;
+	private MidiFileWriter midiFileWriter;
 
 	public ProjectToMidiConverter() {
-		eventConverter = new NoteEventToMidiEventConverter();
-		usedChannels = new ArrayList<MusicalInstrument>();
+		midiFileWriter = new MidiFileWriter();
 	}
     
 	public void writeProjectAsMidi(Project project, String filename) throws IOException, MidiException {
-		MidiFile midi = convertProject(project);
+        writeProjectAsMidi(project, getMidiFile(filename), null);
+	}
+
+    public void writeProjectAsMidi(Project project, File file) throws IOException, MidiException {
+        writeProjectAsMidi(project, file, null);
+    }
 
-        if (!MIDI_FOLDER.exists()) {
-            boolean success = MIDI_FOLDER.mkdir();
+    public void writeProjectAsMidi(Project project, File file, MidiProgressMonitor monitor) throws IOException, MidiException {
+        int[] channels = convertProject(project);
+
+        File folder = file.getAbsoluteFile().getParentFile();
+
+        if ((null != folder) && !folder.exists()) {
+            boolean success = folder.mkdirs();
 
             if (!success) {
-                throw new IOException("Could not create folder: " + MIDI_FOLDER);
+                throw new IOException("Could not create folder: " + folder);
             }
         }
 
-		File file = new File(MIDI_FOLDER + File.separator + filename + MIDI_FILE_EXTENSION);
+        File tempFile = new File(file.getPath() + TEMP_FILE_EXTENSION);
 
-		midi.writeToFile(file);
-	}
+        try {
+            midiFileWriter.writeProject(project, channels, tempFile, monitor);
 
-    public void writeProjectAsMidi(Project project, File file) throws IOException, MidiException {
-        MidiFile midi = convertProject(project);
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Could not write file: " + file);
+            }
+        } finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
 
-        midi.writeToFile(file);
+    public static File getMidiFile(String filename) {
+        return new File(MIDI_FOLDER + File.separator + filename + MIDI_FILE_EXTENSION);
     }
 
-	private MidiFile convertProject(Project project) throws MidiException {
+	private int[] convertProject(Project project) throws MidiException {
         for (int i = 0; i < project.size(); i++) {
             Track track = project.getTrack(i);
 
@@ -89,67 +93,6 @@ public class ProjectToMidiConverter {
             }
         }
 
-		ArrayList<MidiTrack> tracks = new ArrayList<MidiTrack>();
-
-		MidiTrack tempoTrack = createTempoTrackWithMetaInfo(project.getBeatsPerMinute());
-		tracks.add(tempoTrack);
-
-		for (int i = 0; i < project.size(); i++) {
-			Track track = project.getTrack(i);
-			int channel = addInstrumentAndGetChannel(track.getInstrument());
-
-			MidiTrack noteTrack = createNoteTrack(track, channel);
-
-			tracks.add(noteTrack);
-		}
-
-		return new MidiFile(MidiFile.DEFAULT_RESOLUTION, tracks);
-	}
-
-    private int addInstrumentAndGetChannel(MusicalInstrument instrument) throws MidiException {
-		if (usedChannels.contains(instrument)) {
-			return usedChannels.indexOf(instrument) + 1;
-		} else if (usedChannels.size() == MAX_CHANNEL) {
-			throw new MidiException("You cannot have more than " + MAX_CHANNEL + " channels!");
-		} else {
-			usedChannels.add(instrument);
-
-			return usedChannels.indexOf(instrument) + 1;
-		}
-	}
-
-	private MidiTrack createTempoTrackWithMetaInfo(int beatsPerMinute) {
-		MidiTrack tempoTrack = new MidiTrack();
-
-		Text text = new Text(0, 0, MIDI_FILE_IDENTIFIER);
-		tempoTrack.insertEvent(text);
-
-		Tempo tempo = new Tempo();
-		tempo.setBpm(beatsPerMinute);
-		tempoTrack.insertEvent(tempo);
-
-		TimeSignature timeSignature = new TimeSignature();
-		timeSignature.setTimeSignature(4, 4, TimeSignature.DEFAULT_METER, TimeSignature.DEFAULT_DIVISION);
-		tempoTrack.insertEvent(timeSignature);
-
-		return tempoTrack;
-	}
-
-	private MidiTrack createNoteTrack(Track track, int channel) throws MidiException {
-		MidiTrack noteTrack = new MidiTrack();
-
-		ProgramChange program = new ProgramChange(0, channel, track.getInstrument().getProgram());
-		noteTrack.insertEvent(program);
-
-		for (long tick : track.getSortedTicks()) {
-			List<NoteEvent> noteEventList = track.getNoteEventsForTick(tick);
-
-			for (NoteEvent noteEvent : noteEventList) {
-				ChannelEvent channelEvent = eventConverter.convertNoteEvent(tick, noteEvent, channel);
-				noteTrack.insertEvent(channelEvent);
-			}
-		}
-
-		return noteTrack;
+		return new MidiChannelAllocator().allocateChannels(project);
 	}
 }
@@ -0,0 +1,163 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.midi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+public final class ReferenceNoteReader {
+
+	private static final int HEADER_CHUNK_ID = 0x4D546864;
+	private static final int TRACK_CHUNK_ID = 0x4D54726B;
+	private static final int HEADER_CHUNK_MIN_SIZE = 6;
+
+	private static final int NOTE_OFF = 0x8;
+	private static final int NOTE_ON = 0x9;
+	private static final int PROGRAM_CHANGE = 0xC;
+	private static final int CHANNEL_AFTERTOUCH = 0xD;
+	private static final int SYSTEM_EXCLUSIVE = 0xF0;
+	private static final int SYSTEM_EXCLUSIVE_ESCAPE = 0xF7;
+	private static final int META_EVENT = 0xFF;
+	private static final int META_TEMPO = 0x51;
+	private static final int META_TEMPO_SIZE = 3;
+	private static final int DEFAULT_MICROSECONDS_PER_QUARTER_NOTE = 500000;
+	private static final int MILLISECOND_IN_MICROSECONDS = 1000;
+	private static final int READ_BUFFER_SIZE = 256;
+
+	private ReferenceNoteReader() {
+	}
+
+	public static int readDurationInMilliseconds(InputStream inputStream) throws IOException, MidiException {
+		try {
+			return readDurationInMilliseconds(ByteBuffer.wrap(readFully(inputStream)));
+		} catch (BufferUnderflowException e) {
+			throw new MidiException("Unsupported MIDI!");
+		} catch (IllegalArgumentException e) {
+			throw new MidiException("Unsupported MIDI!");
+		}
+	}
+
+	private static byte[] readFully(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		int length;
+
+		while ((length = inputStream.read(buffer)) > 0) {
+			outputStream.write(buffer, 0, length);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	private static int readDurationInMilliseconds(ByteBuffer buffer) throws MidiException {
+		if (buffer.getInt() != HEADER_CHUNK_ID) {
+			throw new MidiException("Unsupported MIDI!");
+		}
+
+		int headerSize = buffer.getInt();
+
+		if (headerSize < HEADER_CHUNK_MIN_SIZE) {
+			throw new MidiException("Unsupported MIDI!");
+		}
+
+		buffer.getShort();
+		int trackCount = buffer.getShort() & 0xFFFF;
+		int ticksPerQuarterNote = buffer.getShort();
+		buffer.position(buffer.position() + headerSize - HEADER_CHUNK_MIN_SIZE);
+
+		if (ticksPerQuarterNote <= 0) {
+			throw new MidiException("Unsupported MIDI!");
+		}
+
+		int microsecondsPerQuarterNote = DEFAULT_MICROSECONDS_PER_QUARTER_NOTE;
+
+		for (int i = 0; i < trackCount; i++) {
+			int chunkId = buffer.getInt();
+			int chunkEnd = buffer.getInt() + buffer.position();
+
+			if (TRACK_CHUNK_ID != chunkId) {
+				buffer.position(chunkEnd);
+				continue;
+			}
+
+			long tick = 0;
+			long noteOnTick = -1;
+			int noteOnMidi = -1;
+			int runningStatus = 0;
+
+			while (buffer.position() < chunkEnd) {
+				tick += MidiToProjectConverter.readVariableLengthInt(buffer);
+
+				int status = buffer.get(buffer.position()) & 0xFF;
+
+				if (status >= 0x80) {
+					buffer.get();
+				} else if (0 == runningStatus) {
+					throw new MidiException("Unsupported MIDI!");
+				} else {
+					status = runningStatus;
+				}
+
+				if (META_EVENT == status) {
+					int type = buffer.get() & 0xFF;
+					int length = MidiToProjectConverter.readVariableLengthInt(buffer);
+					int dataEnd = buffer.position() + length;
+
+					if ((META_TEMPO == type) && (META_TEMPO_SIZE == length)) {
+						microsecondsPerQuarterNote = ((buffer.get() & 0xFF) << 16) | ((buffer.get() & 0xFF) << 8) | (buffer.get() & 0xFF);
+					}
+
+					buffer.position(dataEnd);
+					runningStatus = 0;
+				} else if ((SYSTEM_EXCLUSIVE == status) || (SYSTEM_EXCLUSIVE_ESCAPE == status)) {
+					int length = MidiToProjectConverter.readVariableLengthInt(buffer);
+					buffer.position(buffer.position() + length);
+					runningStatus = 0;
+				} else {
+					int type = status >> 4;
+					int data1 = buffer.get() & 0xFF;
+					int data2 = ((PROGRAM_CHANGE != type) && (CHANNEL_AFTERTOUCH != type)) ? (buffer.get() & 0xFF) : 0;
+					boolean noteOff = (NOTE_OFF == type) || ((NOTE_ON == type) && (0 == data2));
+
+					if ((NOTE_ON == type) && (false == noteOff) && (noteOnTick < 0)) {
+						noteOnTick = tick;
+						noteOnMidi = data1;
+					} else if (noteOff && (noteOnMidi == data1)) {
+						long microseconds = (tick - noteOnTick) * microsecondsPerQuarterNote / ticksPerQuarterNote;
+						return (int) (microseconds / MILLISECOND_IN_MICROSECONDS);
+					}
+
+					runningStatus = status;
+				}
+			}
+
+			buffer.position(chunkEnd);
+		}
+
+		throw new MidiException("Unsupported MIDI!");
+	}
+}
@@ -44,6 +44,7 @@ public class NoteSymbol extends Symbol {
 
 	public void addNote(NoteName noteName, NoteLength noteLength) {
 		notes.put(noteName, noteLength);
+		modificationCount++;
 	}
 
 	public int size() {
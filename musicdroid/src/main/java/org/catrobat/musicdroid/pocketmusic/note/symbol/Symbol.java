@@ -25,9 +25,11 @@ package org.catrobat.musicdroid.pocketmusic.note.symbol;
 public abstract class Symbol {
 
     protected boolean marked;
+    protected int modificationCount;
 
     public Symbol() {
         marked = false;
+        modificationCount = 0;
     }
 
     public boolean isMarked() {
@@ -36,6 +38,11 @@ public abstract class Symbol {
 
     public void setMarked(boolean marked) {
         this.marked = marked;
+        modificationCount++;
+    }
+
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     @Override
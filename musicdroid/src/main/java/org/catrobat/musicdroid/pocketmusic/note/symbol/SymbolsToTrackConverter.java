@@ -47,8 +47,8 @@ public class SymbolsToTrackConverter {
                     NoteLength noteLength = noteSymbol.getNoteLength(noteName);
                     long tickOffset = noteLength.toTicks(beatsPerMinute);
 
-                    track.addNoteEvent(tick, new NoteEvent(noteName, true));
-                    track.addNoteEvent(tick + tickOffset, new NoteEvent(noteName, false));
+                    track.addNoteEvent(tick, NoteEvent.valueOf(noteName, true));
+                    track.addNoteEvent(tick + tickOffset, NoteEvent.valueOf(noteName, false));
 
                     if (tickOffset > currentMaxTickOffset) {
                         currentMaxTickOffset = tickOffset;
@@ -24,19 +24,83 @@ package org.catrobat.musicdroid.pocketmusic.note.symbol;
 
 import org.catrobat.musicdroid.pocketmusic.note.Track;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
 public class TrackToSymbolsConverter {
 
+	private Track convertedTrack;
+	private int convertedTickCount;
+	private int convertedNoteEventCount;
+	private long convertedLastTick;
+	private int convertedLastTickNoteEventCount;
+	private NoteEventsToSymbolsConverter noteEventListConverter;
+	private List<Symbol> symbols;
+
 	public List<Symbol> convertTrack(Track track) {
 		NoteEventsToSymbolsConverter noteEventListConverter = new NoteEventsToSymbolsConverter();
 		List<Symbol> symbols = new LinkedList<Symbol>();
 
-		for (long tick : track.getSortedTicks()) {
-			symbols.addAll(noteEventListConverter.convertNoteEventList(tick, track.getNoteEventsForTick(tick), track.getBeatsPerMinute()));
+		Track.TickIterator it = track.tickIterator();
+
+		while (it.hasNext()) {
+			long tick = it.next();
+			symbols.addAll(noteEventListConverter.convertNoteEventList(tick, it.getNoteEvents(), track.getBeatsPerMinute()));
+		}
+
+		return symbols;
+	}
+
+	public List<Symbol> convertTrackIncrementally(Track track) {
+		Track.TickIterator it;
+
+		if (isAppendedTo(track)) {
+			it = track.tickIterator(convertedTickCount);
+		} else {
+			convertedTrack = track;
+			convertedTickCount = 0;
+			convertedNoteEventCount = 0;
+			noteEventListConverter = new NoteEventsToSymbolsConverter();
+			symbols = new ArrayList<Symbol>();
+			it = track.tickIterator();
+		}
+
+		while (it.hasNext()) {
+			long tick = it.next();
+			symbols.addAll(noteEventListConverter.convertNoteEventList(tick, it.getNoteEvents(), track.getBeatsPerMinute()));
+
+			convertedTickCount++;
+			convertedNoteEventCount += it.getNoteEventCount();
+			convertedLastTick = tick;
+			convertedLastTickNoteEventCount = it.getNoteEventCount();
 		}
 
 		return symbols;
 	}
+
+	private boolean isAppendedTo(Track track) {
+		if ((track != convertedTrack) || (track.getTickCount() < convertedTickCount) || (track.size() < convertedNoteEventCount)) {
+			return false;
+		}
+
+		if (0 == convertedTickCount) {
+			return true;
+		}
+
+		Track.TickIterator it = track.tickIterator(convertedTickCount - 1);
+
+		if ((it.next() != convertedLastTick) || (it.getNoteEventCount() != convertedLastTickNoteEventCount)) {
+			return false;
+		}
+
+		int appendedNoteEventCount = 0;
+
+		while (it.hasNext()) {
+			it.next();
+			appendedNoteEventCount += it.getNoteEventCount();
+		}
+
+		return (convertedNoteEventCount + appendedNoteEventCount == track.size());
+	}
 }
@@ -0,0 +1,379 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import java.io.IOException;
+
+public class NotePreviewPlayer implements Runnable {
+
+    public static final int CHUNK_SIZE_IN_FRAMES = 256;
+    public static final int PREVIEW_DURATION_MILLISECONDS = 500;
+
+    private static final int SECOND_IN_MILLISECONDS = 1000;
+    private static final long NO_RELEASE_FRAME = -1;
+    private static final int NO_SAMPLE_VOICE_MIDI = -1;
+
+    private final Synthesizer synthesizer;
+    private final AudioSink sink;
+    private final short[] chunk;
+    private final int previewFrames;
+    private final long[] releaseFrames;
+    private final int[] pendingMidi;
+    private final long[] pendingPressTimes;
+    private final int[] sampleVoiceMidi;
+    private final int[] sampleVoicePositions;
+    private final long[] sampleVoiceStartOrders;
+    private final Object lock;
+
+    private SampleBank sampleBank;
+    private SampleBank pendingSampleBank;
+    private long sampleVoiceStartOrder;
+    private int pendingCount;
+    private long framePosition;
+    private boolean threadActive;
+    private boolean released;
+    private volatile boolean running;
+    private volatile int polyphony;
+
+    private int maxPolyphony;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+    private long totalLatencyNanos;
+    private int latencyCount;
+
+    public NotePreviewPlayer(Synthesizer synthesizer, AudioSink sink) {
+        this.synthesizer = synthesizer;
+        this.sink = sink;
+
+        chunk = new short[CHUNK_SIZE_IN_FRAMES];
+        previewFrames = synthesizer.getSampleRate() * PREVIEW_DURATION_MILLISECONDS / SECOND_IN_MILLISECONDS;
+        releaseFrames = new long[Synthesizer.MAX_MIDI_VALUE + 1];
+        pendingMidi = new int[Synthesizer.MAX_VOICES];
+        pendingPressTimes = new long[Synthesizer.MAX_VOICES];
+        sampleVoiceMidi = new int[Synthesizer.MAX_VOICES];
+        sampleVoicePositions = new int[Synthesizer.MAX_VOICES];
+        sampleVoiceStartOrders = new long[Synthesizer.MAX_VOICES];
+        lock = new Object();
+
+        for (int i = 0; i < releaseFrames.length; i++) {
+            releaseFrames[i] = NO_RELEASE_FRAME;
+        }
+
+        resetSampleVoices();
+
+        sampleBank = null;
+        pendingSampleBank = null;
+        sampleVoiceStartOrder = 0;
+
+        pendingCount = 0;
+        framePosition = 0;
+        threadActive = false;
+        released = false;
+        running = false;
+        polyphony = 0;
+        resetMetrics();
+    }
+
+    public void playNote(int midi) {
+        if ((midi < 0) || (midi > Synthesizer.MAX_MIDI_VALUE)) {
+            throw new IllegalArgumentException("Invalid midi value: " + midi);
+        }
+
+        boolean startThread;
+
+        synchronized (lock) {
+            if (released) {
+                throw new IllegalStateException("Note preview player has been released");
+            }
+
+            if (pendingCount < pendingMidi.length) {
+                pendingMidi[pendingCount] = midi;
+                pendingPressTimes[pendingCount] = System.nanoTime();
+                pendingCount++;
+            }
+
+            startThread = (false == threadActive);
+            threadActive = true;
+            running = true;
+            lock.notify();
+        }
+
+        if (startThread) {
+            startPlaybackThread();
+        }
+    }
+
+    public void setSampleBank(SampleBank sampleBank) {
+        synchronized (lock) {
+            pendingSampleBank = sampleBank;
+        }
+    }
+
+    public SampleBank getSampleBank() {
+        synchronized (lock) {
+            return (null != pendingSampleBank) ? pendingSampleBank : sampleBank;
+        }
+    }
+
+    protected void startPlaybackThread() {
+        new Thread(this).start();
+    }
+
+    public void stop() {
+        synchronized (lock) {
+            pendingCount = 0;
+            running = false;
+            lock.notify();
+        }
+    }
+
+    public void release() {
+        synchronized (lock) {
+            pendingCount = 0;
+            running = false;
+            released = true;
+            lock.notify();
+
+            if (false == threadActive) {
+                closeSink();
+            }
+        }
+    }
+
+    public boolean isReleased() {
+        synchronized (lock) {
+            return released;
+        }
+    }
+
+    public boolean isPlaying() {
+        return running && (polyphony > 0);
+    }
+
+    public int getPolyphony() {
+        return polyphony;
+    }
+
+    public int getMaxPolyphony() {
+        synchronized (lock) {
+            return maxPolyphony;
+        }
+    }
+
+    public long getLastLatencyNanos() {
+        synchronized (lock) {
+            return lastLatencyNanos;
+        }
+    }
+
+    public long getMaxLatencyNanos() {
+        synchronized (lock) {
+            return maxLatencyNanos;
+        }
+    }
+
+    public long getAverageLatencyNanos() {
+        synchronized (lock) {
+            if (0 == latencyCount) {
+                return 0;
+            }
+
+            return totalLatencyNanos / latencyCount;
+        }
+    }
+
+    public void resetMetrics() {
+        synchronized (lock) {
+            maxPolyphony = 0;
+            lastLatencyNanos = 0;
+            maxLatencyNanos = 0;
+            totalLatencyNanos = 0;
+            latencyCount = 0;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (waitForNotes()) {
+                renderChunk();
+            }
+        } catch (IOException e) {
+            finishPlaybackThread();
+        } catch (InterruptedException e) {
+            finishPlaybackThread();
+        }
+    }
+
+    private boolean waitForNotes() throws IOException, InterruptedException {
+        synchronized (lock) {
+            if (running && (0 == pendingCount) && (0 == polyphony)) {
+                sink.flush();
+
+                while (running && (0 == pendingCount)) {
+                    lock.wait();
+                }
+            }
+
+            if (false == running) {
+                sink.flush();
+                finishPlaybackThread();
+            }
+
+            return running;
+        }
+    }
+
+    private void finishPlaybackThread() {
+        synchronized (lock) {
+            synthesizer.allNotesOff();
+
+            for (int i = 0; i < releaseFrames.length; i++) {
+                releaseFrames[i] = NO_RELEASE_FRAME;
+            }
+
+            resetSampleVoices();
+            polyphony = 0;
+            running = false;
+            threadActive = false;
+
+            if (released) {
+                closeSink();
+            }
+        }
+    }
+
+    private void closeSink() {
+        try {
+            sink.close();
+        } catch (IOException e) {
+            // nothing left to write to either way
+        }
+    }
+
+    public void renderChunk() throws IOException {
+        int pressedCount;
+        long firstPressTime = 0;
+
+        synchronized (lock) {
+            if (null != pendingSampleBank) {
+                sampleBank = pendingSampleBank;
+                pendingSampleBank = null;
+                resetSampleVoices();
+            }
+
+            pressedCount = pendingCount;
+
+            for (int i = 0; i < pendingCount; i++) {
+                int midi = pendingMidi[i];
+
+                if ((null != sampleBank) && sampleBank.hasSample(midi)) {
+                    startSampleVoice(midi);
+                } else {
+                    synthesizer.noteOn(midi);
+                    releaseFrames[midi] = framePosition + previewFrames;
+                }
+
+                if ((0 == i) || (pendingPressTimes[i] < firstPressTime)) {
+                    firstPressTime = pendingPressTimes[i];
+                }
+            }
+
+            pendingCount = 0;
+        }
+
+        for (int midi = 0; midi < releaseFrames.length; midi++) {
+            if ((NO_RELEASE_FRAME != releaseFrames[midi]) && (releaseFrames[midi] <= framePosition)) {
+                synthesizer.noteOff(midi);
+                releaseFrames[midi] = NO_RELEASE_FRAME;
+            }
+        }
+
+        synthesizer.render(chunk, 0, chunk.length);
+        framePosition += chunk.length;
+        polyphony = synthesizer.getActiveVoiceCount() + mixSampleVoices();
+
+        sink.write(chunk, 0, chunk.length);
+
+        synchronized (lock) {
+            if (pressedCount > 0) {
+                lastLatencyNanos = System.nanoTime() - firstPressTime;
+                maxLatencyNanos = Math.max(maxLatencyNanos, lastLatencyNanos);
+                totalLatencyNanos += lastLatencyNanos;
+                latencyCount++;
+            }
+
+            maxPolyphony = Math.max(maxPolyphony, polyphony);
+        }
+    }
+
+    private void resetSampleVoices() {
+        for (int i = 0; i < sampleVoiceMidi.length; i++) {
+            sampleVoiceMidi[i] = NO_SAMPLE_VOICE_MIDI;
+        }
+    }
+
+    private void startSampleVoice(int midi) {
+        int selectedVoice = 0;
+
+        for (int i = 0; i < sampleVoiceMidi.length; i++) {
+            if ((NO_SAMPLE_VOICE_MIDI == sampleVoiceMidi[i]) || (sampleVoiceMidi[i] == midi)) {
+                selectedVoice = i;
+                break;
+            }
+
+            if (sampleVoiceStartOrders[i] < sampleVoiceStartOrders[selectedVoice]) {
+                selectedVoice = i;
+            }
+        }
+
+        sampleVoiceStartOrder++;
+        sampleVoiceMidi[selectedVoice] = midi;
+        sampleVoicePositions[selectedVoice] = 0;
+        sampleVoiceStartOrders[selectedVoice] = sampleVoiceStartOrder;
+    }
+
+    private int mixSampleVoices() {
+        int activeVoiceCount = 0;
+
+        for (int i = 0; i < sampleVoiceMidi.length; i++) {
+            int midi = sampleVoiceMidi[i];
+
+            if (NO_SAMPLE_VOICE_MIDI == midi) {
+                continue;
+            }
+
+            int frames = sampleBank.mixInto(midi, sampleVoicePositions[i], chunk, 0, chunk.length);
+            sampleVoicePositions[i] += frames;
+
+            if (sampleVoicePositions[i] >= sampleBank.getSampleLength(midi)) {
+                sampleVoiceMidi[i] = NO_SAMPLE_VOICE_MIDI;
+            } else {
+                activeVoiceCount++;
+            }
+        }
+
+        return activeVoiceCount;
+    }
+}
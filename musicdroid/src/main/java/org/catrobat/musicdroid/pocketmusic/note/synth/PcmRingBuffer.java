@@ -0,0 +1,77 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+public class PcmRingBuffer {
+
+    private short[] samples;
+    private int readPosition;
+    private int size;
+
+    public PcmRingBuffer(int capacity) {
+        samples = new short[capacity];
+        clear();
+    }
+
+    public int capacity() {
+        return samples.length;
+    }
+
+    public int available() {
+        return size;
+    }
+
+    public int getFreeSpace() {
+        return samples.length - size;
+    }
+
+    public void clear() {
+        readPosition = 0;
+        size = 0;
+    }
+
+    public int write(short[] buffer, int offset, int length) {
+        int count = Math.min(length, getFreeSpace());
+        int writePosition = (readPosition + size) % samples.length;
+        int firstPart = Math.min(count, samples.length - writePosition);
+
+        System.arraycopy(buffer, offset, samples, writePosition, firstPart);
+        System.arraycopy(buffer, offset + firstPart, samples, 0, count - firstPart);
+        size += count;
+
+        return count;
+    }
+
+    public int read(short[] buffer, int offset, int length) {
+        int count = Math.min(length, size);
+        int firstPart = Math.min(count, samples.length - readPosition);
+
+        System.arraycopy(samples, readPosition, buffer, offset, firstPart);
+        System.arraycopy(samples, 0, buffer, offset + firstPart, count - firstPart);
+        readPosition = (readPosition + count) % samples.length;
+        size -= count;
+
+        return count;
+    }
+}
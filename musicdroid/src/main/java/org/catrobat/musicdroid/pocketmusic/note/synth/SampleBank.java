@@ -0,0 +1,294 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+import org.catrobat.musicdroid.pocketmusic.note.NoteName;
+import org.catrobat.musicdroid.pocketmusic.note.Octave;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+public class SampleBank {
+
+    public static final int SAMPLE_DURATION_MILLISECONDS = NotePreviewPlayer.PREVIEW_DURATION_MILLISECONDS;
+
+    private static final int MAGIC = 0x4d445342;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE_IN_BYTES = 20;
+    private static final int ENTRY_SIZE_IN_BYTES = 12;
+    private static final int BYTES_PER_SAMPLE = 2;
+    private static final int SECOND_IN_MILLISECONDS = 1000;
+    private static final int RENDER_BUFFER_SIZE = 1024;
+    private static final String FILE_NAME_PREFIX = "sample_bank_";
+    private static final String FILE_EXTENSION = ".pcm";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    private final MusicalInstrument instrument;
+    private final int sampleRate;
+    private final ShortBuffer samples;
+    private final int[] sampleOffsets;
+    private final int[] sampleLengths;
+
+    private SampleBank(MusicalInstrument instrument, int sampleRate, ShortBuffer samples, int[] sampleOffsets, int[] sampleLengths) {
+        this.instrument = instrument;
+        this.sampleRate = sampleRate;
+        this.samples = samples;
+        this.sampleOffsets = sampleOffsets;
+        this.sampleLengths = sampleLengths;
+    }
+
+    public static File getBankFile(File directory, MusicalInstrument instrument) {
+        return new File(directory, FILE_NAME_PREFIX + instrument.toString().toLowerCase(Locale.US) + FILE_EXTENSION);
+    }
+
+    public static SampleBank loadOrCreate(File directory, MusicalInstrument instrument, Octave octave, int sampleRate) throws IOException {
+        return loadOrCreate(directory, instrument, octave, sampleRate, createDefaultNoteDurations(octave));
+    }
+
+    public static SampleBank loadOrCreate(File directory, MusicalInstrument instrument, Octave octave, int sampleRate,
+                                          int[] noteDurationsInMilliseconds) throws IOException {
+        File bankFile = getBankFile(directory, instrument);
+
+        if (bankFile.exists()) {
+            SampleBank sampleBank = load(bankFile);
+
+            if ((null != sampleBank) && sampleBank.matches(instrument, octave, sampleRate, noteDurationsInMilliseconds)) {
+                return sampleBank;
+            }
+        }
+
+        File tempFile = new File(directory, bankFile.getName() + TEMP_FILE_EXTENSION);
+        write(tempFile, instrument, octave, sampleRate, noteDurationsInMilliseconds);
+
+        if (false == tempFile.renameTo(bankFile)) {
+            tempFile.delete();
+            throw new IOException("Could not create sample bank: " + bankFile);
+        }
+
+        return load(bankFile);
+    }
+
+    public static int[] createDefaultNoteDurations(Octave octave) {
+        int[] noteDurations = new int[octave.getNoteNames().length];
+
+        for (int i = 0; i < noteDurations.length; i++) {
+            noteDurations[i] = SAMPLE_DURATION_MILLISECONDS;
+        }
+
+        return noteDurations;
+    }
+
+    private static int getNoteFrames(int sampleRate, int durationInMilliseconds) {
+        return (int) ((long) sampleRate * durationInMilliseconds / SECOND_IN_MILLISECONDS);
+    }
+
+    public static void write(File bankFile, MusicalInstrument instrument, Octave octave, int sampleRate,
+                             int[] noteDurationsInMilliseconds) throws IOException {
+        NoteName[] noteNames = octave.getNoteNames();
+        Synthesizer synthesizer = new Synthesizer(sampleRate, instrument);
+        int tableSize = HEADER_SIZE_IN_BYTES + noteNames.length * ENTRY_SIZE_IN_BYTES;
+        int sampleOffset = 0;
+
+        ByteBuffer table = ByteBuffer.allocate(tableSize).order(ByteOrder.LITTLE_ENDIAN);
+        table.putInt(MAGIC);
+        table.putInt(VERSION);
+        table.putInt(instrument.getProgram());
+        table.putInt(sampleRate);
+        table.putInt(noteNames.length);
+
+        for (int i = 0; i < noteNames.length; i++) {
+            int sampleLength = getNoteFrames(sampleRate, noteDurationsInMilliseconds[i]) + synthesizer.getReleaseFrames();
+
+            table.putInt(noteNames[i].getMidi());
+            table.putInt(sampleOffset);
+            table.putInt(sampleLength);
+
+            sampleOffset += sampleLength;
+        }
+
+        RandomAccessFile file = new RandomAccessFile(bankFile, "rw");
+
+        try {
+            FileChannel channel = file.getChannel();
+            short[] renderBuffer = new short[RENDER_BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.allocate(RENDER_BUFFER_SIZE * BYTES_PER_SAMPLE).order(ByteOrder.LITTLE_ENDIAN);
+
+            file.setLength(0);
+            table.flip();
+            channel.write(table);
+
+            for (int i = 0; i < noteNames.length; i++) {
+                int midi = noteNames[i].getMidi();
+                int noteFrames = getNoteFrames(sampleRate, noteDurationsInMilliseconds[i]);
+                int sampleLength = noteFrames + synthesizer.getReleaseFrames();
+
+                synthesizer.allNotesOff();
+                synthesizer.noteOn(midi);
+
+                for (int frame = 0; frame < sampleLength; ) {
+                    if (frame == noteFrames) {
+                        synthesizer.noteOff(midi);
+                    }
+
+                    int limit = (frame < noteFrames) ? noteFrames : sampleLength;
+                    int length = Math.min(renderBuffer.length, limit - frame);
+
+                    synthesizer.render(renderBuffer, 0, length);
+
+                    byteBuffer.clear();
+                    byteBuffer.asShortBuffer().put(renderBuffer, 0, length);
+                    byteBuffer.limit(length * BYTES_PER_SAMPLE);
+                    channel.write(byteBuffer);
+
+                    frame += length;
+                }
+            }
+
+            channel.force(false);
+        } finally {
+            file.close();
+        }
+    }
+
+    public static SampleBank load(File bankFile) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(bankFile, "r");
+
+        try {
+            FileChannel channel = file.getChannel();
+
+            if (channel.size() < HEADER_SIZE_IN_BYTES) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if ((buffer.getInt() != MAGIC) || (buffer.getInt() != VERSION)) {
+                return null;
+            }
+
+            MusicalInstrument instrument = MusicalInstrument.getInstrumentFromProgram(buffer.getInt());
+            int sampleRate = buffer.getInt();
+            int noteCount = buffer.getInt();
+            long dataSize = channel.size() - HEADER_SIZE_IN_BYTES - (long) noteCount * ENTRY_SIZE_IN_BYTES;
+
+            if ((noteCount < 0) || (noteCount > Synthesizer.MAX_MIDI_VALUE + 1) || (dataSize < 0)) {
+                return null;
+            }
+
+            int[] sampleOffsets = new int[Synthesizer.MAX_MIDI_VALUE + 1];
+            int[] sampleLengths = new int[Synthesizer.MAX_MIDI_VALUE + 1];
+
+            for (int i = 0; i < noteCount; i++) {
+                int midi = buffer.getInt();
+                int offset = buffer.getInt();
+                int length = buffer.getInt();
+
+                if ((midi < 0) || (midi > Synthesizer.MAX_MIDI_VALUE) || (offset < 0) || (length < 0)
+                        || ((long) offset + length) * BYTES_PER_SAMPLE > dataSize) {
+                    return null;
+                }
+
+                sampleOffsets[midi] = offset;
+                sampleLengths[midi] = length;
+            }
+
+            ShortBuffer samples = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+
+            return new SampleBank(instrument, sampleRate, samples, sampleOffsets, sampleLengths);
+        } finally {
+            file.close();
+        }
+    }
+
+    public MusicalInstrument getInstrument() {
+        return instrument;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean hasSample(int midi) {
+        return (midi >= 0) && (midi < sampleLengths.length) && (sampleLengths[midi] > 0);
+    }
+
+    public int getSampleLength(int midi) {
+        return sampleLengths[midi];
+    }
+
+    private boolean matches(MusicalInstrument instrument, Octave octave, int sampleRate, int[] noteDurationsInMilliseconds) {
+        if ((this.instrument != instrument) || (this.sampleRate != sampleRate) || (false == containsOctave(octave))) {
+            return false;
+        }
+
+        int releaseFrames = Synthesizer.getReleaseFrames(sampleRate, instrument);
+        NoteName[] noteNames = octave.getNoteNames();
+
+        for (int i = 0; i < noteNames.length; i++) {
+            if (sampleLengths[noteNames[i].getMidi()] != getNoteFrames(sampleRate, noteDurationsInMilliseconds[i]) + releaseFrames) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean containsOctave(Octave octave) {
+        for (NoteName noteName : octave.getNoteNames()) {
+            if (false == hasSample(noteName.getMidi())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int mixInto(int midi, int position, short[] buffer, int offset, int length) {
+        int frames = Math.min(length, sampleLengths[midi] - position);
+        int sampleIndex = sampleOffsets[midi] + position;
+
+        for (int i = 0; i < frames; i++) {
+            int sample = buffer[offset + i] + samples.get(sampleIndex + i);
+
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+
+            buffer[offset + i] = (short) sample;
+        }
+
+        return Math.max(frames, 0);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import java.io.IOException;
+
+public class StreamingTrackPlayer implements Runnable {
+
+    public static final int CHUNK_SIZE_IN_FRAMES = 512;
+    public static final int RING_BUFFER_CHUNKS = 4;
+
+    private final TrackRenderer renderer;
+    private final AudioSink sink;
+    private final PcmRingBuffer ringBuffer;
+    private final short[] renderChunk;
+    private final short[] outputChunk;
+    private final Object lock;
+
+    private volatile boolean playing;
+    private OnCompletionListener onCompletionListener;
+
+    public StreamingTrackPlayer(TrackRenderer renderer, AudioSink sink) {
+        this.renderer = renderer;
+        this.sink = sink;
+
+        ringBuffer = new PcmRingBuffer(CHUNK_SIZE_IN_FRAMES * RING_BUFFER_CHUNKS);
+        renderChunk = new short[CHUNK_SIZE_IN_FRAMES];
+        outputChunk = new short[CHUNK_SIZE_IN_FRAMES];
+        lock = new Object();
+        playing = false;
+    }
+
+    public void setOnCompletionListener(OnCompletionListener onCompletionListener) {
+        this.onCompletionListener = onCompletionListener;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public long getTick() {
+        synchronized (lock) {
+            return renderer.getTick();
+        }
+    }
+
+    public void start(long tick) {
+        seek(tick);
+
+        playing = true;
+        startPlaybackThread();
+    }
+
+    protected void startPlaybackThread() {
+        new Thread(this).start();
+    }
+
+    public void seek(long tick) {
+        synchronized (lock) {
+            renderer.seekToTick(tick);
+            ringBuffer.clear();
+        }
+    }
+
+    public void stop() {
+        playing = false;
+    }
+
+    @Override
+    public void run() {
+        boolean completed;
+
+        try {
+            boolean streaming = true;
+
+            while (playing && streaming) {
+                streaming = streamChunk();
+            }
+
+            completed = playing;
+
+            if (false == completed) {
+                sink.flush();
+            }
+
+            sink.close();
+        } catch (IOException e) {
+            completed = playing;
+        }
+
+        playing = false;
+
+        if (completed) {
+            onComplete();
+        }
+    }
+
+    protected boolean streamChunk() throws IOException {
+        int length;
+
+        synchronized (lock) {
+            while ((ringBuffer.getFreeSpace() >= renderChunk.length) && (false == renderer.isFinished())) {
+                int frames = renderer.render(renderChunk, 0, renderChunk.length);
+                ringBuffer.write(renderChunk, 0, frames);
+            }
+
+            length = ringBuffer.read(outputChunk, 0, outputChunk.length);
+        }
+
+        if (0 == length) {
+            return false;
+        }
+
+        sink.write(outputChunk, 0, length);
+
+        return true;
+    }
+
+    protected void onComplete() {
+        if (null != onCompletionListener) {
+            onCompletionListener.onCompletion(this);
+        }
+    }
+
+    public interface OnCompletionListener {
+        void onCompletion(StreamingTrackPlayer player);
+    }
+}
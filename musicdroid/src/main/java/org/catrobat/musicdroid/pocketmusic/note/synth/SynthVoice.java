@@ -0,0 +1,133 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+public class SynthVoice {
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_ATTACK = 1;
+    private static final int STATE_DECAY = 2;
+    private static final int STATE_RELEASE = 3;
+
+    private static final float SILENCE = 0.0001f;
+
+    private final float[] waveTable;
+    private final float attackStep;
+    private final float decayFactor;
+    private final float releaseStep;
+
+    private int state;
+    private int midi;
+    private long startOrder;
+    private float phase;
+    private float phaseIncrement;
+    private float amplitude;
+
+    public SynthVoice(float[] waveTable, int attackFrames, int decayFrames, int releaseFrames) {
+        this.waveTable = waveTable;
+
+        attackStep = 1.0f / Math.max(1, attackFrames);
+        decayFactor = (float) Math.pow(SILENCE, 1.0 / Math.max(1, decayFrames));
+        releaseStep = 1.0f / Math.max(1, releaseFrames);
+
+        reset();
+    }
+
+    public void reset() {
+        state = STATE_IDLE;
+        midi = -1;
+        amplitude = 0;
+    }
+
+    public void start(int midi, float frequency, int sampleRate, long startOrder) {
+        if (false == isActive()) {
+            phase = 0;
+        }
+
+        this.midi = midi;
+        this.startOrder = startOrder;
+
+        state = STATE_ATTACK;
+        phaseIncrement = frequency * waveTable.length / sampleRate;
+    }
+
+    public void release() {
+        if (STATE_IDLE != state) {
+            state = STATE_RELEASE;
+        }
+    }
+
+    public boolean isActive() {
+        return STATE_IDLE != state;
+    }
+
+    public boolean isReleased() {
+        return STATE_RELEASE == state;
+    }
+
+    public int getMidi() {
+        return midi;
+    }
+
+    public long getStartOrder() {
+        return startOrder;
+    }
+
+    public void render(float[] mixBuffer, int offset, int length) {
+        int tableSize = waveTable.length;
+
+        for (int i = offset; (i < offset + length) && (STATE_IDLE != state); i++) {
+            if (STATE_ATTACK == state) {
+                amplitude += attackStep;
+
+                if (amplitude >= 1.0f) {
+                    amplitude = 1.0f;
+                    state = STATE_DECAY;
+                }
+            } else if (STATE_DECAY == state) {
+                amplitude *= decayFactor;
+
+                if (amplitude < SILENCE) {
+                    reset();
+                    break;
+                }
+            } else {
+                amplitude -= releaseStep;
+
+                if (amplitude <= 0) {
+                    reset();
+                    break;
+                }
+            }
+
+            mixBuffer[i] += waveTable[(int) phase] * amplitude;
+
+            phase += phaseIncrement;
+
+            if (phase >= tableSize) {
+                phase -= tableSize;
+            }
+        }
+    }
+}
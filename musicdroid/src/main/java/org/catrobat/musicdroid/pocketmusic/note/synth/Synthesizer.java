@@ -0,0 +1,209 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import org.catrobat.musicdroid.pocketmusic.note.MusicalInstrument;
+
+public class Synthesizer {
+
+    public static final int DEFAULT_SAMPLE_RATE = 22050;
+    public static final int MAX_VOICES = 16;
+    public static final int MAX_MIDI_VALUE = 127;
+
+    private static final int WAVE_TABLE_SIZE = 1024;
+    private static final int MIDI_A4 = 69;
+    private static final float FREQUENCY_A4 = 440.0f;
+    private static final int HALF_TONES_PER_OCTAVE = 12;
+
+    private static final int PROGRAMS_PER_FAMILY = 8;
+    private static final int SECOND_IN_MILLISECONDS = 1000;
+
+    // Harmonic weights and attack, decay, release in ms per General MIDI instrument family.
+    private static final float[][] FAMILY_HARMONICS = {
+            { 1.0f, 0.5f, 0.25f }, { 1.0f, 0.0f, 0.0f, 0.4f }, { 1.0f, 0.8f, 0.6f, 0.4f }, { 1.0f, 0.6f, 0.3f, 0.15f },
+            { 1.0f, 0.3f, 0.1f }, { 1.0f, 0.5f, 0.33f, 0.25f }, { 1.0f, 0.5f, 0.33f, 0.25f }, { 1.0f, 0.8f, 0.6f, 0.5f },
+            { 1.0f, 0.1f, 0.6f, 0.1f }, { 1.0f, 0.1f, 0.05f }, { 1.0f, 0.5f, 0.33f, 0.25f }, { 1.0f, 0.3f, 0.2f },
+            { 1.0f, 0.4f }, { 1.0f, 0.6f, 0.3f, 0.15f }, { 1.0f, 0.2f, 0.6f }, { 1.0f, 0.5f, 0.5f, 0.5f } };
+    private static final int[][] FAMILY_ENVELOPES = {
+            { 5, 2000, 80 }, { 2, 1200, 200 }, { 10, 30000, 40 }, { 3, 1200, 60 },
+            { 5, 1500, 60 }, { 80, 20000, 150 }, { 80, 20000, 150 }, { 40, 10000, 100 },
+            { 30, 10000, 80 }, { 40, 15000, 80 }, { 5, 20000, 50 }, { 300, 30000, 400 },
+            { 100, 8000, 300 }, { 3, 1200, 60 }, { 1, 400, 40 }, { 20, 3000, 200 } };
+
+    private static final float MASTER_GAIN = 0.25f;
+
+    private static final float[] FREQUENCIES = createFrequencies();
+
+    private final int sampleRate;
+    private final MusicalInstrument instrument;
+    private final int releaseFrames;
+    private final SynthVoice[] voices;
+    private float[] mixBuffer;
+    private long startOrder;
+
+    public Synthesizer(int sampleRate) {
+        this(sampleRate, MusicalInstrument.ACOUSTIC_GRAND_PIANO);
+    }
+
+    public Synthesizer(int sampleRate, MusicalInstrument instrument) {
+        this.sampleRate = sampleRate;
+        this.instrument = instrument;
+
+        int family = instrument.getProgram() / PROGRAMS_PER_FAMILY;
+        int[] envelope = FAMILY_ENVELOPES[family];
+        float[] waveTable = createWaveTable(FAMILY_HARMONICS[family]);
+        int attackFrames = sampleRate * envelope[0] / SECOND_IN_MILLISECONDS;
+        int decayFrames = sampleRate * envelope[1] / SECOND_IN_MILLISECONDS;
+        releaseFrames = getReleaseFrames(sampleRate, instrument);
+
+        voices = new SynthVoice[MAX_VOICES];
+
+        for (int i = 0; i < voices.length; i++) {
+            voices[i] = new SynthVoice(waveTable, attackFrames, decayFrames, releaseFrames);
+        }
+
+        mixBuffer = new float[0];
+        startOrder = 0;
+    }
+
+    private static float[] createFrequencies() {
+        float[] frequencies = new float[MAX_MIDI_VALUE + 1];
+
+        for (int midi = 0; midi <= MAX_MIDI_VALUE; midi++) {
+            frequencies[midi] = (float) (FREQUENCY_A4 * Math.pow(2, (midi - MIDI_A4) / (double) HALF_TONES_PER_OCTAVE));
+        }
+
+        return frequencies;
+    }
+
+    public static int getReleaseFrames(int sampleRate, MusicalInstrument instrument) {
+        return sampleRate * FAMILY_ENVELOPES[instrument.getProgram() / PROGRAMS_PER_FAMILY][2] / SECOND_IN_MILLISECONDS;
+    }
+
+    private static float[] createWaveTable(float[] harmonics) {
+        float[] waveTable = new float[WAVE_TABLE_SIZE];
+        float weightSum = 0;
+
+        for (float weight : harmonics) {
+            weightSum += weight;
+        }
+
+        for (int i = 0; i < WAVE_TABLE_SIZE; i++) {
+            double x = 2 * Math.PI * i / WAVE_TABLE_SIZE;
+            double sample = 0;
+
+            for (int harmonic = 0; harmonic < harmonics.length; harmonic++) {
+                sample += harmonics[harmonic] * Math.sin((harmonic + 1) * x);
+            }
+
+            waveTable[i] = (float) (sample / weightSum);
+        }
+
+        return waveTable;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public MusicalInstrument getInstrument() {
+        return instrument;
+    }
+
+    public int getReleaseFrames() {
+        return releaseFrames;
+    }
+
+    public int getActiveVoiceCount() {
+        int count = 0;
+
+        for (SynthVoice voice : voices) {
+            if (voice.isActive()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public void noteOn(int midi) {
+        SynthVoice selectedVoice = null;
+
+        for (SynthVoice voice : voices) {
+            if (voice.isActive() && (voice.getMidi() == midi)) {
+                selectedVoice = voice;
+                break;
+            }
+
+            if ((null == selectedVoice) || (selectedVoice.isActive() && (false == voice.isActive() || voice.getStartOrder() < selectedVoice.getStartOrder()))) {
+                selectedVoice = voice;
+            }
+        }
+
+        startOrder++;
+        selectedVoice.start(midi, FREQUENCIES[midi], sampleRate, startOrder);
+    }
+
+    public void noteOff(int midi) {
+        for (SynthVoice voice : voices) {
+            if (voice.isActive() && (voice.getMidi() == midi)) {
+                voice.release();
+            }
+        }
+    }
+
+    public void allNotesOff() {
+        for (SynthVoice voice : voices) {
+            voice.reset();
+        }
+    }
+
+    public void render(short[] buffer, int offset, int length) {
+        if (mixBuffer.length < length) {
+            mixBuffer = new float[length];
+        }
+
+        for (int i = 0; i < length; i++) {
+            mixBuffer[i] = 0;
+        }
+
+        for (SynthVoice voice : voices) {
+            if (voice.isActive()) {
+                voice.render(mixBuffer, 0, length);
+            }
+        }
+
+        for (int i = 0; i < length; i++) {
+            float sample = mixBuffer[i] * MASTER_GAIN;
+
+            if (sample > 1.0f) {
+                sample = 1.0f;
+            } else if (sample < -1.0f) {
+                sample = -1.0f;
+            }
+
+            buffer[offset + i] = (short) (sample * Short.MAX_VALUE);
+        }
+    }
+}
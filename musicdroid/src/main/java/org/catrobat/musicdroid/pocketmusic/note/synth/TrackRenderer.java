@@ -0,0 +1,229 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import org.catrobat.musicdroid.pocketmusic.note.NoteEvent;
+import org.catrobat.musicdroid.pocketmusic.note.NoteLength;
+import org.catrobat.musicdroid.pocketmusic.note.Track;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class TrackRenderer {
+
+    private static final int RENDER_BUFFER_SIZE = 1024;
+
+    private final Synthesizer[] synthesizers;
+    private final long[] eventFrames;
+    private final int[] eventCodes;
+    private final int[] eventParts;
+    private final long endFrame;
+    private final short[] partBuffer;
+
+    private int nextEventIndex;
+    private long framePosition;
+
+    public TrackRenderer(Track track, Synthesizer synthesizer) {
+        this(new Track[] { track }, new Synthesizer[] { synthesizer });
+    }
+
+    public TrackRenderer(Track[] tracks, Synthesizer[] synthesizers) {
+        this.synthesizers = synthesizers;
+
+        int eventCount = 0;
+
+        for (Track track : tracks) {
+            eventCount += track.size();
+        }
+
+        long[] frames = new long[eventCount];
+        int[] codes = new int[eventCount];
+        int[] partStarts = new int[tracks.length + 1];
+        long lastFrame = 0;
+        int eventIndex = 0;
+
+        for (int part = 0; part < tracks.length; part++) {
+            int sampleRate = synthesizers[part].getSampleRate();
+            Track.TickIterator it = tracks[part].tickIterator();
+
+            partStarts[part] = eventIndex;
+
+            while (it.hasNext()) {
+                long frame = NoteLength.tickToSampleFrames(it.next(), sampleRate);
+
+                for (int i = 0; i < it.getNoteEventCount(); i++) {
+                    frames[eventIndex] = frame;
+                    codes[eventIndex] = it.getNoteEventCode(i);
+                    eventIndex++;
+                }
+
+                lastFrame = Math.max(lastFrame, frame + synthesizers[part].getReleaseFrames());
+            }
+        }
+
+        partStarts[tracks.length] = eventIndex;
+
+        eventFrames = new long[eventCount];
+        eventCodes = new int[eventCount];
+        eventParts = new int[eventCount];
+        partBuffer = new short[(synthesizers.length > 1) ? RENDER_BUFFER_SIZE : 0];
+        mergeParts(frames, codes, partStarts);
+
+        endFrame = lastFrame;
+        nextEventIndex = 0;
+        framePosition = 0;
+    }
+
+    private void mergeParts(long[] frames, int[] codes, int[] partStarts) {
+        int partCount = partStarts.length - 1;
+        int[] partPositions = Arrays.copyOf(partStarts, partCount);
+
+        for (int eventIndex = 0; eventIndex < eventFrames.length; eventIndex++) {
+            int nextPart = -1;
+
+            for (int part = 0; part < partCount; part++) {
+                if ((partPositions[part] < partStarts[part + 1])
+                        && ((-1 == nextPart) || (frames[partPositions[part]] < frames[partPositions[nextPart]]))) {
+                    nextPart = part;
+                }
+            }
+
+            eventFrames[eventIndex] = frames[partPositions[nextPart]];
+            eventCodes[eventIndex] = codes[partPositions[nextPart]];
+            eventParts[eventIndex] = nextPart;
+            partPositions[nextPart]++;
+        }
+    }
+
+    public Synthesizer getSynthesizer() {
+        return synthesizers[0];
+    }
+
+    public long getFramePosition() {
+        return framePosition;
+    }
+
+    public long getEndFrame() {
+        return endFrame;
+    }
+
+    public long getTick() {
+        return NoteLength.sampleFramesToTick(framePosition, getSynthesizer().getSampleRate());
+    }
+
+    public boolean isFinished() {
+        return framePosition >= endFrame;
+    }
+
+    public void seekToTick(long tick) {
+        long frame = NoteLength.tickToSampleFrames(tick, getSynthesizer().getSampleRate());
+        boolean[][] soundingNotes = new boolean[synthesizers.length][Synthesizer.MAX_MIDI_VALUE + 1];
+        int eventIndex = 0;
+
+        while ((eventIndex < eventFrames.length) && (eventFrames[eventIndex] < frame)) {
+            int code = eventCodes[eventIndex];
+            soundingNotes[eventParts[eventIndex]][NoteEvent.getMidiFromCode(code)] = NoteEvent.isNoteOnCode(code);
+            eventIndex++;
+        }
+
+        for (int part = 0; part < synthesizers.length; part++) {
+            synthesizers[part].allNotesOff();
+
+            for (int midi = 0; midi < soundingNotes[part].length; midi++) {
+                if (soundingNotes[part][midi]) {
+                    synthesizers[part].noteOn(midi);
+                }
+            }
+        }
+
+        nextEventIndex = eventIndex;
+        framePosition = frame;
+    }
+
+    public int render(short[] buffer, int offset, int length) {
+        int renderedFrames = 0;
+
+        while ((renderedFrames < length) && (false == isFinished())) {
+            while ((nextEventIndex < eventFrames.length) && (eventFrames[nextEventIndex] <= framePosition)) {
+                int code = eventCodes[nextEventIndex];
+                Synthesizer synthesizer = synthesizers[eventParts[nextEventIndex]];
+
+                if (NoteEvent.isNoteOnCode(code)) {
+                    synthesizer.noteOn(NoteEvent.getMidiFromCode(code));
+                } else {
+                    synthesizer.noteOff(NoteEvent.getMidiFromCode(code));
+                }
+
+                nextEventIndex++;
+            }
+
+            long untilFrame = Math.min(endFrame, framePosition + length - renderedFrames);
+
+            if (nextEventIndex < eventFrames.length) {
+                untilFrame = Math.min(untilFrame, eventFrames[nextEventIndex]);
+            }
+
+            if (synthesizers.length > 1) {
+                untilFrame = Math.min(untilFrame, framePosition + partBuffer.length);
+            }
+
+            int frames = (int) (untilFrame - framePosition);
+
+            renderParts(buffer, offset + renderedFrames, frames);
+            renderedFrames += frames;
+            framePosition += frames;
+        }
+
+        return renderedFrames;
+    }
+
+    private void renderParts(short[] buffer, int offset, int length) {
+        synthesizers[0].render(buffer, offset, length);
+
+        for (int part = 1; part < synthesizers.length; part++) {
+            synthesizers[part].render(partBuffer, 0, length);
+
+            for (int i = 0; i < length; i++) {
+                int sample = buffer[offset + i] + partBuffer[i];
+
+                if (sample > Short.MAX_VALUE) {
+                    sample = Short.MAX_VALUE;
+                } else if (sample < Short.MIN_VALUE) {
+                    sample = Short.MIN_VALUE;
+                }
+
+                buffer[offset + i] = (short) sample;
+            }
+        }
+    }
+
+    public void renderTo(AudioSink sink) throws IOException {
+        short[] buffer = new short[RENDER_BUFFER_SIZE];
+        int frames;
+
+        while ((frames = render(buffer, 0, buffer.length)) > 0) {
+            sink.write(buffer, 0, frames);
+        }
+    }
+}
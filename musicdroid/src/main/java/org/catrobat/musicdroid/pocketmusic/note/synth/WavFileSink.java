@@ -0,0 +1,113 @@
+/*
+ * Musicdroid: An on-device music generator for Android
+ * Copyright (C) 2010-2015 The Catrobat Team
+ * (<http://developer.catrobat.org/credits>)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * An additional term exception under section 7 of the GNU Affero
+ * General Public License, version 3, is available at
+ * http://developer.catrobat.org/license_additional_term
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.catrobat.musicdroid.pocketmusic.note.synth;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class WavFileSink implements AudioSink {
+
+    public static final int HEADER_SIZE = 44;
+
+    private static final int BYTES_PER_SAMPLE = 2;
+    private static final int CHANNELS = 1;
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_CHUNK_SIZE = 16;
+
+    private RandomAccessFile file;
+    private int sampleRate;
+    private long dataSize;
+    private byte[] bytes;
+
+    public WavFileSink(File wavFile, int sampleRate) throws IOException {
+        this.sampleRate = sampleRate;
+
+        file = new RandomAccessFile(wavFile, "rw");
+        file.setLength(0);
+        dataSize = 0;
+        bytes = new byte[0];
+
+        file.write(createHeader());
+    }
+
+    @Override
+    public void write(short[] buffer, int offset, int length) throws IOException {
+        if (bytes.length < length * BYTES_PER_SAMPLE) {
+            bytes = new byte[length * BYTES_PER_SAMPLE];
+        }
+
+        for (int i = 0; i < length; i++) {
+            short sample = buffer[offset + i];
+            bytes[2 * i] = (byte) sample;
+            bytes[2 * i + 1] = (byte) (sample >> 8);
+        }
+
+        file.write(bytes, 0, length * BYTES_PER_SAMPLE);
+        dataSize += length * BYTES_PER_SAMPLE;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.seek(0);
+        file.write(createHeader());
+        file.close();
+    }
+
+    private byte[] createHeader() {
+        byte[] header = new byte[HEADER_SIZE];
+
+        writeAscii(header, 0, "RIFF");
+        writeLittleEndian(header, 4, (int) (HEADER_SIZE - 8 + dataSize), 4);
+        writeAscii(header, 8, "WAVE");
+        writeAscii(header, 12, "fmt ");
+        writeLittleEndian(header, 16, FORMAT_CHUNK_SIZE, 4);
+        writeLittleEndian(header, 20, FORMAT_PCM, 2);
+        writeLittleEndian(header, 22, CHANNELS, 2);
+        writeLittleEndian(header, 24, sampleRate, 4);
+        writeLittleEndian(header, 28, sampleRate * CHANNELS * BYTES_PER_SAMPLE, 4);
+        writeLittleEndian(header, 32, CHANNELS * BYTES_PER_SAMPLE, 2);
+        writeLittleEndian(header, 34, 8 * BYTES_PER_SAMPLE, 2);
+        writeAscii(header, 36, "data");
+        writeLittleEndian(header, 40, (int) dataSize, 4);
+
+        return header;
+    }
+
+    private static void writeAscii(byte[] bytes, int offset, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            bytes[offset + i] = (byte) value.charAt(i);
+        }
+    }
+
+    private static void writeLittleEndian(byte[] bytes, int offset, int value, int byteCount) {
+        for (int i = 0; i < byteCount; i++) {
+            bytes[offset + i] = (byte) (value >> (8 * i));
+        }
+    }
+}